@@ -0,0 +1,65 @@
+package com.Project.DataAcquisition.Config;
+
+import com.Project.DataAcquisition.Model.SensorSeries;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary response encodings next to JSON: {@code Accept: application/x-jackson-smile} or
+ * {@code Accept: application/cbor} gets the same Map payloads written straight to Smile or CBOR,
+ * which is smaller and cheaper to encode and decode for large chart datasets. {@code format=columnar}
+ * still switches SensorSeries to parallel arrays. Spring MVC already registers plain Smile and CBOR converters
+ * after the JSON ones; these take their places, so clients that accept anything keep getting JSON.
+ */
+@Configuration
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryEncodingConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // The builder is a prototype bean carrying Spring Boot's Jackson settings; one copy per format
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.getObject().factory(new SmileFactory()).build()) {
+                    @Override
+                    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                        return ColumnarJsonConfig.isColumnar(contentType) ? writer.withAttribute(SensorSeries.COLUMNAR, Boolean.TRUE) : writer;
+                    }
+                });
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.getObject().factory(new CBORFactory()).build()) {
+                    @Override
+                    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                        return ColumnarJsonConfig.isColumnar(contentType) ? writer.withAttribute(SensorSeries.COLUMNAR, Boolean.TRUE) : writer;
+                    }
+                });
+    }
+
+    // A converter earlier in the list wins, so the default one is swapped out in place rather than shadowing ours
+    private static void replace(List<HttpMessageConverter<?>> converters, Class<?> type, HttpMessageConverter<?> converter) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                converters.set(i, converter);
+                converters.subList(i + 1, converters.size()).removeIf(type::isInstance);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+}
@@ -0,0 +1,44 @@
+package com.Project.DataAcquisition.Config;
+
+import com.Project.DataAcquisition.Model.SensorSeries;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Opt-in columnar time series in JSON responses: a client that sends
+ * {@code Accept: application/vnd.series.columnar+json} or {@code format=columnar} gets every SensorSeries as
+ * parallel arrays of epoch millis and values instead of one object per reading. The millis are the naive reading
+ * times taken at SensorSeries.EPOCH_ZONE (UTC), so clients format them in UTC rather than their local zone.
+ * Everything else in the response is unchanged. Only HTTP responses are affected; JSON stored in the database keeps the row format.
+ */
+@Configuration
+public class ColumnarJsonConfig {
+
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType("application/vnd.series.columnar+json");
+
+    // Replaces Spring Boot's default converter, same ObjectMapper
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+                return isColumnar(contentType) ? writer.withAttribute(SensorSeries.COLUMNAR, Boolean.TRUE) : writer;
+            }
+        };
+    }
+
+    static boolean isColumnar(MediaType contentType) {
+        if (contentType != null && COLUMNAR_JSON.equalsTypeAndSubtype(contentType)) {
+            return true;
+        }
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && "columnar".equalsIgnoreCase(attributes.getRequest().getParameter("format"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.Project.DataAcquisition.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Warns at startup when an index from db/migration (V3, V4) is missing,
+ * e.g. after a manual drop or a restore from an old dump. Without them the hot queries fall back to sequential scans.
+ */
+@Component
+public class SchemaIndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    // table -> index, in step with the migrations
+    static final List<String[]> EXPECTED_INDEXES = List.of(
+            new String[]{"sensor_data", "idx_sensor_data_sensor_key_timestamp"},
+            new String[]{"sensor_catalog", "idx_sensor_catalog_rtu_type"},
+            new String[]{"sensor_catalog", "idx_sensor_catalog_sensor_type_upper"},
+            new String[]{"alarms", "idx_alarms_status_severity_created"},
+            new String[]{"alarms", "idx_alarms_severity"},
+            new String[]{"alarms", "idx_alarms_rule_created"},
+            new String[]{"alarm_sensors", "idx_alarm_sensors_sensor_created"},
+            new String[]{"alarm_sensors", "idx_alarm_sensors_alarm"},
+            new String[]{"scheduled_reports", "idx_scheduled_reports_active_frequency_next_run"},
+            new String[]{"scheduled_reports", "idx_scheduled_reports_report_frequency"},
+            new String[]{"report_widgets", "idx_report_widgets_report_widget"},
+            new String[]{"automated_report_widgets", "idx_automated_report_widgets_report"},
+            new String[]{"automated_reports", "idx_automated_reports_report_frequency"},
+            new String[]{"layout_widgets", "idx_layout_widgets_layout_widget"},
+            new String[]{"layouts", "idx_layouts_layout_name"},
+            new String[]{"manual_reports", "idx_manual_reports_created"},
+            new String[]{"manual_reports", "idx_manual_reports_schedule_status"},
+            new String[]{"rtu_data", "idx_rtu_data_rtu_name"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        try {
+            // pg_indexes lists the indexes of partitioned parents too
+            Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT tablename || '.' || indexname FROM pg_indexes WHERE schemaname = current_schema()",
+                    String.class));
+
+            int missing = 0;
+            for (String[] expected : EXPECTED_INDEXES) {
+                if (!present.contains(expected[0] + "." + expected[1])) {
+                    logger.warn("Missing index {} on {}; queries on this table will scan it sequentially", expected[1], expected[0]);
+                    missing++;
+                }
+            }
+
+            if (missing == 0) {
+                logger.info("All {} expected indexes are present", EXPECTED_INDEXES.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not verify database indexes: {}", e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package com.Project.DataAcquisition.Controller.Alarms;
 
+import com.Project.DataAcquisition.DTO.Alarms.BulkAlarmRequest;
 import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
 import com.Project.DataAcquisition.Exception.AlarmNotFoundException;
 import com.Project.DataAcquisition.Service.Alarm.AlarmService;
+import com.Project.DataAcquisition.Service.Alarm.AlarmStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,9 +24,11 @@ import java.util.Map;
 public class AlarmController {
 
     private final AlarmService alarmService;
+    private final AlarmStreamService alarmStreamService;
 
-    public AlarmController(AlarmService alarmService) {
+    public AlarmController(AlarmService alarmService, AlarmStreamService alarmStreamService) {
         this.alarmService = alarmService;
+        this.alarmStreamService = alarmStreamService;
     }
 
     // ✅ Get alarms (all or filtered)
@@ -42,6 +49,20 @@ public class AlarmController {
         return alarms.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(alarms);
     }
 
+    // ✅ Live alarm stream (replaces polling the alarm list and dashboard summary)
+    @Operation(summary = "Stream alarm changes",
+            description = "Server-Sent Events stream of alarm-created, alarm-updated, alarm-deleted and summary-delta events. " +
+                    "Reconnecting clients resume from the Last-Event-ID header.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream opened")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlarms(
+            @Parameter(description = "Id of the last event received before reconnecting")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return alarmStreamService.subscribe(lastEventId);
+    }
+
     // ✅ Get alarm by ID
     @Operation(summary = "Get alarm by ID", description = "Retrieve a specific alarm by its ID.")
     @ApiResponses({
@@ -85,6 +106,37 @@ public class AlarmController {
         }
     }
 
+    // ✅ Bulk acknowledge alarms by ids or filter
+    @Operation(summary = "Bulk acknowledge alarms",
+            description = "Acknowledge all Active alarms matching the given ids and/or filter (rule, sensor, severity, time range) in a single update.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Alarms acknowledged; returns the changed alarms"),
+            @ApiResponse(responseCode = "400", description = "No ids or filter given, or invalid request data")
+    })
+    @PostMapping("/bulk/acknowledge")
+    public ResponseEntity<Map<String, Object>> acknowledgeAlarms(@RequestBody BulkAlarmRequest request) {
+        return ResponseEntity.ok(bulkResponse(alarmService.acknowledgeAlarms(request)));
+    }
+
+    // ✅ Bulk close alarms by ids or filter
+    @Operation(summary = "Bulk close alarms",
+            description = "Close all Active or Acknowledged alarms matching the given ids and/or filter (rule, sensor, severity, time range) in a single update.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Alarms closed; returns the changed alarms"),
+            @ApiResponse(responseCode = "400", description = "No ids or filter given, or invalid request data")
+    })
+    @PostMapping("/bulk/close")
+    public ResponseEntity<Map<String, Object>> closeAlarms(@RequestBody BulkAlarmRequest request) {
+        return ResponseEntity.ok(bulkResponse(alarmService.closeAlarms(request)));
+    }
+
+    private Map<String, Object> bulkResponse(List<Map<String, Object>> alarms) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("updated", alarms.size());
+        response.put("alarms", alarms);
+        return response;
+    }
+
     // ✅ Delete alarm
     @Operation(summary = "Delete alarm by ID", description = "Delete a specific alarm by its ID.")
     @ApiResponses({
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,10 +19,11 @@ public class SensorController {
         this.sensorService = sensorService;
     }
 
-    // Create Sensor
+    // Create Sensor; 202 when compression held or dropped the reading instead of storing it
     @PostMapping
     public ResponseEntity<Sensor> createSensor(@RequestBody Sensor sensor) {
-        return ResponseEntity.ok(sensorService.createSensor(sensor));
+        Sensor created = sensorService.createSensor(sensor);
+        return created.getId() != null ? ResponseEntity.ok(created) : ResponseEntity.accepted().body(created);
     }
 
     // Get All Sensors
@@ -30,6 +32,12 @@ public class SensorController {
         return ResponseEntity.ok(sensorService.getAllSensors());
     }
 
+    // Readings received vs stored per sensor under ingest compression
+    @GetMapping("/compression-stats")
+    public ResponseEntity<List<Map<String, Object>>> getCompressionStats() {
+        return ResponseEntity.ok(sensorService.getCompressionStats());
+    }
+
     // Get Sensor by ID
     @GetMapping("/{id}")
     public ResponseEntity<Sensor> getSensorById(@PathVariable Long id) {
@@ -4,6 +4,7 @@ import com.Project.DataAcquisition.Service.Alarm.AlarmService;
 import com.Project.DataAcquisition.Service.Reports.Manual.ReportSchedulerService;
 import com.Project.DataAcquisition.Service.Reports.Manual.ReportService;
 import com.Project.DataAcquisition.Service.Rule.RuleService;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,19 +31,31 @@ public class DashboardController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ChangeWatermarks changeWatermarks;
+
     @GetMapping("/alarms-summary")
-    public ResponseEntity<Map<String, Object>> getAlarmStats() {
+    public ResponseEntity<Map<String, Object>> getAlarmStats(WebRequest request) {
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(new String[]{ChangeWatermarks.ALARMS}, "alarms-summary"))) {
+            return null;
+        }
         Map<String, Object> alarmSummary = alarmService.getAlarmSummary();
         return new ResponseEntity<>(alarmSummary, HttpStatus.OK);
     }
     @GetMapping("/rules-summary")
-    public ResponseEntity<Map<String, Object>> getRulesSummary() {
+    public ResponseEntity<Map<String, Object>> getRulesSummary(WebRequest request) {
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(new String[]{ChangeWatermarks.RULES}, "rules-summary"))) {
+            return null;
+        }
         Map<String, Object> summary = ruleService.getRulesSummary();
         return ResponseEntity.ok(summary);
     }
 
     @GetMapping("/reports-summary")
-    public ResponseEntity<Map<String, Object>> getReportsSummary() {
+    public ResponseEntity<Map<String, Object>> getReportsSummary(WebRequest request) {
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(new String[]{ChangeWatermarks.REPORTS}, "reports-summary"))) {
+            return null;
+        }
         Map<String, Object> reportsSummary = reportService.getReportsSummary();
         return ResponseEntity.ok(reportsSummary);
     }
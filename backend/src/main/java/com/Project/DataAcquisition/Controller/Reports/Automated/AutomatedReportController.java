@@ -1,14 +1,17 @@
 package com.Project.DataAcquisition.Controller.Reports.Automated;
 
 import com.Project.DataAcquisition.Entity.Reports.Automated.AutomatedReport;
+import com.Project.DataAcquisition.Model.SensorSeries;
 import com.Project.DataAcquisition.Repository.Reports.Automated.AutomatedReportRepository;
 import com.Project.DataAcquisition.Service.Reports.Automated.AutomatedReportService;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
@@ -29,6 +32,9 @@ public class AutomatedReportController {
     @Autowired
     private AutomatedReportService automatedReportService;
 
+    @Autowired
+    private ChangeWatermarks changeWatermarks;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> filterReports(
             @RequestParam(required = false) String reportType,
@@ -79,7 +85,18 @@ public class AutomatedReportController {
 
 
     @GetMapping("/{automatedReportId}")
-    public ResponseEntity<Map<String, Object>> viewReport(@PathVariable Long automatedReportId) {
+    public ResponseEntity<Map<String, Object>> viewReport(@PathVariable Long automatedReportId, WebRequest request) {
+        // Readings come from the generated window, but alarm tables list live alarms by their current status, so the
+        // tag follows the same watermarks as the render; no Last-Modified, the content changes after generatedTime
+        AutomatedReport generated = automatedReportRepository.findById(automatedReportId).orElse(null);
+        if (generated != null && generated.getGeneratedTime() != null) {
+            // Same zone as the columnar timestamps, not the JVM default
+            long generatedAt = generated.getGeneratedTime().toInstant(SensorSeries.EPOCH_ZONE).toEpochMilli();
+            String tag = changeWatermarks.tag(AutomatedReportService.RENDER_INPUTS, "automated-report", automatedReportId, Long.toString(generatedAt, 36));
+            if (ChangeWatermarks.notModified(request, tag)) {
+                return null;
+            }
+        }
         Map<String, Object> reportData = automatedReportService.getAutomatedReportById(automatedReportId);
 
         if (reportData == null || reportData.isEmpty()) {
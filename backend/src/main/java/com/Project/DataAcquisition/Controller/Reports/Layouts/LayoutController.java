@@ -4,6 +4,7 @@ import com.Project.DataAcquisition.DTO.Reports.Layout.LayoutResponse;
 import com.Project.DataAcquisition.Entity.Reports.Layout.Layout;
 import com.Project.DataAcquisition.Repository.Reports.Widget.LayoutRepository;
 import com.Project.DataAcquisition.Service.Reports.Layouts.LayoutService;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,6 +14,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -30,6 +32,9 @@ public class LayoutController {
     @Autowired
     private LayoutRepository layoutRepository;
 
+    @Autowired
+    private ChangeWatermarks changeWatermarks;
+
     @Autowired
     public LayoutController(LayoutService layoutService) {
         this.layoutService = layoutService;
@@ -66,9 +71,12 @@ public class LayoutController {
 //        return layoutService.getLayoutTypes();
 //    }
 
-    // 5. API to view a particular layout
+    // 5. API to view a particular layout (304 while no layout or widget has changed)
     @GetMapping("/{layoutId}")
-    public ResponseEntity<?> getLayoutById(@PathVariable Long layoutId) {
+    public ResponseEntity<?> getLayoutById(@PathVariable Long layoutId, WebRequest request) {
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(new String[]{ChangeWatermarks.LAYOUTS, ChangeWatermarks.WIDGETS}, "layout", layoutId))) {
+            return null;
+        }
         Map<String, Object> layoutData = layoutService.getLayoutById(layoutId);
         if (layoutData == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -93,7 +101,10 @@ public class LayoutController {
 
     // 8. API to get all the widgets
     @GetMapping("/widget-types")
-    public ResponseEntity<List<Map<String, Object>>> getAllWidgetsGroupedByType() {
+    public ResponseEntity<List<Map<String, Object>>> getAllWidgetsGroupedByType(WebRequest request) {
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(new String[]{ChangeWatermarks.WIDGETS}, "widget-types"))) {
+            return null;
+        }
         List<Map<String, Object>> widgets = layoutService.getWidgetsGroupedByType();
         return ResponseEntity.ok(widgets);
     }
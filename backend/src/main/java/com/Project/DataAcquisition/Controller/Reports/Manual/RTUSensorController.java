@@ -3,7 +3,7 @@ package com.Project.DataAcquisition.Controller.Reports.Manual;
 
 import com.Project.DataAcquisition.Entity.Rules.RtuData;
 import com.Project.DataAcquisition.Repository.Reports.Manual.RtuRepository;
-import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.Explode;
 import io.swagger.v3.oas.annotations.enums.ParameterStyle;
@@ -18,11 +18,11 @@ import java.util.List;
 public class RTUSensorController {
 
     private final RtuRepository rtuRepository;
-    private final SensorRepository sensorRepository;
+    private final SensorCatalogService sensorCatalogService;
 
-    public RTUSensorController(RtuRepository rtuRepository, SensorRepository sensorRepository) {
+    public RTUSensorController(RtuRepository rtuRepository, SensorCatalogService sensorCatalogService) {
         this.rtuRepository = rtuRepository;
-        this.sensorRepository = sensorRepository;
+        this.sensorCatalogService = sensorCatalogService;
     }
 
     @GetMapping("/rtus")
@@ -48,7 +48,7 @@ public class RTUSensorController {
             )
             @RequestParam("rtuIds") List<Long> rtuIdsParam
     ) {
-        List<String> sensorTypes = sensorRepository.findDistinctSensorTypesByRtuIds(rtuIdsParam);
+        List<String> sensorTypes = sensorCatalogService.sensorTypesOf(rtuIdsParam);
         return ResponseEntity.ok(sensorTypes);
     }
 
@@ -62,7 +62,7 @@ public class RTUSensorController {
             @Parameter(description = "Sensor type to filter", example = "temperature")
             String sensorType) {
 
-        List<String> sensorIds = sensorRepository.findSensorIdsByRtu_RtuIdsAndSensorType(rtuIds, sensorType);
+        List<String> sensorIds = sensorCatalogService.sensorIdsOf(rtuIds, sensorType);
         return ResponseEntity.ok(sensorIds);
     }
 
@@ -2,8 +2,11 @@ package com.Project.DataAcquisition.Controller.Reports.Manual;
 
 import com.Project.DataAcquisition.DTO.Reports.Manual.CreateReportRequest;
 import com.Project.DataAcquisition.Exception.ReportNotFoundException;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportExportService;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportPdfService;
 import com.Project.DataAcquisition.Service.Reports.Manual.ReportSchedulerService;
 import com.Project.DataAcquisition.Service.Reports.Manual.ReportService;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -17,6 +20,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -24,6 +29,9 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/manual-reports")
@@ -33,12 +41,20 @@ public class ReportController {
 
     private final ReportService reportService;
     private final ReportSchedulerService reportSchedulerService;
+    private final ReportExportService reportExportService;
+    private final ReportPdfService reportPdfService;
+    private final ChangeWatermarks changeWatermarks;
     private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
 
     @Autowired
-    public ReportController(ReportService reportService, ReportSchedulerService reportSchedulerService) {
+    public ReportController(ReportService reportService, ReportSchedulerService reportSchedulerService,
+                            ReportExportService reportExportService, ReportPdfService reportPdfService,
+                            ChangeWatermarks changeWatermarks) {
         this.reportService = reportService;
         this.reportSchedulerService=reportSchedulerService;
+        this.reportExportService = reportExportService;
+        this.reportPdfService = reportPdfService;
+        this.changeWatermarks = changeWatermarks;
     }
 
 
@@ -141,6 +157,94 @@ public class ReportController {
         return ResponseEntity.ok(reportDetails);
     }
 
+    // 6. Report, layout and widget configurations without data, for laying out the page first (304 while unchanged)
+    @Operation(summary = "View a report's skeleton",
+            description = "Returns the same shape as /view, but each widget's data holds its configuration only. "
+                    + "Fetch each widget's data from /widgets/{widgetID}/data, e.g. as it scrolls into view.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Skeleton returned"),
+            @ApiResponse(responseCode = "304", description = "No report, layout or widget has changed"),
+            @ApiResponse(responseCode = "404", description = "Report not found")
+    })
+    @GetMapping("/{reportID}/skeleton")
+    public ResponseEntity<Map<String, Object>> getReportSkeleton(@PathVariable Long reportID, WebRequest request) {
+        String[] resources = {ChangeWatermarks.REPORTS, ChangeWatermarks.LAYOUTS, ChangeWatermarks.WIDGETS};
+        if (ChangeWatermarks.notModified(request, changeWatermarks.tag(resources, "report-skeleton", reportID))) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(reportService.getReportSkeleton(reportID));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // 7. One widget of a report with its data computed, as it appears in /view
+    @Operation(summary = "View one widget's data",
+            description = "Renders a single widget of the report. Widgets can be fetched concurrently and independently.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Widget rendered"),
+            @ApiResponse(responseCode = "404", description = "Report or widget not found")
+    })
+    @GetMapping("/{reportID}/widgets/{widgetID}/data")
+    public ResponseEntity<Map<String, Object>> getReportWidgetData(@PathVariable Long reportID, @PathVariable Long widgetID) {
+        try {
+            return ResponseEntity.ok(reportService.getWidgetData(reportID, widgetID));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // 8. Download the readings behind a report's widgets as CSV
+    @Operation(summary = "Export a report as CSV",
+            description = "Streams widget, sensorId, sensorType, timestamp and value for every sensor widget of the report. "
+                    + "Dates override each widget's saved range; gzip=true compresses the file.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid dates or widget data"),
+            @ApiResponse(responseCode = "404", description = "Report not found")
+    })
+    @GetMapping("/{reportId}/export/csv")
+    public ResponseEntity<?> exportReportCsv(@PathVariable Long reportId,
+                                             @RequestParam(required = false) String startDate,
+                                             @RequestParam(required = false) String endDate,
+                                             @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            return csvResponse(reportExportService.prepareReportExport(reportId, startDate, endDate), gzip);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Download raw readings of any sensors over a range as CSV
+    @Operation(summary = "Export sensor readings as CSV",
+            description = "Streams sensorId, sensorType, timestamp and value of the given sensors between startDate and endDate.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV streamed"),
+            @ApiResponse(responseCode = "400", description = "Missing or unknown sensors, or invalid dates")
+    })
+    @GetMapping("/export/csv")
+    public ResponseEntity<?> exportSensorsCsv(@RequestParam List<String> sensorIds,
+                                              @RequestParam String startDate,
+                                              @RequestParam String endDate,
+                                              @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            return csvResponse(reportExportService.prepareSensorExport(sensorIds, startDate, endDate), gzip);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> csvResponse(ReportExportService.CsvExport export, boolean gzip) {
+        StreamingResponseBody body = out -> reportExportService.writeCsv(export, out, gzip);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + export.fileName() + (gzip ? ".csv.gz\"" : ".csv\""))
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
     // 9. Delete a report
     @Operation(summary = "Delete a report", description = "Deletes a report by its ID.")
     @ApiResponses({
@@ -153,6 +257,32 @@ public class ReportController {
     }
 
 
+    // 11. Export report to PDF
+    @Operation(summary = "Export a report as PDF", description = "Renders the report view to an A4 PDF in a pooled headless browser.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "PDF rendered"),
+            @ApiResponse(responseCode = "404", description = "Report not found"),
+            @ApiResponse(responseCode = "503", description = "Render queue full or PDF export disabled"),
+            @ApiResponse(responseCode = "504", description = "Render timed out")
+    })
+    @GetMapping("/{reportId}/export/pdf")
+    public ResponseEntity<?> exportReportToPdf(@PathVariable Long reportId) {
+        try {
+            byte[] pdf = reportPdfService.renderReport(reportId);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"report-" + reportId + ".pdf\"")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .body(pdf);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", e.getMessage()));
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+
     //  Global Exception Handling
     @ExceptionHandler(ReportNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleReportNotFoundException(ReportNotFoundException e) {
@@ -0,0 +1,81 @@
+package com.Project.DataAcquisition.Controller.Reports.Manual;
+
+import com.Project.DataAcquisition.DTO.Reports.Manual.ExportJobRequest;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportExportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/export-jobs")
+@CrossOrigin(origins = "*")
+@Tag(name = "Export Job APIs", description = "Background CSV and PDF exports of reports and sensor ranges")
+public class ReportExportJobController {
+
+    private final ReportExportJobService reportExportJobService;
+
+    public ReportExportJobController(ReportExportJobService reportExportJobService) {
+        this.reportExportJobService = reportExportJobService;
+    }
+
+    // 1. Start an export (or join an identical one)
+    @Operation(summary = "Start an export job", description = "Queues a CSV or PDF export and returns its job id; an identical request returns the existing job.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Job queued or reused"),
+            @ApiResponse(responseCode = "400", description = "Invalid format, sensors or dates"),
+            @ApiResponse(responseCode = "404", description = "Report not found"),
+            @ApiResponse(responseCode = "503", description = "Export queue full")
+    })
+    @PostMapping
+    public ResponseEntity<?> createJob(@RequestBody ExportJobRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportExportJobService.submit(request));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("message", "Export queue is full, try again later."));
+        }
+    }
+
+    // 2. Status and progress of a job
+    @Operation(summary = "Get export job status", description = "Status, progress in percent and rows written so far.")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        return reportExportJobService.describe(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Export job not found")));
+    }
+
+    // 3. Download the finished artifact
+    @Operation(summary = "Download an export", description = "Sends the finished file straight from disk.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "File sent"),
+            @ApiResponse(responseCode = "404", description = "Job not found or expired"),
+            @ApiResponse(responseCode = "409", description = "Job not finished or failed")
+    })
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<?> download(@PathVariable String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            reportExportJobService.download(jobId, request, response);
+            return null; // Response already written
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
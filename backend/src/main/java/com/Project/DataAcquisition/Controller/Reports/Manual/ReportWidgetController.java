@@ -10,9 +10,12 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -71,4 +74,50 @@ public class ReportWidgetController {
         }
     }
 
-}
\ No newline at end of file
+    // 4️⃣ Stream the rows of a Sensor Data Table widget; the dates default to the range saved with the widget
+    @Operation(summary = "Stream Sensor Data Table rows",
+            description = "Streams the widget's readings as a JSON array of {sensorId, value, timestamp} without loading the range into memory.")
+    @ApiResponse(responseCode = "200", description = "Rows streamed.")
+    @ApiResponse(responseCode = "400", description = "Not a Sensor Data Table, or invalid sensors or dates.")
+    @ApiResponse(responseCode = "404", description = "Widget not found.")
+    @GetMapping(value = "/{widgetID}/sensor-table", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> streamSensorTable(@PathVariable Long reportID,
+                                               @PathVariable Long widgetID,
+                                               @RequestParam(required = false) String startDate,
+                                               @RequestParam(required = false) String endDate) {
+        ReportWidgetService.SensorTableQuery query;
+        try {
+            query = reportWidgetService.prepareSensorTable(reportID, widgetID, startDate, endDate);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+        StreamingResponseBody body = out -> reportWidgetService.writeSensorTable(query, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // 5️⃣ One page of a Sensor Data Table widget; pass the previous page's nextCursor to continue
+    @Operation(summary = "Page through Sensor Data Table rows",
+            description = "Returns up to 'size' rows ordered by timestamp and sensor as sensorTableData, with nextCursor for the following page (null on the last one).")
+    @ApiResponse(responseCode = "200", description = "Page returned.")
+    @ApiResponse(responseCode = "400", description = "Not a Sensor Data Table, or invalid sensors, dates, cursor or size.")
+    @ApiResponse(responseCode = "404", description = "Widget not found.")
+    @GetMapping("/{widgetID}/sensor-table/page")
+    public ResponseEntity<?> getSensorTablePage(@PathVariable Long reportID,
+                                                @PathVariable Long widgetID,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                @RequestParam(required = false) String startDate,
+                                                @RequestParam(required = false) String endDate) {
+        try {
+            ReportWidgetService.SensorTableQuery query = reportWidgetService.prepareSensorTable(reportID, widgetID, startDate, endDate);
+            return ResponseEntity.ok(reportWidgetService.sensorTablePage(query, cursor, size));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+}
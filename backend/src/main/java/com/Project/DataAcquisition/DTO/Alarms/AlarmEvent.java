@@ -0,0 +1,52 @@
+package com.Project.DataAcquisition.DTO.Alarms;
+
+import java.util.List;
+import java.util.Map;
+
+// Published by AlarmService whenever the alarms table changes, fanned out to live clients after commit
+public class AlarmEvent {
+
+    public static final String CREATED = "alarm-created";
+    public static final String UPDATED = "alarm-updated";
+    public static final String DELETED = "alarm-deleted";
+    public static final String BULK_UPDATED = "alarms-bulk-updated";
+
+    private final String type;
+    private final List<Map<String, Object>> alarms;
+    private final Map<String, String> previousStatus; // alarmId -> status before the change (updates only)
+
+    public AlarmEvent(String type, List<Map<String, Object>> alarms, Map<String, String> previousStatus) {
+        this.type = type;
+        this.alarms = alarms;
+        this.previousStatus = previousStatus;
+    }
+
+    public static AlarmEvent created(Map<String, Object> alarm) {
+        return new AlarmEvent(CREATED, List.of(alarm), Map.of());
+    }
+
+    public static AlarmEvent updated(Map<String, Object> alarm, String previousStatus) {
+        return new AlarmEvent(UPDATED, List.of(alarm), Map.of(String.valueOf(alarm.get("alarmId")), previousStatus));
+    }
+
+    // One event for a whole bulk acknowledge/close, streamed as a single message
+    public static AlarmEvent bulkUpdated(List<Map<String, Object>> alarms, Map<String, String> previousStatus) {
+        return new AlarmEvent(BULK_UPDATED, alarms, previousStatus);
+    }
+
+    public static AlarmEvent deleted(Map<String, Object> alarm) {
+        return new AlarmEvent(DELETED, List.of(alarm), Map.of());
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public List<Map<String, Object>> getAlarms() {
+        return alarms;
+    }
+
+    public Map<String, String> getPreviousStatus() {
+        return previousStatus;
+    }
+}
@@ -0,0 +1,86 @@
+package com.Project.DataAcquisition.DTO.Alarms;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Selects the alarms for a bulk acknowledge/close, either by id or by filter")
+public class BulkAlarmRequest {
+
+    @Schema(description = "Alarm ids to transition; when given the filter fields narrow this set further", example = "[101, 102, 103]")
+    private List<Long> alarmIds;
+
+    @Schema(description = "Only alarms raised by this rule", example = "7")
+    private Long ruleId;
+
+    @Schema(description = "Only alarms linked to this sensor", example = "S101")
+    private String sensorId;
+
+    @Schema(description = "Only alarms of this severity (High, Moderate, Low)", example = "High")
+    private String severity;
+
+    @Schema(description = "Only alarms created at or after this time", example = "2025-03-01 00:00:00")
+    private String startTime;
+
+    @Schema(description = "Only alarms created at or before this time", example = "2025-03-01 23:59:59")
+    private String endTime;
+
+    @Schema(description = "Operator performing the transition", example = "operator1")
+    private String acknowledgedBy;
+
+    public List<Long> getAlarmIds() {
+        return alarmIds;
+    }
+
+    public void setAlarmIds(List<Long> alarmIds) {
+        this.alarmIds = alarmIds;
+    }
+
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(Long ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(String sensorId) {
+        this.sensorId = sensorId;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(String endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getAcknowledgedBy() {
+        return acknowledgedBy;
+    }
+
+    public void setAcknowledgedBy(String acknowledgedBy) {
+        this.acknowledgedBy = acknowledgedBy;
+    }
+}
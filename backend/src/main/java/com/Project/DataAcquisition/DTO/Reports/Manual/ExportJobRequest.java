@@ -0,0 +1,75 @@
+package com.Project.DataAcquisition.DTO.Reports.Manual;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Request body to start a background export")
+public class ExportJobRequest {
+
+    @Schema(description = "Output format", allowableValues = {"csv", "pdf"}, example = "csv")
+    private String format;
+
+    @Schema(description = "Report to export; either this or sensorIds (CSV only)", example = "12")
+    private Long reportId;
+
+    @Schema(description = "Sensors to export when no report is given")
+    private List<String> sensorIds;
+
+    @Schema(description = "Start of the range (yyyy-MM-dd or yyyy-MM-dd HH:mm:ss); overrides the widgets' saved ranges", example = "2025-03-01")
+    private String startDate;
+
+    @Schema(description = "End of the range (yyyy-MM-dd or yyyy-MM-dd HH:mm:ss)", example = "2025-03-31")
+    private String endDate;
+
+    @Schema(description = "Gzip the CSV file")
+    private boolean gzip;
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public Long getReportId() {
+        return reportId;
+    }
+
+    public void setReportId(Long reportId) {
+        this.reportId = reportId;
+    }
+
+    public List<String> getSensorIds() {
+        return sensorIds;
+    }
+
+    public void setSensorIds(List<String> sensorIds) {
+        this.sensorIds = sensorIds;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(String startDate) {
+        this.startDate = startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(String endDate) {
+        this.endDate = endDate;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+}
@@ -1,10 +1,12 @@
 package com.Project.DataAcquisition.Entity.Alarms;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -35,8 +37,13 @@ public class AlarmEntity {
     @Column(columnDefinition = "jsonb")
     private List<String> tags;
 
+    @Column(nullable = false) // Partition key of the alarms table
     private LocalDateTime createdAt;
 
+    @OneToMany(mappedBy = "alarm", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    private List<AlarmSensor> sensorLinks = new ArrayList<>();
+
     public AlarmEntity() {
         this.acknowledgedBy = "NA";
         this.acknowledgedAt = "NA";
@@ -80,5 +87,32 @@ public class AlarmEntity {
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public List<AlarmSensor> getSensorLinks() { return sensorLinks; }
+
+    // Keep alarm_sensors in step with the jsonb lists; a single type applies to every sensor
+    @PrePersist
+    public void linkSensors() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        sensorLinks.clear();
+        if (sensorId == null) {
+            return;
+        }
+        for (int i = 0; i < sensorId.size(); i++) {
+            String linkedSensorId = sensorId.get(i);
+            if (linkedSensorId == null || sensorLinks.stream().anyMatch(l -> l.getSensorId().equals(linkedSensorId))) {
+                continue;
+            }
+            String sensorType = null;
+            if (type != null && type.size() == 1) {
+                sensorType = type.get(0);
+            } else if (type != null && i < type.size()) {
+                sensorType = type.get(i);
+            }
+            sensorLinks.add(new AlarmSensor(this, linkedSensorId, sensorType, createdAt));
+        }
+    }
 }
 
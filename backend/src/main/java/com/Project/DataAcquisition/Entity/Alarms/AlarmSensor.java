@@ -0,0 +1,47 @@
+package com.Project.DataAcquisition.Entity.Alarms;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alarm_sensors",  // Normalized copy of AlarmEntity.sensorId / type
+        indexes = {
+                @Index(name = "idx_alarm_sensors_sensor_created", columnList = "sensor_id, created_at"),
+                @Index(name = "idx_alarm_sensors_alarm", columnList = "alarm_id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_alarm_sensors_alarm_sensor", columnNames = {"alarm_id", "sensor_id"}))
+@Getter
+@Setter
+public class AlarmSensor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "alarm_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT)) // alarms is partitioned, its key is (alarm_id, created_at)
+    private AlarmEntity alarm;
+
+    @Column(name = "sensor_id", nullable = false)
+    private String sensorId;
+
+    @Column(name = "sensor_type")
+    private String sensorType;
+
+    // Copied from the alarm so per-sensor history is a range scan on (sensor_id, created_at)
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public AlarmSensor() {}
+
+    public AlarmSensor(AlarmEntity alarm, String sensorId, String sensorType, LocalDateTime createdAt) {
+        this.alarm = alarm;
+        this.sensorId = sensorId;
+        this.sensorType = sensorType;
+        this.createdAt = createdAt;
+    }
+}
@@ -60,4 +60,7 @@ public class ReportWidget {
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private String data;  // Store JSON directly as a String
+
+    @Version
+    private Long version; // Key of the parsed configuration in WidgetConfigCache
 }
\ No newline at end of file
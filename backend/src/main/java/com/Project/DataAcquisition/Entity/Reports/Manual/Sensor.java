@@ -1,7 +1,9 @@
 package com.Project.DataAcquisition.Entity.Reports.Manual;
 
 import com.Project.DataAcquisition.Entity.Rules.RtuData;
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -12,15 +14,20 @@ public class Sensor {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, name = "sensor_id")
+    // Readings carry only the integer key; id, RTU and type live once in sensor_catalog
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "sensor_key", nullable = false)
+    @JsonIgnore
+    private SensorCatalog catalog;
+
+    // Incoming values until SensorService resolves them to a catalog entry
+    @Transient
     private String sensorId;
 
-    @ManyToOne
-    @JoinColumn(name = "rtu_id", nullable = false)
-    @JsonBackReference
+    @Transient
     private RtuData rtu;
 
-    @Column(nullable = false, name = "sensor_type")
+    @Transient
     private String sensorType;
 
     @Column(nullable = false, name = "value")
@@ -29,6 +36,12 @@ public class Sensor {
     @Column(nullable = false, name = "timestamp")
     private LocalDateTime timestamp;
 
+    // Ingest outcome of a created reading: stored, held or dropped by compression (not persisted)
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String compression;
+
 
     public Sensor() {}
 
@@ -40,17 +53,27 @@ public class Sensor {
         this.timestamp = timestamp;
     }
 
+    public Sensor(SensorCatalog catalog, Double value, LocalDateTime timestamp) {
+        this.catalog = catalog;
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
-    public String getSensorId() { return sensorId; }
+    public SensorCatalog getCatalog() { return catalog; }
+    public void setCatalog(SensorCatalog catalog) { this.catalog = catalog; }
+
+    public String getSensorId() { return catalog != null ? catalog.getSensorId() : sensorId; }
     public void setSensorId(String sensorId) { this.sensorId = sensorId; }
 
-    public RtuData getRtu() { return rtu; }
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    public RtuData getRtu() { return catalog != null ? catalog.getRtu() : rtu; }
     public void setRtu(RtuData rtu) { this.rtu = rtu; }
 
-    public String getSensorType() { return sensorType; }
+    public String getSensorType() { return catalog != null ? catalog.getSensorType() : sensorType; }
     public void setSensorType(String sensorType) { this.sensorType = sensorType; }
 
     public Double getValue() { return value; }
@@ -58,4 +81,7 @@ public class Sensor {
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public String getCompression() { return compression; }
+    public void setCompression(String compression) { this.compression = compression; }
 }
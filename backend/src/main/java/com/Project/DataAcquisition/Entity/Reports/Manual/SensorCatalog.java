@@ -0,0 +1,55 @@
+package com.Project.DataAcquisition.Entity.Reports.Manual;
+
+import com.Project.DataAcquisition.Entity.Rules.RtuData;
+import com.fasterxml.jackson.annotation.JsonBackReference;
+import jakarta.persistence.*;
+
+// One row per physical sensor; readings in sensor_data reference it by the integer sensor_key
+@Entity
+@Table(name = "sensor_catalog")
+public class SensorCatalog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sensor_key")
+    private Integer sensorKey;
+
+    @Column(nullable = false, unique = true, name = "sensor_id")
+    private String sensorId;
+
+    @ManyToOne
+    @JoinColumn(name = "rtu_id", nullable = false)
+    @JsonBackReference
+    private RtuData rtu;
+
+    @Column(nullable = false, name = "sensor_type")
+    private String sensorType;
+
+    @Column(name = "unit")
+    private String unit;
+
+
+    public SensorCatalog() {}
+
+    public SensorCatalog(String sensorId, RtuData rtu, String sensorType, String unit) {
+        this.sensorId = sensorId;
+        this.rtu = rtu;
+        this.sensorType = sensorType;
+        this.unit = unit;
+    }
+
+
+    public Integer getSensorKey() { return sensorKey; }
+    public void setSensorKey(Integer sensorKey) { this.sensorKey = sensorKey; }
+
+    public String getSensorId() { return sensorId; }
+    public void setSensorId(String sensorId) { this.sensorId = sensorId; }
+
+    public RtuData getRtu() { return rtu; }
+    public void setRtu(RtuData rtu) { this.rtu = rtu; }
+
+    public String getSensorType() { return sensorType; }
+    public void setSensorType(String sensorType) { this.sensorType = sensorType; }
+
+    public String getUnit() { return unit; }
+    public void setUnit(String unit) { this.unit = unit; }
+}
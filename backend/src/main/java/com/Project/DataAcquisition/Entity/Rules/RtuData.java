@@ -1,6 +1,6 @@
 package com.Project.DataAcquisition.Entity.Rules;
 
-import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import org.jeasy.rules.api.Rules;
@@ -17,14 +17,14 @@ public class RtuData {
 
     @OneToMany(mappedBy = "rtu", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
-    private List<Sensor> sensors;
+    private List<SensorCatalog> sensors;
 
     @Transient  // ❌ No direct mapping because rules store rtuId as JSON
     private List<Rule> rules;  // This is just for reference, not stored in DB
 
     public RtuData() {}
 
-    public RtuData(String rtuName, List<Sensor> sensors, List<Rule> rules) {
+    public RtuData(String rtuName, List<SensorCatalog> sensors, List<Rule> rules) {
         this.rtuName = rtuName;
         this.sensors = sensors;
         this.rules = rules;
@@ -36,8 +36,8 @@ public class RtuData {
     public String getRtuName() { return rtuName; }
     public void setRtuName(String rtuName) { this.rtuName = rtuName; }
 
-    public List<Sensor> getSensors() { return sensors; }
-    public void setSensors(List<Sensor> sensors) { this.sensors = sensors; }
+    public List<SensorCatalog> getSensors() { return sensors; }
+    public void setSensors(List<SensorCatalog> sensors) { this.sensors = sensors; }
 
     public List<Rule> getRules() { return rules; }
     public void setRules(List<Rule> rules) { this.rules = rules; }
@@ -1,90 +1,70 @@
 package com.Project.DataAcquisition.Model;
 
-import com.Project.DataAcquisition.Entity.Reports.Layout.Widget;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-@Schema(description = "Represents an Alarm Table Widget.")
-public class AlarmTableWidget extends Widget {
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
-    public String[] getRtus() {
-        return rtus;
-    }
+@Schema(description = "Configuration of an Alarms Table widget (\"Alarms Table\").")
+public class AlarmTableWidget extends WidgetConfig {
 
-    public void setRtus(String[] rtus) {
-        this.rtus = rtus;
-    }
+    @Schema(description = "Alarm statuses to list; all when empty.")
+    private List<String> status;
 
-    public String[] getSensorTypes() {
-        return sensorTypes;
-    }
+    @Schema(description = "Alarm severities to list; all when empty.")
+    private List<String> severity;
 
-    public void setSensorTypes(String[] sensorTypes) {
-        this.sensorTypes = sensorTypes;
-    }
+    @Schema(description = "Optional page of the table, from 0.")
+    private Integer page;
 
-    public String[] getSensorIds() {
-        return sensorIds;
+    @Schema(description = "Optional page size; the whole range when absent.")
+    private Integer pageSize;
+
+    // Sensor types of all sensor entries ("Type"), in order
+    public List<String> sensorTypes() {
+        List<String> types = new ArrayList<>();
+        getSensors().forEach(sensor -> types.addAll(sensor.types()));
+        return types;
     }
 
-    public void setSensorIds(String[] sensorIds) {
-        this.sensorIds = sensorIds;
+    @Override
+    protected void putFields(Map<String, Object> data) {
+        putIfPresent(data, "status", status != null ? new ArrayList<>(status) : null);
+        putIfPresent(data, "severity", severity != null ? new ArrayList<>(severity) : null);
+        putIfPresent(data, "page", page);
+        putIfPresent(data, "pageSize", pageSize);
     }
 
-    public String getStatus() {
+    public List<String> getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(List<String> status) {
         this.status = status;
     }
 
-    public String getSeverity() {
+    public List<String> getSeverity() {
         return severity;
     }
 
-    public void setSeverity(String severity) {
+    public void setSeverity(List<String> severity) {
         this.severity = severity;
     }
 
-    public DateRange getDateRange() {
-        return dateRange;
+    public Integer getPage() {
+        return page;
     }
 
-    public void setDateRange(DateRange dateRange) {
-        this.dateRange = dateRange;
+    public void setPage(Integer page) {
+        this.page = page;
     }
 
-    @Schema(description = "Name of the widget.")
-    private String widgetName = "Alarm Table"; // Default value
-
-    @Schema(description = "Array of RTU IDs associated with the alarm table.")
-    private String[] rtus;
-
-    @Schema(description = "Array of sensor types for the alarm table.")
-    private String[] sensorTypes;
-
-    @Schema(description = "Array of sensor IDs for the alarm table.")
-    private String[] sensorIds;
-
-    @Schema(description = "Status of the alarms in the table.")
-    private String status;
-
-    @Schema(description = "Severity level of the alarms in the table.")
-    private String severity;
-
-    @Schema(description = "Date range for the alarms in the table.")
-    private DateRange dateRange;
-
-    @Override
-    public String getWidgetName() {
-        return widgetName;
+    public Integer getPageSize() {
+        return pageSize;
     }
 
-    @Override
-    public void setWidgetName(String widgetName) {
-        this.widgetName = widgetName;
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
     }
-
-    // Getters and Setters for other properties
-    // ...
-}
\ No newline at end of file
+}
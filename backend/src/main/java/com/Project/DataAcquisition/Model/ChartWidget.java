@@ -0,0 +1,10 @@
+package com.Project.DataAcquisition.Model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Widgets that plot each sensor's readings ("sensorValues") over the date range, or the last 24 hours without one.
+ */
+@Schema(description = "A widget charting sensor readings.")
+public abstract class ChartWidget extends WidgetConfig {
+}
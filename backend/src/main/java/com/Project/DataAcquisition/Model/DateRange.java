@@ -1,36 +1,72 @@
 package com.Project.DataAcquisition.Model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A widget's "date": {"startDate", "endDate"} for ranges, or a plain string for a single day (value cards).
+ * The stored form is remembered so it can be written back unchanged.
+ */
 @Schema(description = "Represents a date range for data filtering.")
 public class DateRange {
 
     @Schema(description = "Start date of the range.")
-    private String startDate;
+    private final String startDate;
 
     @Schema(description = "End date of the range.")
-    private String endDate;
+    private final String endDate;
+
+    private final boolean single;
 
     public DateRange(String startDate, String endDate) {
+        this(startDate, endDate, false);
+    }
+
+    private DateRange(String startDate, String endDate, boolean single) {
         this.startDate = startDate;
         this.endDate = endDate;
+        this.single = single;
     }
 
-    public String getStartDate() {
-        return startDate;
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static DateRange from(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return new DateRange(text(map.get("startDate")), text(map.get("endDate")));
+        }
+        return value != null ? new DateRange(value.toString(), null, true) : null;
     }
 
-    public void setStartDate(String startDate) {
-        this.startDate = startDate;
+    public String getStartDate() {
+        return startDate;
     }
 
     public String getEndDate() {
         return endDate;
     }
 
-    public void setEndDate(String endDate) {
-        this.endDate = endDate;
+    public boolean isSingle() {
+        return single;
+    }
+
+    // As stored: the day string, or a new {"startDate", "endDate"} map
+    public Object toJson() {
+        return single ? startDate : toMap();
+    }
+
+    // Always a new map; a single day only has "startDate"
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("startDate", startDate);
+        if (!single) {
+            map.put("endDate", endDate);
+        }
+        return map;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
     }
-// Getters and Setters
-    // ...
-}
\ No newline at end of file
+}
@@ -0,0 +1,184 @@
+package com.Project.DataAcquisition.Model;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One sensor's readings as parallel primitive arrays, the "sensorValues" of chart widgets.
+ * <p>
+ * Serialized as the usual list of {@code {"timestamp": "...", "value": ...}} objects, or, when the response
+ * asked for it (see ColumnarJsonConfig), as {@code {"timestamps": [epoch millis...], "values": [...]}}.
+ * Timestamps are naive local times kept as epoch microseconds at {@link #EPOCH_ZONE}, like everywhere else in
+ * the backend, so the row format prints exactly what the entity did. The columnar epoch millis are the same
+ * naive times read at {@link #EPOCH_ZONE}: a client formatting them in UTC gets the row format's wall-clock
+ * time back. Stored rows are read back straight into the arrays.
+ */
+@Schema(description = "Readings of a sensor; rows by default, parallel arrays in columnar mode. Columnar timestamps "
+        + "are epoch millis of the naive reading times taken as UTC; format them in UTC to get the row timestamps.")
+@JsonSerialize(using = SensorSeries.Serializer.class)
+@JsonDeserialize(using = SensorSeries.Deserializer.class)
+public class SensorSeries {
+
+    // ObjectWriter attribute set for columnar responses
+    public static final String COLUMNAR = "sensorSeries.columnar";
+
+    // DeserializationContext attribute: skip stored rows instead of reading them (they are re-read anyway)
+    public static final String SKIP_STORED = "sensorSeries.skipStored";
+
+    // Zone naive timestamps are read at whenever the API turns them into epoch millis
+    public static final ZoneOffset EPOCH_ZONE = ZoneOffset.UTC;
+
+    private final long[] timestamps; // epoch micros
+    private final double[] values;
+
+    private SensorSeries(long[] timestamps, double[] values) {
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    public static SensorSeries of(List<Sensor> readings) {
+        long[] timestamps = new long[readings.size()];
+        double[] values = new double[readings.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            Sensor reading = readings.get(i);
+            timestamps[i] = toMicros(reading.getTimestamp());
+            values[i] = reading.getValue();
+        }
+        return new SensorSeries(timestamps, values);
+    }
+
+    // From stored rows ({"timestamp": ISO string, "value": number}); rows that do not parse are skipped
+    public static SensorSeries fromRows(List<?> rows) {
+        long[] timestamps = new long[rows.size()];
+        double[] values = new double[rows.size()];
+        int size = 0;
+        for (Object row : rows) {
+            if (row instanceof Map<?, ?> map && map.get("timestamp") != null && map.get("value") instanceof Number value) {
+                try {
+                    timestamps[size] = toMicros(LocalDateTime.parse(map.get("timestamp").toString()));
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                values[size++] = value.doubleValue();
+            }
+        }
+        return size == timestamps.length ? new SensorSeries(timestamps, values)
+                : new SensorSeries(Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size));
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public long timestampMillis(int index) {
+        return Math.floorDiv(timestamps[index], 1000L);
+    }
+
+    public LocalDateTime timestamp(int index) {
+        long micros = timestamps[index];
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, EPOCH_ZONE);
+    }
+
+    public double value(int index) {
+        return values[index];
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(EPOCH_ZONE) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    public static class Serializer extends JsonSerializer<SensorSeries> {
+        @Override
+        public void serialize(SensorSeries series, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int size = series.size();
+            if (Boolean.TRUE.equals(provider.getAttribute(COLUMNAR))) {
+                gen.writeStartObject();
+                gen.writeArrayFieldStart("timestamps");
+                for (int i = 0; i < size; i++) {
+                    gen.writeNumber(series.timestampMillis(i));
+                }
+                gen.writeEndArray();
+                gen.writeFieldName("values");
+                gen.writeArray(series.values, 0, size);
+                gen.writeEndObject();
+                return;
+            }
+            gen.writeStartArray();
+            for (int i = 0; i < size; i++) {
+                gen.writeStartObject();
+                gen.writeStringField("timestamp", series.timestamp(i).toString());
+                gen.writeNumberField("value", series.values[i]);
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    // Rows as written by the row format; rows without a parsable timestamp or a numeric value are skipped
+    public static class Deserializer extends JsonDeserializer<SensorSeries> {
+        @Override
+        public SensorSeries deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY || Boolean.TRUE.equals(context.getAttribute(SKIP_STORED))) {
+                parser.skipChildren();
+                return null;
+            }
+            long[] timestamps = new long[64];
+            double[] values = new double[64];
+            int size = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String timestamp = null;
+                double value = Double.NaN;
+                boolean hasValue = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("timestamp".equals(field) && token == JsonToken.VALUE_STRING) {
+                        timestamp = parser.getText();
+                    } else if ("value".equals(field) && token.isNumeric()) {
+                        value = parser.getDoubleValue();
+                        hasValue = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (timestamp == null || !hasValue) {
+                    continue;
+                }
+                long micros;
+                try {
+                    micros = toMicros(LocalDateTime.parse(timestamp));
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                if (size == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                timestamps[size] = micros;
+                values[size++] = value;
+            }
+            return new SensorSeries(Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.Project.DataAcquisition.Model;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A widget's stored configuration ("data" of report and automated report widgets) bound to a typed model.
+ * The subtype follows the widget's name, which is kept on the widget row rather than inside the JSON.
+ * <p>
+ * Instances come from WidgetConfigCache and are shared between requests: treat them as read-only and build
+ * responses from {@link #toData()}. Keys without a typed field are kept in {@link #getOther()} so nothing stored
+ * is lost; results of earlier renders (table rows, aggregation values) are not bound at all.
+ */
+@Schema(description = "Configuration of a report widget.")
+@JsonIgnoreProperties({"aggregationValues", "sensorTableData", "alarmTableData", "nextCursor"})
+public class WidgetConfig {
+
+    private static final Map<String, Supplier<WidgetConfig>> TYPES = Map.of(
+            "line chart", LineChartWidget::new,
+            "bar chart", BarChartWidget::new,
+            "time series chart", TimeSeriesChartWidget::new,
+            "value and chart card", ValueAndChartCardWidget::new,
+            "value card", ValueCardWidget::new,
+            "sensor data table", TimeSeriesTableWidget::new,
+            "alarms table", AlarmTableWidget::new
+    );
+
+    @Schema(description = "Title of the widget.")
+    private String title;
+
+    @Schema(description = "RTU names the widget's sensors belong to.")
+    private List<String> rtus;
+
+    @Schema(description = "Sensors shown by the widget.")
+    private List<WidgetSensor> sensors = List.of();
+
+    @Schema(description = "Date range, or a single day for value cards.")
+    private DateRange date;
+
+    @Schema(description = "Requested aggregations of value cards, e.g. {\"max\": true}.")
+    private Map<String, Boolean> aggregations;
+
+    private final Map<String, Object> other = new LinkedHashMap<>();
+
+    // Empty configuration of the type for the given widget name
+    public static WidgetConfig forWidget(String widgetName) {
+        Supplier<WidgetConfig> type = widgetName != null ? TYPES.get(widgetName.toLowerCase(Locale.ROOT)) : null;
+        return type != null ? type.get() : new WidgetConfig();
+    }
+
+    // All sensor ids of all sensor entries, in order
+    public List<String> sensorIds() {
+        List<String> ids = new ArrayList<>();
+        sensors.forEach(sensor -> ids.addAll(sensor.sensorIds()));
+        return ids;
+    }
+
+    /**
+     * The configuration as a new map in the stored layout, for responses and for services that still edit maps.
+     * Top-level maps and lists are fresh copies; values nested deeper are shared with the cache.
+     */
+    public Map<String, Object> toData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        putIfPresent(data, "title", title);
+        putIfPresent(data, "rtus", rtus != null ? new ArrayList<>(rtus) : null);
+        if (!sensors.isEmpty()) {
+            List<Map<String, Object>> sensorMaps = new ArrayList<>(sensors.size());
+            sensors.forEach(sensor -> sensorMaps.add(sensor.toMap()));
+            data.put("sensors", sensorMaps);
+        }
+        putIfPresent(data, "date", date != null ? date.toJson() : null);
+        putIfPresent(data, "aggregations", aggregations != null ? new LinkedHashMap<>(aggregations) : null);
+        putFields(data);
+        other.forEach((key, value) -> data.put(key, value instanceof Map<?, ?> map ? new LinkedHashMap<>(map)
+                : value instanceof List<?> list ? new ArrayList<>(list) : value));
+        return data;
+    }
+
+    // Typed fields of subclasses
+    protected void putFields(Map<String, Object> data) {
+    }
+
+    protected static void putIfPresent(Map<String, Object> data, String key, Object value) {
+        if (value != null) {
+            data.put(key, value);
+        }
+    }
+
+    // Number of stored sensor readings held, used to bound the cache
+    public int weight() {
+        int points = 1;
+        for (WidgetSensor sensor : sensors) {
+            points += sensor.getSensorValues() != null ? sensor.getSensorValues().size() : 0;
+        }
+        return points;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public List<String> getRtus() {
+        return rtus;
+    }
+
+    public void setRtus(List<String> rtus) {
+        this.rtus = rtus;
+    }
+
+    public List<WidgetSensor> getSensors() {
+        return sensors;
+    }
+
+    public void setSensors(List<WidgetSensor> sensors) {
+        this.sensors = sensors != null ? sensors : List.of();
+    }
+
+    public DateRange getDate() {
+        return date;
+    }
+
+    public void setDate(DateRange date) {
+        this.date = date;
+    }
+
+    public Map<String, Boolean> getAggregations() {
+        return aggregations;
+    }
+
+    public void setAggregations(Map<String, Boolean> aggregations) {
+        this.aggregations = aggregations;
+    }
+
+    public Map<String, Object> getOther() {
+        return other;
+    }
+
+    @JsonAnySetter
+    public void putOther(String key, Object value) {
+        other.put(key, value);
+    }
+}
@@ -0,0 +1,119 @@
+package com.Project.DataAcquisition.Model;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One sensor entry of a widget. "sensorId", "sensorType" and the alarm table's "Type" may each be a single string
+ * or a list; they are kept as stored and also normalized to lists once, when bound.
+ */
+@Schema(description = "Represents a sensor used in widgets.")
+public class WidgetSensor {
+
+    @Schema(description = "Sensor id, or ids for tables.")
+    private Object sensorId;
+
+    @Schema(description = "Type of the sensor, or types for tables.")
+    private Object sensorType;
+
+    @Schema(description = "Sensor types of an Alarms Table entry.")
+    private Object type;
+
+    @Schema(description = "Readings stored with automated reports.")
+    private SensorSeries sensorValues;
+
+    private List<String> sensorIds = List.of();
+    private List<String> sensorTypes = List.of();
+    private List<String> types = List.of();
+
+    private final Map<String, Object> other = new LinkedHashMap<>();
+
+    public List<String> sensorIds() {
+        return sensorIds;
+    }
+
+    public List<String> sensorTypes() {
+        return sensorTypes;
+    }
+
+    public List<String> types() {
+        return types;
+    }
+
+    // The entry as stored, without readings; a new map each call
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (sensorId != null) {
+            map.put("sensorId", sensorId);
+        }
+        if (sensorType != null) {
+            map.put("sensorType", sensorType);
+        }
+        if (type != null) {
+            map.put("Type", type);
+        }
+        map.putAll(other);
+        return map;
+    }
+
+    public Object getSensorId() {
+        return sensorId;
+    }
+
+    public void setSensorId(Object sensorId) {
+        this.sensorId = sensorId;
+        this.sensorIds = toStrings(sensorId);
+    }
+
+    public Object getSensorType() {
+        return sensorType;
+    }
+
+    public void setSensorType(Object sensorType) {
+        this.sensorType = sensorType;
+        this.sensorTypes = toStrings(sensorType);
+    }
+
+    @JsonProperty("Type")
+    public Object getType() {
+        return type;
+    }
+
+    @JsonProperty("Type")
+    public void setType(Object type) {
+        this.type = type;
+        this.types = toStrings(type);
+    }
+
+    public SensorSeries getSensorValues() {
+        return sensorValues;
+    }
+
+    public void setSensorValues(SensorSeries sensorValues) {
+        this.sensorValues = sensorValues;
+    }
+
+    public Map<String, Object> getOther() {
+        return other;
+    }
+
+    @JsonAnySetter
+    public void putOther(String key, Object value) {
+        other.put(key, value);
+    }
+
+    private static List<String> toStrings(Object value) {
+        if (value instanceof List<?> list) {
+            List<String> strings = new ArrayList<>(list.size());
+            list.stream().filter(item -> item != null).forEach(item -> strings.add(item.toString()));
+            return List.copyOf(strings);
+        }
+        return value != null ? List.of(value.toString()) : List.of();
+    }
+}
@@ -1,16 +1,18 @@
 package com.Project.DataAcquisition.Repository.Alarm;
 
 import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 
 @Repository
-public interface AlarmRepository extends JpaRepository<AlarmEntity, Long> {
+public interface AlarmRepository extends JpaRepository<AlarmEntity, Long>, AlarmRepositoryCustom {
 
     List<AlarmEntity> findBySeverity(String severity);
 
@@ -44,26 +46,38 @@ public interface AlarmRepository extends JpaRepository<AlarmEntity, Long> {
     @Query("SELECT COUNT(a) FROM AlarmEntity a WHERE a.severity = 'Moderate'")
     long countModerateAlarms();
 
-    @Query(value = """
-    SELECT DISTINCT * FROM alarms 
-    WHERE EXISTS (
-        SELECT 1 FROM jsonb_array_elements_text(sensor_id) AS elem 
-        WHERE elem = :sensorId
-    )
-    AND status IN :statusList 
-    AND severity IN :severityList 
-    AND created_at BETWEEN :startTime AND :endTime
-    """, nativeQuery = true)
-    List<AlarmEntity> findAlarmsBySensorId(
-            @Param("sensorId") String sensorId,
+    @Query("SELECT COALESCE(MAX(a.alarmId), 0) FROM AlarmEntity a")
+    long findMaxAlarmId();
+
+    // Alarms linked to any of the sensors through alarm_sensors (index range scan on sensor_id, created_at)
+    @Query("SELECT a FROM AlarmEntity a WHERE a.alarmId IN (" +
+            "SELECT l.alarm.alarmId FROM AlarmSensor l " +
+            "WHERE l.sensorId IN :sensorIds AND l.createdAt BETWEEN :startTime AND :endTime) " +
+            "AND a.status IN :statusList " +
+            "AND a.severity IN :severityList " +
+            "ORDER BY a.createdAt DESC, a.alarmId DESC")
+    List<AlarmEntity> findLinkedAlarms(
+            @Param("sensorIds") List<String> sensorIds,
             @Param("statusList") List<String> statusList,
             @Param("severityList") List<String> severityList,
             @Param("startTime") LocalDateTime startTime,
-            @Param("endTime") LocalDateTime endTime
+            @Param("endTime") LocalDateTime endTime,
+            Pageable pageable
     );
 
-
-    @Query(value = "SELECT COUNT(*) > 0 FROM alarms WHERE sensor_id @> CAST(:sensorId AS jsonb) AND type @> CAST(:type AS jsonb)", nativeQuery = true)
-    boolean existsBySensorIdAndType(@Param("sensorId") String sensorId, @Param("type") String type);
+    // An empty IN list can match nothing, so skip the round trip
+    default List<AlarmEntity> findAlarmsBySensorIds(List<String> sensorIds,
+                                                    List<String> statusList,
+                                                    List<String> severityList,
+                                                    LocalDateTime startTime,
+                                                    LocalDateTime endTime,
+                                                    Pageable pageable) {
+        if (sensorIds == null || sensorIds.isEmpty()
+                || statusList == null || statusList.isEmpty()
+                || severityList == null || severityList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return findLinkedAlarms(sensorIds, statusList, severityList, startTime, endTime, pageable);
+    }
 
 }
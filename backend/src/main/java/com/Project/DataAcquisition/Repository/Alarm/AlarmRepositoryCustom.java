@@ -0,0 +1,24 @@
+package com.Project.DataAcquisition.Repository.Alarm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AlarmRepositoryCustom {
+
+    /**
+     * Moves every alarm matching the filter from one of {@code fromStatuses} to {@code newStatus} in a single
+     * UPDATE ... RETURNING. Null filter arguments are left out of the WHERE clause.
+     *
+     * @return one row per changed alarm: [AlarmEntity after the update, status before the update]
+     */
+    List<Object[]> transitionAlarms(String newStatus,
+                                    List<String> fromStatuses,
+                                    String acknowledgedBy,
+                                    String acknowledgedAt,
+                                    List<Long> alarmIds,
+                                    Long ruleId,
+                                    String sensorId,
+                                    String severity,
+                                    LocalDateTime startTime,
+                                    LocalDateTime endTime);
+}
@@ -0,0 +1,87 @@
+package com.Project.DataAcquisition.Repository.Alarm;
+
+import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AlarmRepositoryImpl implements AlarmRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> transitionAlarms(String newStatus,
+                                           List<String> fromStatuses,
+                                           String acknowledgedBy,
+                                           String acknowledgedAt,
+                                           List<Long> alarmIds,
+                                           Long ruleId,
+                                           String sensorId,
+                                           String severity,
+                                           LocalDateTime startTime,
+                                           LocalDateTime endTime) {
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder("a.status IN (:fromStatuses)");
+        params.put("fromStatuses", fromStatuses);
+
+        // Only the filters that were supplied go into the statement, so the planner sees plain predicates
+        if (alarmIds != null && !alarmIds.isEmpty()) {
+            where.append(" AND a.alarm_id IN (:alarmIds)");
+            params.put("alarmIds", alarmIds);
+        }
+        if (ruleId != null) {
+            where.append(" AND a.rule_id = :ruleId");
+            params.put("ruleId", ruleId);
+        }
+        if (severity != null) {
+            where.append(" AND a.severity = :severity");
+            params.put("severity", severity);
+        }
+        if (startTime != null) {
+            where.append(" AND a.created_at >= :startTime");
+            params.put("startTime", startTime);
+        }
+        if (endTime != null) {
+            where.append(" AND a.created_at <= :endTime");
+            params.put("endTime", endTime);
+        }
+        if (sensorId != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM alarm_sensors l WHERE l.alarm_id = a.alarm_id AND l.sensor_id = :sensorId)");
+            params.put("sensorId", sensorId);
+        }
+
+        // The CTE captures the old status for the summary deltas; RETURNING only sees the new row.
+        // Acknowledgement details are kept when a previously acknowledged alarm is closed.
+        String sql = "WITH target AS (" +
+                " SELECT a.alarm_id, a.status AS previous_status FROM alarms a WHERE " + where +
+                " FOR UPDATE)" +
+                " UPDATE alarms a SET status = :newStatus," +
+                " acknowledged_by = CASE WHEN a.acknowledged_by IS NULL OR a.acknowledged_by = 'NA'" +
+                " THEN :acknowledgedBy ELSE a.acknowledged_by END," +
+                " acknowledged_at = CASE WHEN a.acknowledged_by IS NULL OR a.acknowledged_by = 'NA'" +
+                " THEN :acknowledgedAt ELSE a.acknowledged_at END" +
+                " FROM target t WHERE a.alarm_id = t.alarm_id" +
+                " RETURNING a.*, t.previous_status";
+
+        params.put("newStatus", newStatus);
+        params.put("acknowledgedBy", acknowledgedBy);
+        params.put("acknowledgedAt", acknowledgedAt);
+
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addEntity("a", AlarmEntity.class)
+                .addScalar("previous_status", StandardBasicTypes.STRING);
+        params.forEach(query::setParameter);
+
+        return query.getResultList();
+    }
+}
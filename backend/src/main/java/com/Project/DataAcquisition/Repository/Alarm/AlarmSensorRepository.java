@@ -0,0 +1,33 @@
+package com.Project.DataAcquisition.Repository.Alarm;
+
+import com.Project.DataAcquisition.Entity.Alarms.AlarmSensor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AlarmSensorRepository extends JpaRepository<AlarmSensor, Long> {
+
+    boolean existsBySensorIdAndSensorType(String sensorId, String sensorType);
+
+    // Copies jsonb sensor ids/types of alarms in (fromId, toId] that have no links yet
+    @Modifying
+    @Query(value = """
+    INSERT INTO alarm_sensors (alarm_id, sensor_id, sensor_type, created_at)
+    SELECT a.alarm_id,
+           s.sensor_id,
+           CASE WHEN jsonb_typeof(a.type) <> 'array' THEN NULL
+                WHEN jsonb_array_length(a.type) = 1 THEN a.type ->> 0
+                ELSE a.type ->> CAST(s.idx - 1 AS int) END,
+           a.created_at
+    FROM alarms a
+    CROSS JOIN LATERAL jsonb_array_elements_text(a.sensor_id) WITH ORDINALITY AS s(sensor_id, idx)
+    WHERE a.alarm_id > :fromId AND a.alarm_id <= :toId
+    AND jsonb_typeof(a.sensor_id) = 'array'
+    AND NOT EXISTS (SELECT 1 FROM alarm_sensors l WHERE l.alarm_id = a.alarm_id)
+    ON CONFLICT (alarm_id, sensor_id) DO NOTHING
+    """, nativeQuery = true)
+    int backfillLinks(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,15 @@
+package com.Project.DataAcquisition.Repository.Rule;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SensorCatalogRepository extends JpaRepository<SensorCatalog, Integer> {
+
+    Optional<SensorCatalog> findBySensorId(String sensorId);
+
+    Optional<SensorCatalog> findFirstBySensorIdIgnoreCaseOrderBySensorKey(String sensorId);
+}
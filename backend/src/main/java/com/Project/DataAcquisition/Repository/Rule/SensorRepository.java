@@ -9,61 +9,54 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// Readings are addressed by sensor_catalog keys; translate external sensor ids with SensorCatalogService
 @Repository
 public interface SensorRepository extends JpaRepository<Sensor, Long> {
-    // Check if a sensor exists by sensor ID, sensor type, and RTU ID
-    boolean existsBySensorIdAndSensorTypeIgnoreCaseAndRtu_RtuId(
-            String sensorId, String sensorType, Long rtuId);
-
-    boolean existsBySensorIdIgnoreCaseAndSensorTypeIgnoreCase(String sensorId, String sensorType);
-
-    @Query("SELECT DISTINCT s.sensorType FROM Sensor s WHERE s.rtu.rtuId IN :rtuIds")
-    List<String> findDistinctSensorTypesByRtuIds(@Param("rtuIds") List<Long> rtuIds);
 
     // Optional: Find sensors for a given RTU
-    @Query("SELECT s FROM Sensor s WHERE s.rtu.rtuId = :rtuId")
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.rtu.rtuId = :rtuId")
     List<Sensor> findByRtuId(@Param("rtuId") Long rtuId);
 
-    @Query("SELECT s.sensorId FROM Sensor s WHERE s.rtu.rtuId IN :rtuIds AND s.sensorType = :sensorType")
-    List<String> findSensorIdsByRtu_RtuIdsAndSensorType(@Param("rtuIds") List<Long> rtuIds, @Param("sensorType") String sensorType);
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :from AND :to")
+    List<Sensor> findBySensorKeyAndTimestampBetween(@Param("sensorKey") Integer sensorKey,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
 
-    List<Sensor> findBySensorIdAndTimestampBetween(String sensorId, LocalDateTime from, LocalDateTime to);
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :from AND :to ORDER BY s.timestamp")
+    List<Sensor> findBySensorKeyAndTimestampBetweenOrderByTimestamp(@Param("sensorKey") Integer sensorKey,
+                                                                    @Param("from") LocalDateTime from,
+                                                                    @Param("to") LocalDateTime to);
 
-    List<Sensor> findBySensorIdAndTimestampBetweenOrderByTimestamp(String sensorIdStr, LocalDateTime fromDate, LocalDateTime toDate);
+    @Query("SELECT MAX(s.value) FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    Double findMaxValue(@Param("sensorKey") Integer sensorKey, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT MAX(s.value) FROM Sensor s WHERE s.sensorId = :sensorId AND s.timestamp BETWEEN :startTime AND :endTime")
-    Double findMaxValue(@Param("sensorId") String sensorId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+    @Query("SELECT MIN(s.value) FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    Double findMinValue(@Param("sensorKey") Integer sensorKey, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT MIN(s.value) FROM Sensor s WHERE s.sensorId = :sensorId AND s.timestamp BETWEEN :startTime AND :endTime")
-    Double findMinValue(@Param("sensorId") String sensorId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+    @Query("SELECT AVG(s.value) FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    Double findAverageValue(@Param("sensorKey") Integer sensorKey, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT AVG(s.value) FROM Sensor s WHERE s.sensorId = :sensorId AND s.timestamp BETWEEN :startTime AND :endTime")
-    Double findAverageValue(@Param("sensorId") String sensorId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+    // count, sum, min, max in one pass, so they can be combined with compressed chunks
+    @Query("SELECT COUNT(s), SUM(s.value), MIN(s.value), MAX(s.value) FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    List<Object[]> findValueStats(@Param("sensorKey") Integer sensorKey, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT s FROM Sensor s WHERE s.rtu.rtuId IN :rtuIds")
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.rtu.rtuId IN :rtuIds")
     List<Sensor> findByRtuIds(@Param("rtuIds") List<Long> rtuIds);
 
-    @Query("SELECT s FROM Sensor s WHERE s.sensorId IN :sensorIds AND s.sensorType IN :sensorTypes AND s.timestamp BETWEEN :startTime AND :endTime")
-    List<Sensor> findBySensorIdAndTypeAndTimestampBetween(
-            @Param("sensorIds") List<String> sensorIds,
-            @Param("sensorTypes") List<String> sensorTypes,
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.sensorKey IN :sensorKeys AND s.timestamp BETWEEN :startTime AND :endTime")
+    List<Sensor> findBySensorKeysAndTimestampBetween(
+            @Param("sensorKeys") List<Integer> sensorKeys,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
 
-    List<Sensor> findBySensorIdInAndSensorTypeIn(List<String> sensorIds, List<String> sensorTypes);
-
-    @Query("SELECT s.value FROM Sensor s WHERE s.sensorId = :sensorId AND s.timestamp BETWEEN :startTime AND :endTime")
-    List<Double> findSensorValuesBetween(@Param("sensorId") String sensorId,
+    @Query("SELECT s.value FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    List<Double> findSensorValuesBetween(@Param("sensorKey") Integer sensorKey,
                                          @Param("startTime") LocalDateTime startTime,
                                          @Param("endTime") LocalDateTime endTime);
 
-    @Query("SELECT s FROM Sensor s WHERE s.sensorId = :sensorId AND s.timestamp BETWEEN :startTime AND :endTime")
-    List<Sensor> findSensorDataBetween(@Param("sensorId") String sensorId,
+    @Query("SELECT s FROM Sensor s WHERE s.catalog.sensorKey = :sensorKey AND s.timestamp BETWEEN :startTime AND :endTime")
+    List<Sensor> findSensorDataBetween(@Param("sensorKey") Integer sensorKey,
                                        @Param("startTime") LocalDateTime startTime,
                                        @Param("endTime") LocalDateTime endTime);
-
-
-    List<Sensor> findBySensorIdAndSensorType(String sensorId, String sensorType);
 }
-
@@ -0,0 +1,149 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
+import com.Project.DataAcquisition.Utils.TablePartitioner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Maintains the monthly partitions of alarms (created by migration V2 on created_at).
+ * A daily job creates upcoming partitions, moves old closed alarms to alarms_archive and drops partitions past retention.
+ */
+@Service
+public class AlarmPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlarmPartitionService.class);
+
+    private static final String TABLE = "alarms";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TablePartitioner tablePartitioner;
+    private final ChangeWatermarks changeWatermarks;
+
+    @Value("${alarms.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${alarms.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${alarms.partitions.retention-months:0}")
+    private int retentionMonths; // 0 keeps every partition
+
+    @Value("${alarms.archive.closed-after-days:90}")
+    private int archiveClosedAfterDays; // 0 disables archival
+
+    @Value("${alarms.archive.batch-size:1000}")
+    private int archiveBatchSize;
+
+    public AlarmPartitionService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 TablePartitioner tablePartitioner, ChangeWatermarks changeWatermarks) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.tablePartitioner = tablePartitioner;
+        this.changeWatermarks = changeWatermarks;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (tablePartitioner.isPlainTable(TABLE)) {
+            logger.warn("alarms is not partitioned; partition maintenance is skipped until the migrations have run");
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            logger.error("Alarm partition setup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${alarms.partitions.maintenance-cron:0 15 0 * * *}") // Runs daily at 00:15
+    public void maintainPartitions() {
+        if (!enabled || tablePartitioner.isPlainTable(TABLE)) {
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            // Retention below still runs; the missing partitions are retried on the next run
+            logger.error("Alarm partition creation failed: {}", e.getMessage(), e);
+        }
+        archiveClosedAlarms();
+        dropExpiredPartitions();
+    }
+
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            tablePartitioner.createMonthlyPartition(TABLE, current.plusMonths(i));
+        }
+    }
+
+    // Closed alarms past the configured age move to alarms_archive in short batches; their sensor links go with them
+    public void archiveClosedAlarms() {
+        if (archiveClosedAfterDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(archiveClosedAfterDays);
+        long archived = 0;
+        int moved;
+        do {
+            Integer batch = transactionTemplate.execute(status -> jdbcTemplate.update("""
+                    WITH moved AS (
+                        DELETE FROM alarms a
+                        WHERE (a.alarm_id, a.created_at) IN (
+                            SELECT alarm_id, created_at FROM alarms
+                            WHERE status = 'Closed' AND created_at < ?
+                            LIMIT ?)
+                        RETURNING a.*
+                    ), links AS (
+                        DELETE FROM alarm_sensors l USING moved m WHERE l.alarm_id = m.alarm_id
+                    )
+                    INSERT INTO alarms_archive SELECT * FROM moved
+                    """, cutoff, archiveBatchSize));
+            moved = batch != null ? batch : 0;
+            archived += moved;
+        } while (moved == archiveBatchSize);
+
+        if (archived > 0) {
+            changeWatermarks.touch(ChangeWatermarks.ALARMS);
+            logger.info("Archived {} closed alarms created before {}", archived, cutoff);
+        }
+    }
+
+    // Detaching and dropping a whole month is a catalog change, not a row-by-row delete
+    public void dropExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        LocalDate oldestKept = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+
+        for (String partition : tablePartitioner.listPartitions(TABLE)) {
+            LocalDate upperBound = tablePartitioner.upperBound(TABLE, partition);
+            if (upperBound == null || upperBound.isAfter(oldestKept)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                tablePartitioner.detachPartition(TABLE, partition, true);
+                jdbcTemplate.update("DELETE FROM alarm_sensors WHERE created_at >= ? AND created_at < ?",
+                        upperBound.minusMonths(1).atStartOfDay(), upperBound.atStartOfDay());
+            });
+            changeWatermarks.touch(ChangeWatermarks.ALARMS);
+            logger.info("Dropped alarm partition {} (retention {} months)", partition, retentionMonths);
+        }
+    }
+}
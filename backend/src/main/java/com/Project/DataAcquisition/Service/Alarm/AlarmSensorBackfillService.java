@@ -0,0 +1,67 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Repository.Alarm.AlarmSensorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills alarm_sensors for alarms written before the association table existed.
+ * Runs in the background after startup in short id-range transactions, so the alarms table stays writable.
+ */
+@Service
+public class AlarmSensorBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlarmSensorBackfillService.class);
+
+    private final AlarmRepository alarmRepository;
+    private final AlarmSensorRepository alarmSensorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${alarms.sensor-links.backfill-batch-size:1000}")
+    private int batchSize;
+
+    public AlarmSensorBackfillService(AlarmRepository alarmRepository,
+                                      AlarmSensorRepository alarmSensorRepository,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.alarmRepository = alarmRepository;
+        this.alarmSensorRepository = alarmSensorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        taskExecutor.execute(this::backfill);
+    }
+
+    public void backfill() {
+        long maxAlarmId = alarmRepository.findMaxAlarmId();
+        long linked = 0;
+
+        for (long fromId = 0; fromId < maxAlarmId; fromId += batchSize) {
+            long from = fromId;
+            long to = Math.min(fromId + batchSize, maxAlarmId);
+            try {
+                Integer inserted = transactionTemplate.execute(status -> alarmSensorRepository.backfillLinks(from, to));
+                linked += inserted != null ? inserted : 0;
+            } catch (Exception e) {
+                logger.error("Alarm sensor backfill failed for alarm ids ({}, {}]: {}", from, to, e.getMessage());
+                return;
+            }
+        }
+
+        if (linked > 0) {
+            logger.info("Backfilled {} alarm sensor links up to alarm id {}", linked, maxAlarmId);
+        }
+    }
+}
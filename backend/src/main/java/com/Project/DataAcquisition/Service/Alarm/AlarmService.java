@@ -127,16 +127,21 @@
 
 package com.Project.DataAcquisition.Service.Alarm;
 
+import com.Project.DataAcquisition.DTO.Alarms.AlarmEvent;
+import com.Project.DataAcquisition.DTO.Alarms.BulkAlarmRequest;
 import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
 import com.Project.DataAcquisition.Exception.AlarmNotFoundException;
+import com.Project.DataAcquisition.Exception.GlobalExceptionHandler;
 import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -145,12 +150,14 @@ public class AlarmService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlarmService.class);
     private final AlarmRepository alarmRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Static date formatter
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public AlarmService(AlarmRepository alarmRepository) {
+    public AlarmService(AlarmRepository alarmRepository, ApplicationEventPublisher eventPublisher) {
         this.alarmRepository = alarmRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Map<String, Object>> getAllAlarms() {
@@ -186,14 +193,17 @@ public class AlarmService {
                 : LocalDateTime.now().format(DATE_TIME_FORMATTER);
 
         logger.info("Alarm saved at: {}", formattedTime);
+        eventPublisher.publishEvent(AlarmEvent.created(toEventMap(saved)));
         return saved;
     }
 
     @Transactional
     public boolean deleteAlarm(Long alarmId) {
-        if (alarmRepository.existsById(alarmId)) {
-            alarmRepository.deleteById(alarmId);
+        Optional<AlarmEntity> alarm = alarmRepository.findById(alarmId);
+        if (alarm.isPresent()) {
+            alarmRepository.delete(alarm.get());
             logger.info("Deleted alarm with id: {}", alarmId);
+            eventPublisher.publishEvent(AlarmEvent.deleted(toEventMap(alarm.get())));
             return true;
         }
         return false; // Alarm not found
@@ -203,6 +213,7 @@ public class AlarmService {
     public AlarmEntity updateAlarm(Long alarmId, String description, String status) {
         return alarmRepository.findById(alarmId).map(alarm -> {
             boolean updated = false;
+            String previousStatus = alarm.getStatus();
 
             if (description != null && !description.trim().isEmpty()) {
                 alarm.setDescription(description.trim());
@@ -218,6 +229,7 @@ public class AlarmService {
                 AlarmEntity updatedAlarm = alarmRepository.save(alarm);
                 String formattedTime = LocalDateTime.now().format(DATE_TIME_FORMATTER);
                 logger.info("Alarm updated at: {}", formattedTime);
+                eventPublisher.publishEvent(AlarmEvent.updated(toEventMap(updatedAlarm), previousStatus));
                 return updatedAlarm;
             }
 
@@ -225,6 +237,73 @@ public class AlarmService {
         }).orElseThrow(() -> new AlarmNotFoundException("Alarm not found with id: " + alarmId));
     }
 
+    // Bulk acknowledge: Active -> Acknowledged in one statement
+    @Transactional
+    public List<Map<String, Object>> acknowledgeAlarms(BulkAlarmRequest request) {
+        return transitionAlarms(request, "Acknowledged", List.of("Active"));
+    }
+
+    // Bulk close: Active/Acknowledged -> Closed in one statement
+    @Transactional
+    public List<Map<String, Object>> closeAlarms(BulkAlarmRequest request) {
+        return transitionAlarms(request, "Closed", List.of("Active", "Acknowledged"));
+    }
+
+    private List<Map<String, Object>> transitionAlarms(BulkAlarmRequest request, String newStatus, List<String> fromStatuses) {
+        if (request == null) {
+            throw new GlobalExceptionHandler.InvalidInputException("Request body is required");
+        }
+        if (request.getAcknowledgedBy() == null || request.getAcknowledgedBy().trim().isEmpty()) {
+            throw new GlobalExceptionHandler.InvalidInputException("acknowledgedBy is required");
+        }
+
+        boolean hasIds = request.getAlarmIds() != null && !request.getAlarmIds().isEmpty();
+        boolean hasFilter = request.getRuleId() != null || request.getSensorId() != null || request.getSeverity() != null
+                || request.getStartTime() != null || request.getEndTime() != null;
+        if (!hasIds && !hasFilter) {
+            // Refuse to touch every open alarm by accident
+            throw new GlobalExceptionHandler.InvalidInputException("Provide alarmIds or at least one filter (ruleId, sensorId, severity, startTime, endTime)");
+        }
+
+        List<Object[]> rows = alarmRepository.transitionAlarms(
+                newStatus,
+                fromStatuses,
+                request.getAcknowledgedBy().trim(),
+                LocalDateTime.now().format(DATE_TIME_FORMATTER),
+                request.getAlarmIds(),
+                request.getRuleId(),
+                request.getSensorId(),
+                request.getSeverity(),
+                parseDateTime(request.getStartTime(), "startTime"),
+                parseDateTime(request.getEndTime(), "endTime")
+        );
+
+        List<Map<String, Object>> changed = new ArrayList<>(rows.size());
+        Map<String, String> previousStatus = new HashMap<>();
+        for (Object[] row : rows) {
+            AlarmEntity alarm = (AlarmEntity) row[0];
+            changed.add(toEventMap(alarm));
+            previousStatus.put(String.valueOf(alarm.getAlarmId()), (String) row[1]);
+        }
+
+        logger.info("Bulk transition to {} updated {} alarms", newStatus, changed.size());
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(AlarmEvent.bulkUpdated(changed, previousStatus));
+        }
+        return changed;
+    }
+
+    private LocalDateTime parseDateTime(String value, String field) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim(), DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new GlobalExceptionHandler.InvalidInputException(field + " must be in format yyyy-MM-dd HH:mm:ss");
+        }
+    }
+
     // Search Alarms by Name or Tag
     public List<AlarmEntity>    searchAlarms(String query) {
         if (query == null || query.trim().isEmpty()) {
@@ -272,6 +351,24 @@ public class AlarmService {
                 .collect(Collectors.toList());
     }
 
+    // Payload pushed to live stream subscribers
+    private Map<String, Object> toEventMap(AlarmEntity alarm) {
+        Map<String, Object> alarmsMap = new LinkedHashMap<>();
+        alarmsMap.put("alarmId", alarm.getAlarmId());
+        alarmsMap.put("alarmName", alarm.getAlarmName());
+        alarmsMap.put("createdAt", alarm.getCreatedAt() != null ? alarm.getCreatedAt().format(DATE_TIME_FORMATTER) : null);
+        alarmsMap.put("sensorId", alarm.getSensorId());
+        alarmsMap.put("ruleId", alarm.getRuleId());
+        alarmsMap.put("severity", alarm.getSeverity());
+        alarmsMap.put("status", alarm.getStatus());
+        alarmsMap.put("type", alarm.getType());
+        alarmsMap.put("acknowledgedBy", alarm.getAcknowledgedBy());
+        alarmsMap.put("acknowledgedAt", alarm.getAcknowledgedAt());
+        alarmsMap.put("description", alarm.getDescription());
+        alarmsMap.put("tags", alarm.getTags());
+        return alarmsMap;
+    }
+
     public Map<String, Object> getAlarmSummary() {
         // Retrieve counts
         long activeCount = alarmRepository.countActiveAlarms();
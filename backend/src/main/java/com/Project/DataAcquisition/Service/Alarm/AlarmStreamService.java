@@ -0,0 +1,274 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.DTO.Alarms.AlarmEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes alarm changes to connected clients over Server-Sent Events.
+ * Every change is fanned out once to all emitters instead of each client polling the alarms table.
+ * A bounded replay buffer lets reconnecting clients resume from their Last-Event-ID.
+ * <p>
+ * Events are queued per subscriber and written by a small sender pool, so the thread that committed the alarm
+ * change never does socket I/O. A subscriber whose queue fills up ({@code alarms.stream.subscriber-queue-size})
+ * is too slow to keep up and is closed; it reconnects and resumes from the replay buffer.
+ */
+@Service
+public class AlarmStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlarmStreamService.class);
+
+    public static final String SUMMARY_DELTA = "summary-delta";
+
+    private final Map<SseEmitter, Subscriber> emitters = new ConcurrentHashMap<>();
+    private final Deque<Set<ResponseBodyEmitter.DataWithMediaType>> replayBuffer = new ArrayDeque<>();
+    private final Deque<Long> replayIds = new ArrayDeque<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final ObjectMapper objectMapper;
+
+    @Value("${alarms.stream.replay-buffer-size:500}")
+    private int replayBufferSize;
+
+    @Value("${alarms.stream.emitter-timeout-ms:0}")
+    private long emitterTimeoutMs;
+
+    @Value("${alarms.stream.subscriber-queue-size:256}")
+    private int subscriberQueueSize;
+
+    @Value("${alarms.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private ExecutorService senders;
+
+    public AlarmStreamService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threads = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "alarm-stream-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Replay under the buffer lock so no event slips between replay and registration
+        synchronized (replayBuffer) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replaySince(emitter, parseEventId(lastEventId));
+            }
+            emitters.put(emitter, new Subscriber(emitter, eventSequence.get()));
+        }
+
+        logger.info("Alarm stream subscriber connected (lastEventId={}), active subscribers: {}", lastEventId, emitters.size());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlarmEvent(AlarmEvent event) {
+        if (AlarmEvent.BULK_UPDATED.equals(event.getType())) {
+            broadcast(event.getType(), event.getAlarms());
+        } else {
+            for (Map<String, Object> alarm : event.getAlarms()) {
+                broadcast(event.getType(), alarm);
+            }
+        }
+
+        Map<String, Object> delta = summaryDelta(event);
+        if (!delta.isEmpty()) {
+            broadcast(SUMMARY_DELTA, delta);
+        }
+    }
+
+    // Comment lines keep proxies from closing idle connections and flush out dead emitters
+    @Scheduled(fixedRateString = "${alarms.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> keepAlive = SseEmitter.event().comment("keep-alive").build();
+        for (Subscriber subscriber : emitters.values()) {
+            subscriber.enqueue(keepAlive);
+        }
+    }
+
+    private void broadcast(String eventName, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload); // Encode once, not once per subscriber
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize {} event: {}", eventName, e.getMessage());
+            return;
+        }
+
+        Set<ResponseBodyEmitter.DataWithMediaType> event;
+        long id;
+        synchronized (replayBuffer) {
+            id = eventSequence.incrementAndGet();
+            event = SseEmitter.event().id(Long.toString(id)).name(eventName).data(json).build();
+            replayBuffer.addLast(event);
+            replayIds.addLast(id);
+            while (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+                replayIds.removeFirst();
+            }
+        }
+
+        // Only queued here; a subscriber that connected after the event was buffered already got it from the replay
+        for (Subscriber subscriber : emitters.values()) {
+            if (subscriber.joinedAfter < id) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final long joinedAfter; // last event id it already has (replayed, or published before it connected)
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, long joinedAfter) {
+            this.emitter = emitter;
+            this.joinedAfter = joinedAfter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, subscriberQueueSize));
+        }
+
+        void enqueue(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            if (!queue.offer(event)) {
+                logger.warn("Closing alarm stream subscriber that fell {} events behind", queue.size());
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // One sender per subscriber at a time, so its events stay in order
+        private void drain() {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = queue.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Dropping alarm stream subscriber: {}", e.getMessage());
+                    emitters.remove(emitter);
+                    queue.clear();
+                    return; // draining stays set: nothing more is sent to it
+                }
+            }
+            draining.set(false);
+            // An event queued after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // complete() waits for a send in progress, so it runs on a sender too
+        private void close() {
+            emitters.remove(emitter);
+            queue.clear();
+            senders.execute(emitter::complete);
+        }
+    }
+
+    private void replaySince(SseEmitter emitter, long lastEventId) {
+        Iterator<Long> ids = replayIds.iterator();
+        Iterator<Set<ResponseBodyEmitter.DataWithMediaType>> events = replayBuffer.iterator();
+        try {
+            while (ids.hasNext()) {
+                long id = ids.next();
+                Set<ResponseBodyEmitter.DataWithMediaType> event = events.next();
+                if (id > lastEventId) {
+                    emitter.send(event);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to replay alarm events to reconnecting subscriber: {}", e.getMessage());
+        }
+    }
+
+    private long parseEventId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    // Same key layout as AlarmService.getAlarmSummary so dashboards can add the deltas onto their last snapshot
+    private Map<String, Object> summaryDelta(AlarmEvent event) {
+        Map<String, Long> chartInfo = new LinkedHashMap<>();
+        Map<String, Long> severity = new LinkedHashMap<>();
+
+        for (Map<String, Object> alarm : event.getAlarms()) {
+            String status = String.valueOf(alarm.get("status")).toLowerCase();
+            String alarmSeverity = String.valueOf(alarm.get("severity")).toLowerCase();
+
+            switch (event.getType()) {
+                case AlarmEvent.CREATED -> {
+                    chartInfo.merge(status, 1L, Long::sum);
+                    chartInfo.merge("total", 1L, Long::sum);
+                    severity.merge(alarmSeverity, 1L, Long::sum);
+                }
+                case AlarmEvent.DELETED -> {
+                    chartInfo.merge(status, -1L, Long::sum);
+                    chartInfo.merge("total", -1L, Long::sum);
+                    severity.merge(alarmSeverity, -1L, Long::sum);
+                }
+                case AlarmEvent.UPDATED, AlarmEvent.BULK_UPDATED -> {
+                    String previous = event.getPreviousStatus().get(String.valueOf(alarm.get("alarmId")));
+                    if (previous != null && !previous.equalsIgnoreCase(status)) {
+                        chartInfo.merge(previous.toLowerCase(), -1L, Long::sum);
+                        chartInfo.merge(status, 1L, Long::sum);
+                    }
+                }
+                default -> { }
+            }
+        }
+
+        chartInfo.values().removeIf(v -> v == 0L);
+        severity.values().removeIf(v -> v == 0L);
+        if (chartInfo.isEmpty() && severity.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("chartInfo", chartInfo);
+        delta.put("status", severity);
+        return delta;
+    }
+}
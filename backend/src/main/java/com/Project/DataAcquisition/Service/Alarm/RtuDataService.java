@@ -2,16 +2,31 @@ package com.Project.DataAcquisition.Service.Alarm;
 
 import com.Project.DataAcquisition.Entity.Rules.RtuData;
 import com.Project.DataAcquisition.Repository.Alarm.RtuDataRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class RtuDataService {
     private final RtuDataRepository rtuDataRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SensorCatalogService sensorCatalogService;
+    private final SensorHotWindowStore sensorHotWindowStore;
+    private final SensorCompressionService sensorCompressionService;
 
-    public RtuDataService(RtuDataRepository rtuDataRepository) {
+    public RtuDataService(RtuDataRepository rtuDataRepository, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          SensorCatalogService sensorCatalogService, SensorHotWindowStore sensorHotWindowStore,
+                          SensorCompressionService sensorCompressionService) {
         this.rtuDataRepository = rtuDataRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sensorCatalogService = sensorCatalogService;
+        this.sensorHotWindowStore = sensorHotWindowStore;
+        this.sensorCompressionService = sensorCompressionService;
     }
 
     // Create RTU
@@ -37,8 +52,20 @@ public class RtuDataService {
         }).orElseThrow(() -> new RuntimeException("RTU not found"));
     }
 
-    // Delete RTU
+    // Delete RTU with its sensors and their readings; readings and chunks reference the catalog, so they go first
     public void deleteRtu(Long id) {
-        rtuDataRepository.deleteById(id);
+        List<Integer> sensorKeys = transactionTemplate.execute(status -> {
+            List<Integer> keys = jdbcTemplate.queryForList("SELECT sensor_key FROM sensor_catalog WHERE rtu_id = ?", Integer.class, id);
+            jdbcTemplate.update("DELETE FROM sensor_data WHERE sensor_key IN (SELECT sensor_key FROM sensor_catalog WHERE rtu_id = ?)", id);
+            jdbcTemplate.update("DELETE FROM sensor_chunks WHERE sensor_key IN (SELECT sensor_key FROM sensor_catalog WHERE rtu_id = ?)", id);
+            rtuDataRepository.deleteById(id); // Cascades to the catalog entries
+            return keys;
+        });
+
+        sensorCatalogService.evict(sensorKeys);
+        for (Integer sensorKey : sensorKeys) {
+            sensorHotWindowStore.drop(sensorKey);
+            sensorCompressionService.discard(sensorKey);
+        }
     }
 }
@@ -0,0 +1,216 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Entity.Rules.RtuData;
+import com.Project.DataAcquisition.Exception.GlobalExceptionHandler;
+import com.Project.DataAcquisition.Repository.Rule.SensorCatalogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bidirectional cache between the external sensor ids (e.g. "RTU3-Temperature001") and the integer
+ * sensor_catalog keys stored on every reading. The catalog is small, so it is loaded whole at startup,
+ * refreshed periodically for sensors registered by other instances, and misses fall through to the database.
+ * The RTU/sensor dropdowns and widget validation are answered from this copy, so they cost the same
+ * no matter how much history sensor_data holds.
+ */
+@Service
+public class SensorCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorCatalogService.class);
+
+    private static final Map<String, String> SENSOR_UNIT_MAP = Map.of(
+            "Temperature", "°C",
+            "Humidity", "%",
+            "Pressure", "Pa"
+    );
+
+    private final SensorCatalogRepository sensorCatalogRepository;
+
+    // Keyed by the lower-cased sensor id: ids and types are matched ignoring case, as the widget and rule checks always did
+    private final Map<String, SensorCatalog> bySensorId = new ConcurrentHashMap<>();
+    private final Map<Integer, SensorCatalog> byKey = new ConcurrentHashMap<>();
+
+    public SensorCatalogService(SensorCatalogRepository sensorCatalogRepository) {
+        this.sensorCatalogRepository = sensorCatalogRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        try {
+            sensorCatalogRepository.findAll().forEach(this::cache);
+            logger.info("Loaded {} sensors into the sensor catalog cache", byKey.size());
+        } catch (Exception e) {
+            logger.error("Failed to load sensor catalog: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sensor-catalog.refresh-ms:300000}", initialDelayString = "${sensor-catalog.refresh-ms:300000}")
+    public void refreshCatalog() {
+        try {
+            sensorCatalogRepository.findAll().forEach(this::cache);
+        } catch (Exception e) {
+            logger.warn("Sensor catalog refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Distinct sensor types installed on any of the RTUs
+    public List<String> sensorTypesOf(Collection<Long> rtuIds) {
+        Set<Long> rtus = new HashSet<>(rtuIds);
+        return byKey.values().stream()
+                .filter(entry -> rtus.contains(rtuIdOf(entry)))
+                .map(SensorCatalog::getSensorType)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // Sensor ids of the given type on any of the RTUs
+    public List<String> sensorIdsOf(Collection<Long> rtuIds, String sensorType) {
+        Set<Long> rtus = new HashSet<>(rtuIds);
+        return byKey.values().stream()
+                .filter(entry -> rtus.contains(rtuIdOf(entry)) && entry.getSensorType().equalsIgnoreCase(sensorType))
+                .map(SensorCatalog::getSensorId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // Catalog entries whose id is among sensorIds and whose type is among sensorTypes
+    public List<SensorCatalog> findAll(Collection<String> sensorIds, Collection<String> sensorTypes) {
+        Set<String> types = new HashSet<>();
+        for (String sensorType : sensorTypes) {
+            if (sensorType != null) {
+                types.add(normalize(sensorType));
+            }
+        }
+        List<SensorCatalog> matches = new ArrayList<>();
+        for (String sensorId : new LinkedHashSet<>(sensorIds)) {
+            SensorCatalog entry = find(sensorId);
+            if (entry != null && types.contains(normalize(entry.getSensorType()))) {
+                matches.add(entry);
+            }
+        }
+        return matches;
+    }
+
+    public boolean exists(String sensorId, String sensorType, Long rtuId) {
+        SensorCatalog entry = find(sensorId);
+        return entry != null
+                && entry.getSensorType().equalsIgnoreCase(sensorType)
+                && (rtuId == null || rtuId.equals(rtuIdOf(entry)));
+    }
+
+    // Internal key for an external sensor id, or null when the sensor is unknown
+    public Integer keyOf(String sensorId) {
+        SensorCatalog entry = find(sensorId);
+        return entry != null ? entry.getSensorKey() : null;
+    }
+
+    // Keys of the known sensors among the given ids; unknown ids are skipped
+    public List<Integer> keysOf(Collection<String> sensorIds) {
+        List<Integer> keys = new ArrayList<>(sensorIds.size());
+        for (String sensorId : sensorIds) {
+            Integer key = keyOf(sensorId);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    public String sensorIdOf(Integer sensorKey) {
+        SensorCatalog entry = findByKey(sensorKey);
+        return entry != null ? entry.getSensorId() : null;
+    }
+
+    public SensorCatalog findByKey(Integer sensorKey) {
+        if (sensorKey == null) {
+            return null;
+        }
+        SensorCatalog entry = byKey.get(sensorKey);
+        if (entry == null) {
+            entry = sensorCatalogRepository.findById(sensorKey).map(this::cache).orElse(null);
+        }
+        return entry;
+    }
+
+    public SensorCatalog find(String sensorId) {
+        if (sensorId == null) {
+            return null;
+        }
+        SensorCatalog entry = bySensorId.get(normalize(sensorId));
+        if (entry == null) {
+            entry = sensorCatalogRepository.findFirstBySensorIdIgnoreCaseOrderBySensorKey(sensorId).map(this::cache).orElse(null);
+        }
+        return entry;
+    }
+
+    /**
+     * Catalog entry for a reading, registering the sensor on first sight. History is joined on sensor_key alone, so a
+     * reading that names another RTU or type for a known sensor is rejected instead of relabelling its past readings.
+     */
+    public synchronized SensorCatalog resolve(String sensorId, RtuData rtu, String sensorType) {
+        SensorCatalog entry = find(sensorId);
+        if (entry != null) {
+            boolean movedRtu = rtu != null && rtu.getRtuId() != null && !rtu.getRtuId().equals(rtuIdOf(entry));
+            boolean changedType = sensorType != null && !sensorType.equalsIgnoreCase(entry.getSensorType());
+            if (movedRtu || changedType) {
+                throw new GlobalExceptionHandler.InvalidInputException("Sensor " + sensorId + " is registered as "
+                        + entry.getSensorType() + " on RTU " + rtuIdOf(entry) + "; its RTU and sensor type cannot change");
+            }
+            return entry;
+        }
+        if (rtu == null || sensorType == null) {
+            throw new IllegalArgumentException("Unknown sensor " + sensorId + " needs an RTU and sensor type to be registered");
+        }
+        try {
+            entry = sensorCatalogRepository.save(new SensorCatalog(sensorId, rtu, sensorType, SENSOR_UNIT_MAP.get(sensorType)));
+        } catch (DataIntegrityViolationException e) {
+            // Registered concurrently by another instance
+            entry = sensorCatalogRepository.findBySensorId(sensorId).orElseThrow(() -> e);
+        }
+        return cache(entry);
+    }
+
+    // Forgets deleted entries
+    public void evict(Collection<Integer> sensorKeys) {
+        for (Integer sensorKey : sensorKeys) {
+            SensorCatalog entry = byKey.remove(sensorKey);
+            if (entry != null) {
+                bySensorId.remove(normalize(entry.getSensorId()), entry);
+            }
+        }
+    }
+
+    private Long rtuIdOf(SensorCatalog entry) {
+        return entry.getRtu() != null ? entry.getRtu().getRtuId() : null;
+    }
+
+    private SensorCatalog cache(SensorCatalog entry) {
+        // Ids differing only in case resolve to the oldest entry
+        bySensorId.merge(normalize(entry.getSensorId()), entry, (cached, fresh) ->
+                fresh.getSensorKey() <= cached.getSensorKey() ? fresh : cached);
+        byKey.put(entry.getSensorKey(), entry);
+        return entry;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,643 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+import com.Project.DataAcquisition.Utils.ChunkedSeries;
+import com.Project.DataAcquisition.Utils.GorillaCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Historical readings packed into daily Gorilla-encoded chunks (sensor_chunks, migration V5).
+ * A nightly job copies days older than {@code sensor-data.chunks.compress-after-days} into chunks and advances
+ * {@code sensor_chunk_state.compacted_before}. Range reads here take the chunks before the watermark and raw rows
+ * from it on, so callers see one series and nothing twice. SensorDataPartitionService then drops sensor_data
+ * partitions that lie entirely before the watermark ({@code sensor-data.partitions.drop-compacted}), so a day is
+ * only stored twice until its partition is complete; readers that work on rows (sensor CRUD by id) no longer see
+ * those days. Chunks have their own retention, {@code sensor-data.chunks.retention-days}.
+ * Readings written, changed or deleted on a compacted day whose rows are still there rebuild that day's chunk
+ * ({@link #refreshChunk}).
+ */
+@Service
+public class SensorChunkStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorChunkStore.class);
+
+    private final SensorRepository sensorRepository;
+    private final SensorCatalogService sensorCatalogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SensorReadCoalescer sensorReadCoalescer;
+
+    private final TransactionTemplate streamTemplate;
+
+    @Value("${sensor-data.stream.fetch-size:5000}")
+    private int streamFetchSize;
+
+    @Value("${sensor-data.chunks.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sensor-data.chunks.compress-after-days:7}")
+    private int compressAfterDays;
+
+    @Value("${sensor-data.hot-window.hours:48}")
+    private int hotWindowHours;
+
+    @Value("${sensor-data.chunks.retention-days:0}")
+    private int retentionDays; // 0 keeps every chunk
+
+    private static final long WATERMARK_REFRESH_MS = 60_000;
+
+    // Cached compacted_before; a stale (earlier) value only means more raw rows are read
+    private volatile LocalDateTime compactedBefore;
+    private volatile long compactedBeforeLoadedAt;
+
+    public SensorChunkStore(SensorRepository sensorRepository,
+                            SensorCatalogService sensorCatalogService,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            SensorReadCoalescer sensorReadCoalescer) {
+        this.sensorRepository = sensorRepository;
+        this.sensorCatalogService = sensorCatalogService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sensorReadCoalescer = sensorReadCoalescer;
+        // PostgreSQL only honours the fetch size inside a transaction
+        this.streamTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.streamTemplate.setReadOnly(true);
+    }
+
+    @Scheduled(cron = "${sensor-data.chunks.compaction-cron:0 30 1 * * *}") // Runs daily at 01:30
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        // Never compress inside the hot window; its reloads read sensor_data directly
+        int keepDays = Math.max(compressAfterDays, hotWindowHours / 24 + 1);
+        LocalDate cutoff = LocalDate.now().minusDays(keepDays);
+        LocalDateTime watermark = loadCompactedBefore();
+        LocalDate from = watermark != null ? watermark.toLocalDate() : null;
+
+        long points = 0;
+        LocalDate day = from == null || from.isBefore(cutoff) ? oldestRawDayBefore(from, cutoff) : null;
+        while (day != null) {
+            LocalDate current = day;
+            try {
+                Long copied = transactionTemplate.execute(status -> compactDay(current));
+                points += copied != null ? copied : 0;
+            } catch (Exception e) {
+                logger.error("Compressing sensor data of {} failed: {}", current, e.getMessage());
+                return;
+            }
+            day = oldestRawDayBefore(current.plusDays(1), cutoff);
+        }
+
+        // Readers switch to the chunks only once every day before the cutoff has one
+        Timestamp compacted = Timestamp.valueOf(cutoff.atStartOfDay());
+        jdbcTemplate.update("UPDATE sensor_chunk_state SET compacted_before = ? WHERE compacted_before IS NULL OR compacted_before < ?",
+                compacted, compacted);
+        compactedBefore = loadCompactedBefore();
+        compactedBeforeLoadedAt = System.currentTimeMillis();
+
+        if (points > 0) {
+            logger.info("Compressed {} sensor readings older than {} into chunks", points, cutoff);
+        }
+        expireChunks();
+    }
+
+    /**
+     * Rebuilds the chunk of the sensor's day from sensor_data when that day is already compacted; called after a
+     * reading of that day was stored, changed or deleted so chunk reads keep matching the rows.
+     */
+    public void refreshChunk(Integer sensorKey, LocalDateTime timestamp) {
+        // The watermark is never later than the start of yesterday, so live readings skip the lookup
+        if (!enabled || sensorKey == null || timestamp == null || timestamp.isAfter(LocalDateTime.now().minusDays(1))) {
+            return;
+        }
+        LocalDateTime watermark = loadCompactedBefore();
+        if (watermark == null || !timestamp.isBefore(watermark)) {
+            return;
+        }
+        // The day's raw partition is gone, a rebuild from sensor_data would only lose the chunk
+        LocalDateTime rawFrom = loadRawFrom();
+        if (rawFrom != null && timestamp.isBefore(rawFrom)) {
+            logger.warn("Reading of sensor key {} at {} is before the retained raw data; its chunk is not rebuilt", sensorKey, timestamp);
+            return;
+        }
+        LocalDate day = timestamp.toLocalDate();
+        transactionTemplate.executeWithoutResult(status -> {
+            Series series = new Series();
+            jdbcTemplate.query("SELECT timestamp, value FROM sensor_data WHERE sensor_key = ? AND timestamp >= ? AND timestamp < ?",
+                    rs -> {
+                        series.add(toMicros(rs.getTimestamp(1).toLocalDateTime()), rs.getDouble(2));
+                    }, sensorKey, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+            if (series.size == 0) {
+                jdbcTemplate.update("DELETE FROM sensor_chunks WHERE sensor_key = ? AND chunk_start = ?",
+                        sensorKey, Timestamp.valueOf(day.atStartOfDay()));
+            } else {
+                writeChunk(sensorKey, day, series);
+            }
+        });
+    }
+
+    // Fresh compacted_before for partition maintenance; null while chunks are disabled or nothing is compacted
+    public LocalDateTime compactedBeforeForRetention() {
+        return enabled ? loadCompactedBefore() : null;
+    }
+
+    // Records that sensor_data holds no rows before 'before' any more (a partition was dropped or detached)
+    public void rawDataRemovedBefore(LocalDateTime before) {
+        Timestamp bound = Timestamp.valueOf(before);
+        jdbcTemplate.update("UPDATE sensor_chunk_state SET raw_from = ? WHERE raw_from IS NULL OR raw_from < ?", bound, bound);
+    }
+
+    public void expireChunks() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM sensor_chunks WHERE chunk_end <= ?",
+                Timestamp.valueOf(LocalDate.now().minusDays(retentionDays).atStartOfDay()));
+        if (deleted > 0) {
+            logger.info("Deleted {} sensor chunks past retention ({} days)", deleted, retentionDays);
+        }
+    }
+
+    public List<Sensor> findReadings(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        return sensorReadCoalescer.readings(sensorKey, from, to, () -> {
+            LocalDateTime watermark = compactedBefore();
+            return readings(sensorKey, from, to, watermark, chunks(sensorKey, from, to, true, watermark));
+        });
+    }
+
+    public List<Double> findValues(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        List<Sensor> cached = sensorReadCoalescer.cached(sensorKey, from, to);
+        if (cached != null) {
+            return cached.stream().map(Sensor::getValue).toList();
+        }
+        LocalDateTime watermark = compactedBefore();
+        List<ChunkRow> chunks = chunks(sensorKey, from, to, true, watermark);
+        if (chunks.isEmpty()) {
+            return sensorRepository.findSensorValuesBetween(sensorKey, from, to);
+        }
+        List<Double> values = new ArrayList<>();
+        for (Sensor reading : readings(sensorKey, from, to, watermark, chunks)) {
+            values.add(reading.getValue());
+        }
+        return values;
+    }
+
+    // Count, sum, min and max of the sensor's readings in [from, to]: chunk summaries where they suffice, one query otherwise
+    public ValueStats findStats(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        Stats stats = stats(sensorKey, from, to);
+        if (stats == null) {
+            stats = new Stats();
+            mergeRawStats(stats, sensorKey, from, to);
+        }
+        return stats.toValueStats();
+    }
+
+    /**
+     * Readings of one sensor in time order without materializing them: raw rows come through a server-side
+     * cursor and chunks are decoded one day at a time, merged by timestamp.
+     */
+    public void streamReadings(Integer sensorKey, LocalDateTime from, LocalDateTime to, ChunkedSeries.PointConsumer consumer) {
+        LocalDateTime watermark = compactedBefore();
+        List<ChunkRow> chunkRows = chunks(sensorKey, from, to, true, watermark);
+        LocalDateTime rawFrom = chunkRows.isEmpty() ? from : rawFrom(from, watermark);
+        ChunkCursor chunks = new ChunkCursor(chunkRows, toMicros(from), toMicros(to));
+        streamTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT timestamp, value FROM sensor_data WHERE sensor_key = ? AND timestamp BETWEEN ? AND ? ORDER BY timestamp, value");
+            ps.setFetchSize(streamFetchSize);
+            ps.setInt(1, sensorKey);
+            ps.setTimestamp(2, Timestamp.valueOf(rawFrom));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            return ps;
+        }, rs -> {
+            long time = toMicros(rs.getTimestamp(1).toLocalDateTime());
+            chunks.emitUntil(time, consumer);
+            consumer.accept(time, rs.getDouble(2));
+        }));
+        chunks.emitUntil(Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Keyset page over several sensors: up to 'limit' readings in [from, to] ordered by (timestamp, sensor key, value),
+     * strictly after 'after' (from the start of the range when null). Each sensor reads at most 'limit' raw rows
+     * through the (sensor_key, timestamp) index, and chunks are decoded one day at a time until the page is full.
+     */
+    public List<PagePoint> page(List<Integer> sensorKeys, LocalDateTime from, LocalDateTime to, PagePoint after, int limit) {
+        long start = after != null ? Math.max(after.time(), toMicros(from)) : toMicros(from);
+        long end = toMicros(to);
+        if (sensorKeys.isEmpty() || limit <= 0 || start > end) {
+            return List.of();
+        }
+        LocalDateTime watermark = compactedBefore();
+        long rawStart = watermark != null ? Math.max(start, toMicros(watermark)) : start;
+        List<PagePoint> points = new ArrayList<>(rawPage(sensorKeys, rawStart, end, after, limit));
+        points.addAll(chunkPage(sensorKeys, start, end, watermark, after, limit));
+        points.sort(PAGE_ORDER);
+        return points.size() > limit ? new ArrayList<>(points.subList(0, limit)) : points;
+    }
+
+    // Decoded chunks before the watermark plus raw rows from it on, in time order
+    private List<Sensor> readings(Integer sensorKey, LocalDateTime from, LocalDateTime to, LocalDateTime watermark, List<ChunkRow> chunks) {
+        if (chunks.isEmpty()) {
+            return sensorRepository.findBySensorKeyAndTimestampBetweenOrderByTimestamp(sensorKey, from, to);
+        }
+        List<Sensor> raw = sensorRepository.findBySensorKeyAndTimestampBetweenOrderByTimestamp(sensorKey, rawFrom(from, watermark), to);
+        SensorCatalog catalog = sensorCatalogService.findByKey(sensorKey);
+        long start = toMicros(from);
+        long end = toMicros(to);
+        List<Sensor> readings = new ArrayList<>(raw);
+        for (ChunkRow chunk : chunks) {
+            GorillaCodec.decode(chunk.data, (time, value) -> {
+                if (time >= start && time <= end) {
+                    readings.add(new Sensor(catalog, value, fromMicros(time)));
+                }
+            });
+        }
+        readings.sort(Comparator.comparing(Sensor::getTimestamp));
+        return readings;
+    }
+
+    // Combined statistics of chunks and raw rows, or null when no chunk overlaps the range (and nothing is cached)
+    private Stats stats(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        List<Sensor> cached = sensorReadCoalescer.cached(sensorKey, from, to);
+        if (cached != null) {
+            // Readings this request already read cover the range
+            Stats stats = new Stats();
+            cached.forEach(reading -> stats.add(reading.getValue()));
+            return stats;
+        }
+        LocalDateTime watermark = compactedBefore();
+        List<ChunkRow> chunks = chunks(sensorKey, from, to, false, watermark);
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        Stats stats = new Stats();
+        long start = toMicros(from);
+        long end = toMicros(to);
+        for (ChunkRow chunk : chunks) {
+            if (chunk.data == null) {
+                // Entirely inside the range: the summary columns are enough
+                stats.merge(chunk.count, chunk.sum, chunk.min, chunk.max);
+            } else {
+                GorillaCodec.decode(chunk.data, (time, value) -> {
+                    if (time >= start && time <= end) {
+                        stats.add(value);
+                    }
+                });
+            }
+        }
+        mergeRawStats(stats, sensorKey, rawFrom(from, watermark), to);
+        return stats;
+    }
+
+    private void mergeRawStats(Stats stats, Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        for (Object[] row : sensorRepository.findValueStats(sensorKey, from, to)) {
+            long count = row[0] != null ? ((Number) row[0]).longValue() : 0;
+            if (count > 0) {
+                stats.merge(count, ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Chunks before the watermark overlapping [from, to]; the payload is skipped for chunks entirely inside the range
+     * unless always wanted. Chunks at or after the watermark are ignored, their days are read from sensor_data.
+     */
+    private List<ChunkRow> chunks(Integer sensorKey, LocalDateTime from, LocalDateTime to, boolean alwaysData, LocalDateTime watermark) {
+        if (!enabled || watermark == null || sensorKey == null || from == null || to == null || !from.isBefore(watermark)) {
+            return List.of();
+        }
+        Timestamp start = Timestamp.valueOf(from);
+        Timestamp end = Timestamp.valueOf(to);
+        return jdbcTemplate.query("""
+                SELECT point_count, min_value, max_value, sum_value,
+                       CASE WHEN ? OR chunk_start < ? OR chunk_end > ? THEN data END AS data
+                FROM sensor_chunks
+                WHERE sensor_key = ? AND chunk_start <= ? AND chunk_end > ? AND chunk_end <= ?
+                ORDER BY chunk_start
+                """,
+                (rs, i) -> new ChunkRow(rs.getInt(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getBytes(5)),
+                alwaysData, start, end, sensorKey, end, start, Timestamp.valueOf(watermark));
+    }
+
+    // Where raw rows take over from the chunks
+    private static LocalDateTime rawFrom(LocalDateTime from, LocalDateTime watermark) {
+        return watermark != null && watermark.isAfter(from) ? watermark : from;
+    }
+
+    private LocalDateTime compactedBefore() {
+        if (!enabled) {
+            return null; // Chunks are not read, sensor_data still holds every row
+        }
+        long now = System.currentTimeMillis();
+        if (now - compactedBeforeLoadedAt > WATERMARK_REFRESH_MS) {
+            compactedBefore = loadCompactedBefore();
+            compactedBeforeLoadedAt = now;
+        }
+        return compactedBefore;
+    }
+
+    private LocalDateTime loadCompactedBefore() {
+        return loadState("compacted_before");
+    }
+
+    private LocalDateTime loadRawFrom() {
+        return loadState("raw_from");
+    }
+
+    private LocalDateTime loadState(String column) {
+        List<Timestamp> rows = jdbcTemplate.queryForList("SELECT " + column + " FROM sensor_chunk_state", Timestamp.class);
+        return rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).toLocalDateTime();
+    }
+
+    // The first 'limit' raw rows after the cursor; the lateral join keeps every sensor on its own index range scan
+    private List<PagePoint> rawPage(List<Integer> sensorKeys, long start, long end, PagePoint after, int limit) {
+        String sql = """
+                SELECT d.sensor_key, d.timestamp, d.value
+                FROM unnest(?) AS k(sensor_key)
+                CROSS JOIN LATERAL (
+                    SELECT s.sensor_key, s.timestamp, s.value
+                    FROM sensor_data s
+                    WHERE s.sensor_key = k.sensor_key AND s.timestamp BETWEEN ? AND ?
+                    %s
+                    ORDER BY s.timestamp, s.value
+                    LIMIT ?
+                ) d
+                ORDER BY d.timestamp, d.sensor_key, d.value
+                LIMIT ?
+                """.formatted(after != null ? "AND (s.timestamp, s.sensor_key, s.value) > (?, ?, ?)" : "");
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            int i = 1;
+            ps.setArray(i++, con.createArrayOf("integer", sensorKeys.toArray()));
+            ps.setTimestamp(i++, Timestamp.valueOf(fromMicros(start)));
+            ps.setTimestamp(i++, Timestamp.valueOf(fromMicros(end)));
+            if (after != null) {
+                ps.setTimestamp(i++, Timestamp.valueOf(fromMicros(after.time())));
+                ps.setInt(i++, after.sensorKey());
+                ps.setDouble(i++, after.value());
+            }
+            ps.setInt(i++, limit);
+            ps.setInt(i, limit);
+            return ps;
+        }, (rs, row) -> new PagePoint(toMicros(rs.getTimestamp(2).toLocalDateTime()), rs.getInt(1), rs.getDouble(3)));
+    }
+
+    // The first 'limit' chunk points after the cursor; chunk days never overlap, so later days are skipped once the page is full
+    private List<PagePoint> chunkPage(List<Integer> sensorKeys, long start, long end, LocalDateTime watermark, PagePoint after, int limit) {
+        if (!enabled || watermark == null) {
+            return List.of();
+        }
+        Timestamp from = Timestamp.valueOf(fromMicros(start));
+        Timestamp to = Timestamp.valueOf(fromMicros(end));
+        Object[] keys = sensorKeys.toArray();
+        List<Timestamp> days = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT DISTINCT chunk_start FROM sensor_chunks WHERE sensor_key = ANY(?) AND chunk_start <= ? AND chunk_end > ? AND chunk_end <= ? ORDER BY chunk_start");
+            ps.setArray(1, con.createArrayOf("integer", keys));
+            ps.setTimestamp(2, to);
+            ps.setTimestamp(3, from);
+            ps.setTimestamp(4, Timestamp.valueOf(watermark));
+            return ps;
+        }, (rs, i) -> rs.getTimestamp(1));
+
+        List<PagePoint> points = new ArrayList<>();
+        for (Timestamp day : days) {
+            if (points.size() >= limit) {
+                break;
+            }
+            List<Object[]> chunks = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT sensor_key, data FROM sensor_chunks WHERE sensor_key = ANY(?) AND chunk_start = ?");
+                ps.setArray(1, con.createArrayOf("integer", keys));
+                ps.setTimestamp(2, day);
+                return ps;
+            }, (rs, i) -> new Object[]{rs.getInt(1), rs.getBytes(2)});
+
+            for (Object[] chunk : chunks) {
+                int sensorKey = (Integer) chunk[0];
+                int[] taken = {0};
+                long[] lastTaken = {Long.MIN_VALUE};
+                GorillaCodec.decode((byte[]) chunk[1], (time, value) -> {
+                    if (time < start || time > end || (taken[0] >= limit && time != lastTaken[0])) {
+                        return;
+                    }
+                    PagePoint point = new PagePoint(time, sensorKey, value);
+                    if (after == null || PAGE_ORDER.compare(point, after) > 0) {
+                        points.add(point);
+                        taken[0]++;
+                        lastTaken[0] = time;
+                    }
+                });
+            }
+            points.sort(PAGE_ORDER);
+            if (points.size() > limit) {
+                points.subList(limit, points.size()).clear();
+            }
+        }
+        return points;
+    }
+
+    // First day at or after 'from' (any day when null) and before the cutoff that still has raw rows
+    private LocalDate oldestRawDayBefore(LocalDate from, LocalDate cutoff) {
+        Timestamp oldest = from == null
+                ? jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM sensor_data WHERE timestamp < ?", Timestamp.class,
+                        Timestamp.valueOf(cutoff.atStartOfDay()))
+                : jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM sensor_data WHERE timestamp >= ? AND timestamp < ?", Timestamp.class,
+                        Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(cutoff.atStartOfDay()));
+        return oldest != null ? oldest.toLocalDateTime().toLocalDate() : null;
+    }
+
+    // Copies one day of readings into chunks, replacing chunks of that day written by an earlier run
+    private long compactDay(LocalDate day) {
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+
+        Map<Integer, Series> bySensor = new TreeMap<>();
+        jdbcTemplate.query("SELECT sensor_key, timestamp, value FROM sensor_data WHERE timestamp >= ? AND timestamp < ?",
+                rs -> {
+                    bySensor.computeIfAbsent(rs.getInt(1), key -> new Series())
+                            .add(toMicros(rs.getTimestamp(2).toLocalDateTime()), rs.getDouble(3));
+                }, start, end);
+
+        long points = 0;
+        for (Map.Entry<Integer, Series> entry : bySensor.entrySet()) {
+            writeChunk(entry.getKey(), day, entry.getValue());
+            points += entry.getValue().size;
+        }
+        // Sensors whose readings of that day were deleted since
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM sensor_chunks WHERE chunk_start = ? AND NOT (sensor_key = ANY(?))");
+            ps.setTimestamp(1, start);
+            ps.setArray(2, con.createArrayOf("integer", bySensor.keySet().toArray()));
+            return ps;
+        });
+        return points;
+    }
+
+    private void writeChunk(Integer sensorKey, LocalDate day, Series series) {
+        series.sort();
+        Stats stats = new Stats();
+        for (int i = 0; i < series.size; i++) {
+            stats.add(series.values[i]);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO sensor_chunks (sensor_key, chunk_start, chunk_end, point_count, min_value, max_value, sum_value, data)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT (sensor_key, chunk_start) DO UPDATE SET
+                    point_count = EXCLUDED.point_count, min_value = EXCLUDED.min_value, max_value = EXCLUDED.max_value,
+                    sum_value = EXCLUDED.sum_value, data = EXCLUDED.data
+                """,
+                sensorKey, Timestamp.valueOf(day.atStartOfDay()), Timestamp.valueOf(day.plusDays(1).atStartOfDay()),
+                series.size, stats.min, stats.max, stats.sum, GorillaCodec.encode(series.times, series.values, series.size));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    public static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private record ChunkRow(int count, double min, double max, double sum, byte[] data) {}
+
+    // One reading of a multi-sensor page; the last one of a page is the keyset cursor of the next
+    public record PagePoint(long time, int sensorKey, double value) {}
+
+    // Aggregates of a range; min and max are infinite and the accessors null when it holds no readings
+    public record ValueStats(long count, double sum, double min, double max) {
+        public static final ValueStats EMPTY = new ValueStats(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        public ValueStats plus(ValueStats other) {
+            return new ValueStats(count + other.count, sum + other.sum, Math.min(min, other.min), Math.max(max, other.max));
+        }
+
+        public Double maxOrNull() { return count > 0 ? max : null; }
+
+        public Double minOrNull() { return count > 0 ? min : null; }
+
+        public Double averageOrNull() { return count > 0 ? sum / count : null; }
+    }
+
+    private static final Comparator<PagePoint> PAGE_ORDER = Comparator.comparingLong(PagePoint::time)
+            .thenComparingInt(PagePoint::sensorKey)
+            .thenComparingDouble(PagePoint::value);
+
+    // Walks decoded chunk points inside [start, end], holding one decoded chunk at a time
+    private static final class ChunkCursor {
+        private final List<ChunkRow> chunks;
+        private final long start;
+        private final long end;
+        private final Series current = new Series();
+        private int nextChunk;
+        private int position;
+
+        ChunkCursor(List<ChunkRow> chunks, long start, long end) {
+            this.chunks = chunks;
+            this.start = start;
+            this.end = end;
+        }
+
+        void emitUntil(long time, ChunkedSeries.PointConsumer consumer) {
+            while (true) {
+                if (position == current.size) {
+                    if (nextChunk == chunks.size()) {
+                        return;
+                    }
+                    current.size = 0;
+                    position = 0;
+                    GorillaCodec.decode(chunks.get(nextChunk++).data, (t, v) -> {
+                        if (t >= start && t <= end) {
+                            current.add(t, v);
+                        }
+                    });
+                    continue;
+                }
+                if (current.times[position] > time) {
+                    return;
+                }
+                consumer.accept(current.times[position], current.values[position]);
+                position++;
+            }
+        }
+    }
+
+    // Growable pair of primitive arrays for one sensor's day
+    private static final class Series {
+        long[] times = new long[256];
+        double[] values = new double[256];
+        int size;
+
+        void add(long time, double value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = time;
+            values[size] = value;
+            size++;
+        }
+
+        void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> times[i]));
+            long[] sortedTimes = new long[size];
+            double[] sortedValues = new double[size];
+            for (int i = 0; i < size; i++) {
+                sortedTimes[i] = times[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+            times = sortedTimes;
+            values = sortedValues;
+        }
+    }
+
+    private static final class Stats {
+        long count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        void add(double value) {
+            merge(1, value, value, value);
+        }
+
+        void merge(long count, double sum, double min, double max) {
+            this.count += count;
+            this.sum += sum;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+        }
+
+        ValueStats toValueStats() {
+            return new ValueStats(count, sum, min, max);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingest-side compression per sensor type, as in SCADA historians:
+ * <ol>
+ *     <li>deadband: a reading within the band of the last accepted value is dropped;</li>
+ *     <li>swinging door: accepted readings are held back while a straight line from the last stored point
+ *     stays within the deviation of every reading since; when the "door" can no longer close,
+ *     the held reading is stored and becomes the new pivot.</li>
+ * </ol>
+ * Sensor types without settings are stored unchanged. A held reading is never older than
+ * {@code sensor-data.compression.max-interval-minutes}, so a flat sensor still reports regularly.
+ */
+@Service
+public class SensorCompressionService {
+
+    @Value("${sensor-data.compression.enabled:false}")
+    private boolean enabled;
+
+    // sensorType -> absolute deadband, e.g. {Pressure:0.001}
+    @Value("#{${sensor-data.compression.deadband:{:}}}")
+    private Map<String, Double> deadband;
+
+    // sensorType -> deadband in percent of the last accepted value
+    @Value("#{${sensor-data.compression.deadband-percent:{:}}}")
+    private Map<String, Double> deadbandPercent;
+
+    // sensorType -> swinging door deviation (same unit as the value)
+    @Value("#{${sensor-data.compression.swinging-door:{:}}}")
+    private Map<String, Double> swingingDoor;
+
+    @Value("${sensor-data.compression.max-interval-minutes:60}")
+    private long maxIntervalMinutes;
+
+    private final Map<Integer, DoorState> states = new ConcurrentHashMap<>();
+
+    // What happened to an incoming reading
+    public enum Outcome { STORED, HELD, DROPPED }
+
+    /**
+     * The outcome for the incoming reading and the readings to store now: the reading itself when it is stored,
+     * and/or the previously held reading when the door opens.
+     */
+    public record Offer(Outcome outcome, List<Sensor> toStore) {}
+
+    public Offer offer(Sensor reading) {
+        String type = reading.getSensorType();
+        if (!enabled || !isConfigured(type)) {
+            count(reading).record(true);
+            return new Offer(Outcome.STORED, List.of(reading));
+        }
+        DoorState state = count(reading);
+        synchronized (state) {
+            List<Sensor> toStore = state.offer(reading, deadband.getOrDefault(type, 0.0), deadbandPercent.getOrDefault(type, 0.0),
+                    swingingDoor.getOrDefault(type, 0.0), Duration.ofMinutes(maxIntervalMinutes));
+            Outcome outcome = toStore.contains(reading) ? Outcome.STORED : state.held == reading ? Outcome.HELD : Outcome.DROPPED;
+            return new Offer(outcome, toStore);
+        }
+    }
+
+    // Held readings that have waited longer than the max interval; they become the new pivots
+    public List<Sensor> releaseStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(maxIntervalMinutes);
+        List<Sensor> released = new ArrayList<>();
+        for (DoorState state : states.values()) {
+            synchronized (state) {
+                if (state.held != null && state.heldSince.isBefore(cutoff)) {
+                    released.add(state.archiveHeld());
+                }
+            }
+        }
+        return released;
+    }
+
+    // Every held reading, e.g. at shutdown
+    public List<Sensor> releaseAll() {
+        List<Sensor> released = new ArrayList<>();
+        for (DoorState state : states.values()) {
+            synchronized (state) {
+                if (state.held != null) {
+                    released.add(state.archiveHeld());
+                }
+            }
+        }
+        return released;
+    }
+
+    // Drops the state (and any held reading) of a deleted sensor
+    public void discard(Integer sensorKey) {
+        states.remove(sensorKey);
+    }
+
+    // Per sensor: readings received, readings stored and the resulting compression ratio
+    public List<Map<String, Object>> getCompressionStats() {
+        List<Map<String, Object>> stats = new ArrayList<>();
+        for (DoorState state : states.values()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            synchronized (state) {
+                row.put("sensorId", state.sensorId);
+                row.put("sensorType", state.sensorType);
+                row.put("received", state.received);
+                row.put("stored", state.stored);
+                row.put("ratio", state.stored > 0 ? (double) state.received / state.stored : null);
+            }
+            stats.add(row);
+        }
+        stats.sort((a, b) -> String.valueOf(a.get("sensorId")).compareTo(String.valueOf(b.get("sensorId"))));
+        return stats;
+    }
+
+    private boolean isConfigured(String type) {
+        return type != null && (deadband.containsKey(type) || deadbandPercent.containsKey(type) || swingingDoor.containsKey(type));
+    }
+
+    private DoorState count(Sensor reading) {
+        return states.computeIfAbsent(reading.getCatalog().getSensorKey(),
+                key -> new DoorState(reading.getSensorId(), reading.getSensorType()));
+    }
+
+    private static final class DoorState {
+        final String sensorId;
+        final String sensorType;
+        long received;
+        long stored;
+
+        Sensor archived;       // last stored reading, the door pivot
+        Sensor held;           // last accepted reading, not stored yet
+        LocalDateTime heldSince;
+        Sensor lastAccepted;   // deadband reference
+        double slopeMax = Double.NEGATIVE_INFINITY;
+        double slopeMin = Double.POSITIVE_INFINITY;
+
+        DoorState(String sensorId, String sensorType) {
+            this.sensorId = sensorId;
+            this.sensorType = sensorType;
+        }
+
+        synchronized void record(boolean storedNow) {
+            received++;
+            if (storedNow) {
+                stored++;
+            }
+        }
+
+        List<Sensor> offer(Sensor reading, double absoluteBand, double percentBand, double deviation, Duration maxInterval) {
+            received++;
+
+            if (archived == null || !reading.getTimestamp().isAfter(pivot().getTimestamp())) {
+                // First reading, or out of order: store as is and restart the door from it
+                List<Sensor> toStore = new ArrayList<>(2);
+                if (held != null) {
+                    toStore.add(archiveHeld());
+                }
+                archive(reading);
+                toStore.add(reading);
+                return toStore;
+            }
+
+            // Deadband against the last accepted value
+            double band = Math.max(absoluteBand, Math.abs(lastAccepted.getValue()) * percentBand / 100.0);
+            boolean overdue = Duration.between(lastAccepted.getTimestamp(), reading.getTimestamp()).compareTo(maxInterval) >= 0;
+            if (band > 0 && Math.abs(reading.getValue() - lastAccepted.getValue()) <= band && !overdue) {
+                return List.of();
+            }
+            lastAccepted = reading;
+
+            if (deviation <= 0) {
+                List<Sensor> toStore = new ArrayList<>(2);
+                if (held != null) {
+                    toStore.add(archiveHeld());
+                }
+                archive(reading);
+                toStore.add(reading);
+                return toStore;
+            }
+
+            if (held == null) {
+                hold(reading, deviation);
+                return List.of();
+            }
+
+            double dt = seconds(archived, reading);
+            double upper = (reading.getValue() + deviation - archived.getValue()) / dt;
+            double lower = (reading.getValue() - deviation - archived.getValue()) / dt;
+            double newMin = Math.min(slopeMin, upper);
+            double newMax = Math.max(slopeMax, lower);
+            boolean doorOpen = newMax > newMin;
+            boolean heldOverdue = Duration.between(archived.getTimestamp(), held.getTimestamp()).compareTo(maxInterval) >= 0;
+
+            if (doorOpen || heldOverdue) {
+                Sensor toStore = archiveHeld();
+                hold(reading, deviation);
+                return List.of(toStore);
+            }
+            slopeMin = newMin;
+            slopeMax = newMax;
+            held = reading;
+            heldSince = LocalDateTime.now();
+            return List.of();
+        }
+
+        Sensor archiveHeld() {
+            Sensor reading = held;
+            archive(reading);
+            return reading;
+        }
+
+        private Sensor pivot() {
+            return held != null ? held : archived;
+        }
+
+        private void archive(Sensor reading) {
+            archived = reading;
+            lastAccepted = reading;
+            held = null;
+            heldSince = null;
+            slopeMax = Double.NEGATIVE_INFINITY;
+            slopeMin = Double.POSITIVE_INFINITY;
+            stored++;
+        }
+
+        private void hold(Sensor reading, double deviation) {
+            double dt = seconds(archived, reading);
+            slopeMin = (reading.getValue() + deviation - archived.getValue()) / dt;
+            slopeMax = (reading.getValue() - deviation - archived.getValue()) / dt;
+            held = reading;
+            heldSince = LocalDateTime.now();
+        }
+
+        private static double seconds(Sensor from, Sensor to) {
+            return Duration.between(from.getTimestamp(), to.getTimestamp()).toNanos() / 1e9;
+        }
+    }
+}
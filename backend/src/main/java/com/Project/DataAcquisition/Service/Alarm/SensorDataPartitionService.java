@@ -0,0 +1,129 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Utils.TablePartitioner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Maintains the partitions of sensor_data (created by migration V2 on timestamp, daily or monthly).
+ * Each partition inherits the (sensor_key, timestamp) index, so range reads prune to the partitions they touch
+ * and retention detaches whole partitions instead of deleting rows. Partitions that lie entirely before
+ * SensorChunkStore's compacted_before are detached as well: their readings are served from sensor_chunks.
+ */
+@Service
+public class SensorDataPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorDataPartitionService.class);
+
+    private static final String TABLE = "sensor_data";
+
+    private final TransactionTemplate transactionTemplate;
+    private final TablePartitioner tablePartitioner;
+    private final SensorChunkStore sensorChunkStore;
+
+    @Value("${sensor-data.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sensor-data.partitions.interval:monthly}")
+    private String interval; // daily or monthly
+
+    @Value("${sensor-data.partitions.ahead:3}")
+    private int partitionsAhead;
+
+    @Value("${sensor-data.partitions.retention-days:0}")
+    private int retentionDays; // 0 keeps every partition
+
+    @Value("${sensor-data.partitions.drop-expired:true}")
+    private boolean dropExpired; // false only detaches, leaving the table for offline archiving
+
+    @Value("${sensor-data.partitions.drop-compacted:true}")
+    private boolean dropCompacted; // false keeps compacted days in sensor_data too, stored twice
+
+    public SensorDataPartitionService(TransactionTemplate transactionTemplate, TablePartitioner tablePartitioner,
+                                      SensorChunkStore sensorChunkStore) {
+        this.transactionTemplate = transactionTemplate;
+        this.tablePartitioner = tablePartitioner;
+        this.sensorChunkStore = sensorChunkStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (tablePartitioner.isPlainTable(TABLE)) {
+            logger.warn("sensor_data is not partitioned; partition maintenance is skipped until the migrations have run");
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            logger.error("Sensor data partition setup failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${sensor-data.partitions.maintenance-cron:0 5 0 * * *}") // Runs daily at 00:05
+    public void maintainPartitions() {
+        if (!enabled || tablePartitioner.isPlainTable(TABLE)) {
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+        } catch (Exception e) {
+            // Retention below still runs; the missing partitions are retried on the next run
+            logger.error("Sensor data partition creation failed: {}", e.getMessage(), e);
+        }
+        expirePartitions();
+    }
+
+    public void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            if (isDaily()) {
+                tablePartitioner.createDailyPartition(TABLE, today.plusDays(i));
+            } else {
+                tablePartitioner.createMonthlyPartition(TABLE, YearMonth.from(today).plusMonths(i));
+            }
+        }
+    }
+
+    public void expirePartitions() {
+        LocalDate cutoff = retentionDays > 0 ? LocalDate.now().minusDays(retentionDays) : null;
+        LocalDateTime compactedBefore = dropCompacted ? sensorChunkStore.compactedBeforeForRetention() : null;
+        if (cutoff == null && compactedBefore == null) {
+            return;
+        }
+
+        for (String partition : tablePartitioner.listPartitions(TABLE)) {
+            LocalDate upperBound = tablePartitioner.upperBound(TABLE, partition);
+            if (upperBound == null) {
+                continue;
+            }
+            boolean expired = cutoff != null && !upperBound.isAfter(cutoff);
+            boolean compacted = compactedBefore != null && !upperBound.atStartOfDay().isAfter(compactedBefore);
+            if (!expired && !compacted) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                tablePartitioner.detachPartition(TABLE, partition, dropExpired);
+                sensorChunkStore.rawDataRemovedBefore(upperBound.atStartOfDay());
+            });
+            logger.info("{} sensor data partition {} ({})", dropExpired ? "Dropped" : "Detached", partition,
+                    expired ? "retention " + retentionDays + " days" : "compacted into sensor_chunks");
+        }
+    }
+
+    private boolean isDaily() {
+        return "daily".equalsIgnoreCase(interval);
+    }
+}
@@ -0,0 +1,271 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+import com.Project.DataAcquisition.Utils.ChunkedSeries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the last {@code sensor-data.hot-window.hours} of readings per sensor in memory as primitive chunks.
+ * Range reads that start inside the window (the 24 hour chart and card defaults) are answered here;
+ * anything older, or any read before warm-up finishes, goes to SensorChunkStore (compressed chunks plus sensor_data).
+ */
+@Service
+public class SensorHotWindowStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorHotWindowStore.class);
+
+    private static final int BYTES_PER_POINT = Long.BYTES + Double.BYTES;
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final SensorRepository sensorRepository;
+    private final SensorCatalogService sensorCatalogService;
+    private final SensorChunkStore sensorChunkStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    @Value("${sensor-data.hot-window.enabled:true}")
+    private volatile boolean enabled;
+
+    @Value("${sensor-data.hot-window.hours:48}")
+    private int windowHours;
+
+    @Value("${sensor-data.hot-window.max-memory-mb:64}")
+    private int maxMemoryMb;
+
+    @Value("${sensor-data.hot-window.chunk-size:1024}")
+    private int chunkSize;
+
+    private final Map<Integer, ChunkedSeries> series = new ConcurrentHashMap<>();
+    private final AtomicInteger allocatedChunks = new AtomicInteger();
+
+    // Readings saved while warming up; applied afterwards unless the warm-up query already saw them
+    private final List<Sensor> pending = new ArrayList<>();
+    private volatile boolean ready;
+    private volatile long warmedFrom;
+
+    public SensorHotWindowStore(SensorRepository sensorRepository,
+                                SensorCatalogService sensorCatalogService,
+                                SensorChunkStore sensorChunkStore,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.sensorRepository = sensorRepository;
+        this.sensorCatalogService = sensorCatalogService;
+        this.sensorChunkStore = sensorChunkStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWarmUp() {
+        if (enabled) {
+            taskExecutor.execute(this::warmUp);
+        }
+    }
+
+    public void warmUp() {
+        LocalDateTime from = LocalDateTime.now().minusHours(windowHours);
+        warmedFrom = toMicros(from);
+        long[] maxId = {0};
+        try {
+            // Streamed with a cursor so the whole window is never materialized as entities
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT id, sensor_key, timestamp, value FROM sensor_data WHERE timestamp >= ? ORDER BY sensor_key, timestamp");
+                ps.setFetchSize(10_000);
+                ps.setTimestamp(1, Timestamp.valueOf(from));
+                return ps;
+            }, rs -> {
+                maxId[0] = Math.max(maxId[0], rs.getLong(1));
+                add(rs.getInt(2), toMicros(rs.getTimestamp(3).toLocalDateTime()), rs.getDouble(4));
+            }));
+        } catch (Exception e) {
+            logger.error("Hot window warm-up failed, sensor reads stay on the database: {}", e.getMessage());
+            synchronized (pending) {
+                enabled = false;
+                pending.clear();
+            }
+            series.clear();
+            allocatedChunks.set(0);
+            return;
+        }
+
+        synchronized (pending) {
+            for (Sensor reading : pending) {
+                if (reading.getId() == null || reading.getId() > maxId[0]) {
+                    record(reading.getCatalog(), reading.getTimestamp(), reading.getValue());
+                }
+            }
+            pending.clear();
+            ready = true;
+        }
+        logger.info("Hot window warmed with {} sensors since {} ({} chunks)", series.size(), from, allocatedChunks.get());
+    }
+
+    // Called after a reading is saved
+    public void record(Sensor reading) {
+        if (!enabled || reading.getCatalog() == null || reading.getTimestamp() == null || reading.getValue() == null) {
+            return;
+        }
+        if (!ready) {
+            synchronized (pending) {
+                if (!enabled) {
+                    return;
+                }
+                if (!ready) {
+                    pending.add(reading);
+                    return;
+                }
+            }
+        }
+        record(reading.getCatalog(), reading.getTimestamp(), reading.getValue());
+    }
+
+    // Rebuilds one sensor from the database after a reading was changed or deleted in place
+    public void reload(Integer sensorKey) {
+        if (!enabled || !ready || sensorKey == null) {
+            return;
+        }
+        LocalDateTime from = LocalDateTime.now().minusHours(windowHours);
+        ChunkedSeries fresh = new ChunkedSeries(chunkSize, toMicros(from));
+        int allocated = 0;
+        for (Sensor reading : sensorRepository.findBySensorKeyAndTimestampBetweenOrderByTimestamp(sensorKey, from, FAR_FUTURE)) {
+            allocated += fresh.add(toMicros(reading.getTimestamp()), reading.getValue());
+        }
+        ChunkedSeries previous = series.put(sensorKey, fresh);
+        allocatedChunks.addAndGet(allocated - (previous != null ? previous.chunkCount() : 0));
+        enforceBudget();
+    }
+
+    // Forgets a sensor whose readings were deleted
+    public void drop(Integer sensorKey) {
+        ChunkedSeries previous = sensorKey != null ? series.remove(sensorKey) : null;
+        if (previous != null) {
+            allocatedChunks.addAndGet(-previous.chunkCount());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sensor-data.hot-window.expire-ms:300000}")
+    public void expire() {
+        if (!ready) {
+            return;
+        }
+        long cutoff = toMicros(LocalDateTime.now().minusHours(windowHours));
+        int freed = 0;
+        for (ChunkedSeries s : series.values()) {
+            freed += s.evictBefore(cutoff);
+        }
+        allocatedChunks.addAndGet(-freed);
+    }
+
+    public List<Sensor> findReadings(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        ChunkedSeries s = covering(sensorKey, from);
+        if (s == null) {
+            return sensorChunkStore.findReadings(sensorKey, from, to);
+        }
+        SensorCatalog catalog = sensorCatalogService.findByKey(sensorKey);
+        List<Sensor> readings = new ArrayList<>();
+        s.range(toMicros(from), toMicros(to), (time, value) -> readings.add(new Sensor(catalog, value, fromMicros(time))));
+        return readings;
+    }
+
+    public List<Double> findValues(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        ChunkedSeries s = covering(sensorKey, from);
+        if (s == null) {
+            return sensorChunkStore.findValues(sensorKey, from, to);
+        }
+        List<Double> values = new ArrayList<>();
+        s.range(toMicros(from), toMicros(to), (time, value) -> values.add(value));
+        return values;
+    }
+
+    public SensorChunkStore.ValueStats findStats(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        ChunkedSeries s = covering(sensorKey, from);
+        if (s == null) {
+            return sensorChunkStore.findStats(sensorKey, from, to);
+        }
+        double[] stats = {0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}; // sum, min, max
+        int count = s.range(toMicros(from), toMicros(to), (time, value) -> {
+            stats[0] += value;
+            stats[1] = Math.min(stats[1], value);
+            stats[2] = Math.max(stats[2], value);
+        });
+        return new SensorChunkStore.ValueStats(count, stats[0], stats[1], stats[2]);
+    }
+
+    // The in-memory series when it holds every reading from 'from' on, otherwise null (read the database)
+    private ChunkedSeries covering(Integer sensorKey, LocalDateTime from) {
+        if (!enabled || !ready || sensorKey == null || from == null) {
+            return null;
+        }
+        long start = toMicros(from);
+        // Only sensors this process has seen are trusted; readings of any other sensor may have been written
+        // elsewhere (another instance, GenerateAndInsertData, SQL loads), so those reads go to the database
+        ChunkedSeries s = series.get(sensorKey);
+        return s != null && s.covers(start) ? s : null;
+    }
+
+    private void record(SensorCatalog catalog, LocalDateTime timestamp, double value) {
+        add(catalog.getSensorKey(), toMicros(timestamp), value);
+        enforceBudget();
+    }
+
+    private void add(int sensorKey, long time, double value) {
+        ChunkedSeries s = series.computeIfAbsent(sensorKey, key -> new ChunkedSeries(chunkSize, warmedFrom));
+        allocatedChunks.addAndGet(s.add(time, value));
+    }
+
+    // Drops the globally oldest chunks until the store fits its memory budget
+    private void enforceBudget() {
+        long maxChunks = Math.max(1, (long) maxMemoryMb * 1024 * 1024 / ((long) chunkSize * BYTES_PER_POINT));
+        while (allocatedChunks.get() > maxChunks) {
+            ChunkedSeries oldest = null;
+            long oldestTime = Long.MAX_VALUE;
+            for (ChunkedSeries s : series.values()) {
+                long t = s.oldestTime();
+                if (t < oldestTime) {
+                    oldestTime = t;
+                    oldest = s;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            allocatedChunks.addAndGet(-oldest.evictOldest());
+        }
+    }
+
+    // Timestamps are stored naive (timestamp without time zone), so UTC is only an encoding here
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
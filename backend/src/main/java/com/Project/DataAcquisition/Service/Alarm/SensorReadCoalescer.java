@@ -0,0 +1,127 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Utils.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces historical range reads (SensorChunkStore, i.e. sensor_data plus chunks) of one sensor:
+ * <ul>
+ *   <li>within an HTTP request, a range contained in one read before is served from that read, so widgets and
+ *       endpoints called in the same request over the same sensor and dates hit the database once;</li>
+ *   <li>across requests, identical reads running at the same time share one query (single flight).</li>
+ * </ul>
+ * Outside a request (schedulers, background jobs) only single flight applies. Readings handed out are shared
+ * and must not be modified.
+ */
+@Service
+public class SensorReadCoalescer {
+
+    private static final String REQUEST_ATTRIBUTE = SensorReadCoalescer.class.getName();
+
+    @Value("${sensor-data.read-coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sensor-data.read-coalescing.single-flight:true}")
+    private boolean singleFlight;
+
+    private record ReadKey(Integer sensorKey, LocalDateTime from, LocalDateTime to) {}
+
+    private record LoadedRange(LocalDateTime to, List<Sensor> readings) {}
+
+    // Request attribute value: reads of the request by sensor key and start
+    private static final class RequestReads {
+        final Map<Integer, TreeMap<LocalDateTime, LoadedRange>> bySensor = new HashMap<>();
+    }
+
+    // No TTL: only reads running at the same time are shared
+    private final SingleFlight<ReadKey, List<Sensor>> inFlight = new SingleFlight<>();
+
+    // Readings of [from, to] in time order, loaded by loader unless this request or a running read already has them
+    public List<Sensor> readings(Integer sensorKey, LocalDateTime from, LocalDateTime to, Supplier<List<Sensor>> loader) {
+        if (!enabled || sensorKey == null || from == null || to == null) {
+            return loader.get();
+        }
+        List<Sensor> cached = cached(sensorKey, from, to);
+        if (cached != null) {
+            return cached;
+        }
+        List<Sensor> readings = singleFlight
+                ? inFlight.run(new ReadKey(sensorKey, from, to), 0, () -> Collections.unmodifiableList(loader.get()))
+                : Collections.unmodifiableList(loader.get());
+        remember(sensorKey, from, to, readings);
+        return readings;
+    }
+
+    // Readings of [from, to] from a read of this request that contains the range, or null
+    public List<Sensor> cached(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        Map<Integer, TreeMap<LocalDateTime, LoadedRange>> requestReads = enabled ? requestReads(false) : null;
+        TreeMap<LocalDateTime, LoadedRange> ranges = requestReads != null ? requestReads.get(sensorKey) : null;
+        if (ranges == null || from == null || to == null) {
+            return null;
+        }
+        for (Map.Entry<LocalDateTime, LoadedRange> range : ranges.headMap(from, true).descendingMap().entrySet()) {
+            if (!range.getValue().to().isBefore(to)) {
+                return slice(range.getValue().readings(), from, to);
+            }
+        }
+        return null;
+    }
+
+    // The readings of a time-ordered list that fall in [from, to], as a view
+    public static List<Sensor> slice(List<Sensor> readings, LocalDateTime from, LocalDateTime to) {
+        return readings.subList(firstAtOrAfter(readings, from, false), firstAtOrAfter(readings, to, true));
+    }
+
+    private void remember(Integer sensorKey, LocalDateTime from, LocalDateTime to, List<Sensor> readings) {
+        Map<Integer, TreeMap<LocalDateTime, LoadedRange>> requestReads = requestReads(true);
+        if (requestReads != null) {
+            requestReads.computeIfAbsent(sensorKey, key -> new TreeMap<>()).merge(from, new LoadedRange(to, readings),
+                    (previous, loaded) -> previous.to().isAfter(loaded.to()) ? previous : loaded);
+        }
+    }
+
+    // Reads remembered by the current request, by sensor key and start; null outside a request
+    private Map<Integer, TreeMap<LocalDateTime, LoadedRange>> requestReads(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        if (attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof RequestReads reads) {
+            return reads.bySensor;
+        }
+        if (!create) {
+            return null;
+        }
+        RequestReads reads = new RequestReads();
+        attributes.setAttribute(REQUEST_ATTRIBUTE, reads, RequestAttributes.SCOPE_REQUEST);
+        return reads.bySensor;
+    }
+
+    // Index of the first reading at or after time (after it when exclusive)
+    private static int firstAtOrAfter(List<Sensor> readings, LocalDateTime time, boolean exclusive) {
+        int low = 0;
+        int high = readings.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = readings.get(mid).getTimestamp().compareTo(time);
+            if (cmp < 0 || (exclusive && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
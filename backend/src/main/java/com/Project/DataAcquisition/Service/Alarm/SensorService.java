@@ -1,22 +1,73 @@
 package com.Project.DataAcquisition.Service.Alarm;
 
 import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Rules.RtuData;
 import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class SensorService {
     private final SensorRepository sensorRepository;
+    private final SensorCatalogService sensorCatalogService;
+    private final SensorHotWindowStore sensorHotWindowStore;
+    private final SensorCompressionService sensorCompressionService;
+    private final SensorChunkStore sensorChunkStore;
 
-    public SensorService(SensorRepository sensorRepository) {
+    public SensorService(SensorRepository sensorRepository, SensorCatalogService sensorCatalogService,
+                         SensorHotWindowStore sensorHotWindowStore, SensorCompressionService sensorCompressionService,
+                         SensorChunkStore sensorChunkStore) {
         this.sensorRepository = sensorRepository;
+        this.sensorCatalogService = sensorCatalogService;
+        this.sensorHotWindowStore = sensorHotWindowStore;
+        this.sensorCompressionService = sensorCompressionService;
+        this.sensorChunkStore = sensorChunkStore;
     }
 
-    // Create Sensor
+    /**
+     * Create Sensor. Readings dropped or held back by compression are returned without an id and with
+     * compression "dropped" or "held". The hot window only gets readings once they are stored, so it never serves
+     * a held reading that swinging door later replaces.
+     */
     public Sensor createSensor(Sensor sensor) {
-        return sensorRepository.save(sensor);
+        sensor.setCatalog(sensorCatalogService.resolve(sensor.getSensorId(), sensor.getRtu(), sensor.getSensorType()));
+        SensorCompressionService.Offer offer = sensorCompressionService.offer(sensor);
+        Sensor result = sensor;
+        for (Sensor reading : offer.toStore()) {
+            Sensor saved = store(reading);
+            if (reading == sensor) {
+                result = saved;
+            }
+        }
+        result.setCompression(offer.outcome().name().toLowerCase());
+        return result;
+    }
+
+    // Held readings must not wait for a next reading that may never come
+    @Scheduled(fixedDelayString = "${sensor-data.compression.release-check-ms:60000}")
+    public void releaseStaleReadings() {
+        sensorCompressionService.releaseStale().forEach(this::store);
+    }
+
+    @PreDestroy
+    public void releaseHeldReadings() {
+        sensorCompressionService.releaseAll().forEach(this::store);
+    }
+
+    public List<Map<String, Object>> getCompressionStats() {
+        return sensorCompressionService.getCompressionStats();
+    }
+
+    private Sensor store(Sensor reading) {
+        Sensor saved = sensorRepository.save(reading);
+        sensorHotWindowStore.record(saved);
+        sensorChunkStore.refreshChunk(saved.getCatalog().getSensorKey(), saved.getTimestamp()); // Late reading of a compacted day
+        return saved;
     }
 
     // Get All Sensors
@@ -32,16 +83,29 @@ public class SensorService {
     // Update Sensor
     public Sensor updateSensor(Long id, Sensor updatedSensor) {
         return sensorRepository.findById(id).map(sensor -> {
-            sensor.setSensorId(updatedSensor.getSensorId());
-            sensor.setSensorType(updatedSensor.getSensorType());
+            Integer previousKey = sensor.getCatalog().getSensorKey();
+            LocalDateTime previousTimestamp = sensor.getTimestamp();
+            RtuData rtu = updatedSensor.getRtu() != null ? updatedSensor.getRtu() : sensor.getRtu();
+            sensor.setCatalog(sensorCatalogService.resolve(updatedSensor.getSensorId(), rtu, updatedSensor.getSensorType()));
             sensor.setValue(updatedSensor.getValue());
             sensor.setTimestamp(updatedSensor.getTimestamp());
-            return sensorRepository.save(sensor);
+            Sensor saved = sensorRepository.save(sensor);
+            sensorChunkStore.refreshChunk(previousKey, previousTimestamp);
+            sensorChunkStore.refreshChunk(saved.getCatalog().getSensorKey(), saved.getTimestamp());
+            sensorHotWindowStore.reload(previousKey);
+            if (!previousKey.equals(saved.getCatalog().getSensorKey())) {
+                sensorHotWindowStore.reload(saved.getCatalog().getSensorKey());
+            }
+            return saved;
         }).orElseThrow(() -> new RuntimeException("Sensor not found"));
     }
 
     // Delete Sensor
     public void deleteSensor(Long id) {
+        Optional<Sensor> existing = sensorRepository.findById(id);
+        Integer sensorKey = existing.map(sensor -> sensor.getCatalog().getSensorKey()).orElse(null);
         sensorRepository.deleteById(id);
+        existing.ifPresent(sensor -> sensorChunkStore.refreshChunk(sensorKey, sensor.getTimestamp()));
+        sensorHotWindowStore.reload(sensorKey);
     }
 }
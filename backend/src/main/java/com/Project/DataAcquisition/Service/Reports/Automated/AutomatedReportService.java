@@ -1,24 +1,30 @@
 
 package com.Project.DataAcquisition.Service.Reports.Automated;
 
-import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
 import com.Project.DataAcquisition.Entity.Reports.Automated.AutomatedReport;
 import com.Project.DataAcquisition.Entity.Reports.Automated.AutomatedReportWidget;
 import com.Project.DataAcquisition.Entity.Reports.Layout.Layout;
 import com.Project.DataAcquisition.Entity.Reports.Layout.Widget;
 import com.Project.DataAcquisition.Entity.Reports.Manual.Report;
-import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
-import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Model.AlarmTableWidget;
+import com.Project.DataAcquisition.Model.TimeSeriesTableWidget;
+import com.Project.DataAcquisition.Model.WidgetConfig;
+import com.Project.DataAcquisition.Model.WidgetSensor;
 import com.Project.DataAcquisition.Repository.Reports.Automated.AutomatedReportRepository;
 import com.Project.DataAcquisition.Repository.Reports.Automated.AutomatedReportWidgetRepository;
 import com.Project.DataAcquisition.Repository.Reports.Manual.ReportRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
-import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
+
+import com.Project.DataAcquisition.Service.Reports.Manual.WidgetConfigCache;
+import com.Project.DataAcquisition.Service.Reports.Render.RenderContext;
+import com.Project.DataAcquisition.Service.Reports.Render.WidgetRenderers;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
+import com.Project.DataAcquisition.Utils.SingleFlight;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -47,10 +53,21 @@ public class AutomatedReportService {
     private ReportRepository reportRepository;
 
     @Autowired
-    private SensorRepository sensorRepository;
+    private WidgetConfigCache widgetConfigCache;
+
+    @Autowired
+    private WidgetRenderers widgetRenderers;
 
     @Autowired
-    private AlarmRepository alarmRepository;
+    private ChangeWatermarks changeWatermarks;
+
+    // Stored widgets are fixed at generation; alarm tables still read alarms
+    public static final String[] RENDER_INPUTS = {ChangeWatermarks.REPORTS, ChangeWatermarks.ALARMS};
+
+    @Value("${reports.single-flight.ttl-ms:0}")
+    private long singleFlightTtlMs;
+
+    private final SingleFlight<String, Map<String, Object>> reportRenders = new SingleFlight<>();
 
     private final ObjectMapper objectMapper;
 
@@ -177,7 +194,29 @@ public class AutomatedReportService {
         }
     }
 
+    // Sensors of a config with their stored readings as SensorSeries, so columnar responses apply to automated reports too
+    private List<Map<String, Object>> withSensorSeries(WidgetConfig config) {
+        if (config.getSensors().isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> sensors = new ArrayList<>(config.getSensors().size());
+        for (WidgetSensor sensor : config.getSensors()) {
+            Map<String, Object> sensorMap = sensor.toMap();
+            if (sensor.getSensorValues() != null) {
+                sensorMap.put("sensorValues", sensor.getSensorValues());
+            }
+            sensors.add(sensorMap);
+        }
+        return sensors;
+    }
+
+    // A generated report with its widgets; concurrent calls for the same report share one render (and its result)
     public Map<String, Object> getAutomatedReportById(Long automatedReportId) {
+        String key = changeWatermarks.tag(RENDER_INPUTS, "automated-report", automatedReportId);
+        return reportRenders.run(key, singleFlightTtlMs, () -> renderAutomatedReport(automatedReportId));
+    }
+
+    private Map<String, Object> renderAutomatedReport(Long automatedReportId) {
         AutomatedReport automatedReport = automatedReportRepository.findById(automatedReportId)
                 .orElseThrow(() -> new NoSuchElementException("Automated Report not found"));
 
@@ -201,353 +240,101 @@ public class AutomatedReportService {
 
         // Fetch widgets for this automated report
         List<AutomatedReportWidget> automatedReportWidgets = automatedReportWidgetRepository.findByAutomatedReport_Id(automatedReportId);
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        List<LinkedHashMap<String, Object>> widgetsList = automatedReportWidgets.stream()
-                .map(autoWidget -> {
-                    Widget widget = autoWidget.getWidget();
-                    LinkedHashMap<String, Object> widgetDetails = new LinkedHashMap<>();
-                    widgetDetails.put("widgetType", widget.getWidgetType());
-                    widgetDetails.put("widgetName", widget.getWidgetName());
-
-                    // Extract and parse widget data
-                    LinkedHashMap<String, Object> widgetData = new LinkedHashMap<>();
-                    String rawJsonData = autoWidget.getData();
-
-                    if (rawJsonData != null && !rawJsonData.isEmpty()) {
-                        try {
-                            widgetData = objectMapper.readValue(rawJsonData, new TypeReference<>() {});
-                        } catch (Exception e) {
-                            System.err.println("Error parsing automated widget data: " + e.getMessage());
-                        }
-                    }
-
-                    if (widgetData.isEmpty()) {
-                        widgetDetails.put("data", null);
-                    } else {
-                        LinkedHashMap<String, Object> orderedData = new LinkedHashMap<>();
-                        orderedData.put("title", getIgnoreCase(widgetData, "title", widget.getWidgetName()));
-                        orderedData.put("rtus", widgetData.getOrDefault("rtus", null));
-                        // Only include sensors in orderedData if it's not Alarm Table
-                        if (!("Table".equalsIgnoreCase(widget.getWidgetType()) &&
-                                "Alarms Table".equalsIgnoreCase(widget.getWidgetName()))) {
-                            orderedData.put("sensors", widgetData.getOrDefault("sensors", null));
-                        }
-
-
-                        // Set date range based on frequency
-                        LinkedHashMap<String, Object> adjustedDate = getDateRangeBasedOnGeneratedTime(frequency, generatedTime);
-                        orderedData.put("date", adjustedDate);
-
-                        // Include `showValues` if present
-                        if (widgetData.containsKey("showValues")) {
-                            orderedData.put("showValues", widgetData.get("showValues"));
-                        }
-
-                        // Include aggregations
-                        if (widgetData.containsKey("aggregations")) {
-                            orderedData.put("aggregations", widgetData.get("aggregations"));
-                            orderedData.put("aggregationValues", getAggregationValues(widgetData, frequency, generatedTime));
-                        }
-
-                        // ✅ Sensor Data Table logic
-                        if ("Table".equalsIgnoreCase(widget.getWidgetType()) && "Sensor Data Table".equalsIgnoreCase(widget.getWidgetName())) {
-                            orderedData.put("sensorTableData", getSensorTableData(widgetData, frequency, generatedTime));
-
-                            if (widgetData.containsKey("sensors")) {
-                                List<Map<String, Object>> sensors = (List<Map<String, Object>>) widgetData.get("sensors");
-                                sensors.forEach(sensor -> sensor.remove("sensorValues"));
-                            }
-
-                            widgetDetails.put("data", orderedData);
-                        }
-
-                        // ✅ Alarm Table logic
-                        if ("Table".equalsIgnoreCase(widget.getWidgetType()) &&
-                                "Alarms Table".equalsIgnoreCase(widget.getWidgetName())) {
-
-                            String title = (String) widgetData.getOrDefault("title", "");
-                            List<String> rtus = (List<String>) widgetData.getOrDefault("rtus", Collections.emptyList());
-                            List<String> status = (List<String>) widgetData.getOrDefault("status", Collections.emptyList());
-                            List<String> severity = (List<String>) widgetData.getOrDefault("severity", Collections.emptyList());
-
-                            List<Map<String, Object>> sensorList = (List<Map<String, Object>>) widgetData.getOrDefault("sensors", Collections.emptyList());
-
-                            List<String> sensorIds = new ArrayList<>();
-                            List<String> sensorTypes = new ArrayList<>();
-
-                            for (Map<String, Object> sensorMap : sensorList) {
-                                // 👇 Properly fetch already parsed sensorId list
-                                Object rawIds = sensorMap.get("sensorId");
-                                if (rawIds instanceof List<?>) {
-                                    for (Object id : (List<?>) rawIds) {
-                                        if (id != null) {
-                                            sensorIds.add(String.valueOf(id));
-                                        }
-                                    }
-                                } else if (rawIds instanceof String) {
-                                    sensorIds.add((String) rawIds);
-                                }
-
-                                // 👇 Handle "Type"
-                                Object rawTypes = sensorMap.get("Type");
-                                if (rawTypes instanceof List<?>) {
-                                    for (Object type : (List<?>) rawTypes) {
-                                        if (type != null) {
-                                            sensorTypes.add(String.valueOf(type));
-                                        }
-                                    }
-                                } else if (rawTypes instanceof String) {
-                                    sensorTypes.add((String) rawTypes);
-                                }
-                            }
-
-
-                            System.out.println("Sensor List: " + sensorList);
-                            System.out.println("Sensor IDs: " + sensorIds);
-                            System.out.println("Sensor Types: " + sensorTypes);
-
-
-                            LocalDateTime startTime = switch (frequency.toUpperCase()) {
-                                case "HOURLY" -> generatedTime.minusHours(1);
-                                case "DAILY" -> generatedTime.minusDays(1);
-                                case "WEEKLY" -> generatedTime.minusDays(7);
-                                case "MONTHLY" -> generatedTime.minusDays(30);
-                                default -> generatedTime.minusHours(1);
-                            };
-
-                            List<Map<String, Object>> alarmData = fetchAlarms(sensorIds, status, severity, startTime, generatedTime);
-
-                            System.out.println("Alarm Data: " + alarmData);
-
-
-                            Map<String, Object> sensors = new LinkedHashMap<>();
-                            sensors.put("Type", sensorTypes);
-                            sensors.put("sensorId", sensorIds);
-
-                            Map<String, Object> alarmWidgetData = new LinkedHashMap<>();
-                            alarmWidgetData.put("rtus", rtus);
-                            alarmWidgetData.put("title", title);
-                            alarmWidgetData.put("status", status);
-                            alarmWidgetData.put("sensors", List.of(sensors));
-                            alarmWidgetData.put("severity", severity);
-                            alarmWidgetData.put("alarmTableData", alarmData);
-                            alarmWidgetData.put("date",adjustedDate);
-
-
-                            widgetDetails.put("data", alarmWidgetData);
-                            System.out.println("Alarm Widget Data: " + alarmWidgetData);
-
-                        }
-
-
-                        // ✅ For all other widget types (if not already handled)
-                        if (!widgetDetails.containsKey("data")) {
-                            widgetDetails.put("data", orderedData);
-                        }
-                    }
-
-                    return widgetDetails;
-                })
-                .collect(Collectors.toList());
-
-        layoutDetails.put("widgets", widgetsList);
-        reportDetails.put("layout", layoutDetails);
+        LocalDateTime windowStart = windowStart(frequency, generatedTime);
+        List<LinkedHashMap<String, Object>> widgetsList = new ArrayList<>(automatedReportWidgets.size());
+        List<WidgetRenderers.Target> targets = new ArrayList<>(automatedReportWidgets.size());
+        for (AutomatedReportWidget autoWidget : automatedReportWidgets) {
+            Widget widget = autoWidget.getWidget();
+            LinkedHashMap<String, Object> widgetDetails = new LinkedHashMap<>();
+            widgetDetails.put("widgetType", widget.getWidgetType());
+            widgetDetails.put("widgetName", widget.getWidgetName());
+            widgetsList.add(widgetDetails);
+
+            // Stored configuration, bound once per automated widget together with its readings
+            WidgetConfig config = null;
+            String rawJsonData = autoWidget.getData();
+            if (rawJsonData != null && !rawJsonData.isBlank()) {
+                try {
+                    config = widgetConfigCache.of(autoWidget);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Error parsing automated widget data: {}", e.getMessage());
+                }
+            }
+            if (config == null) {
+                widgetDetails.put("data", null);
+                continue;
+            }
 
-        return reportDetails;
-    }
+            Map<String, Object> widgetData = config.toData();
+            LinkedHashMap<String, Object> adjustedDate = getDateRangeBasedOnGeneratedTime(frequency, generatedTime);
+
+            // ✅ Alarm Table: one sensor entry listing all ids and types
+            if (config instanceof AlarmTableWidget alarmTable) {
+                Map<String, Object> sensors = new LinkedHashMap<>();
+                sensors.put("Type", alarmTable.sensorTypes());
+                sensors.put("sensorId", alarmTable.sensorIds());
+
+                Map<String, Object> alarmWidgetData = new LinkedHashMap<>();
+                alarmWidgetData.put("rtus", alarmTable.getRtus() != null ? alarmTable.getRtus() : Collections.emptyList());
+                alarmWidgetData.put("title", alarmTable.getTitle() != null ? alarmTable.getTitle() : "");
+                alarmWidgetData.put("status", alarmTable.getStatus() != null ? alarmTable.getStatus() : Collections.emptyList());
+                alarmWidgetData.put("sensors", List.of(sensors));
+                alarmWidgetData.put("severity", alarmTable.getSeverity() != null ? alarmTable.getSeverity() : Collections.emptyList());
+                alarmWidgetData.put("date", adjustedDate);
+
+                widgetDetails.put("data", alarmWidgetData);
+                targets.add(new WidgetRenderers.Target(config, alarmWidgetData));
+                continue;
+            }
 
+            LinkedHashMap<String, Object> orderedData = new LinkedHashMap<>();
+            orderedData.put("title", config.getTitle() != null ? config.getTitle() : widget.getWidgetName());
+            orderedData.put("rtus", widgetData.get("rtus"));
+            // Tables list their sensors without readings
+            orderedData.put("sensors", config instanceof TimeSeriesTableWidget ? widgetData.get("sensors") : withSensorSeries(config));
 
+            // Set date range based on frequency
+            orderedData.put("date", adjustedDate);
 
-    private Map<String, Double> getAggregationValues(Map<String, Object> widgetData, String frequency, LocalDateTime generatedTime) {
-        List<Double> values = fetchSensorValues(widgetData, frequency, generatedTime);
+            // Include `showValues` if present
+            if (widgetData.containsKey("showValues")) {
+                orderedData.put("showValues", widgetData.get("showValues"));
+            }
 
-        Map<String, Double> aggregationMap = new HashMap<>();
+            // Include aggregations
+            if (config.getAggregations() != null) {
+                orderedData.put("aggregations", widgetData.get("aggregations"));
+            }
 
-        if (values.isEmpty()) {
-            aggregationMap.put("max", null);
-            aggregationMap.put("min", null);
-            aggregationMap.put("average", null);
-        } else {
-            double max = values.stream().max(Double::compareTo).orElse(null);
-            double min = values.stream().min(Double::compareTo).orElse(null);
-            double average = values.stream().mapToDouble(Double::doubleValue).average().orElse(Double.NaN);
-            aggregationMap.put("max", max);
-            aggregationMap.put("min", min);
-            aggregationMap.put("average", Double.isNaN(average) ? null : average);
+            widgetDetails.put("data", orderedData);
+            targets.add(new WidgetRenderers.Target(config, orderedData));
         }
 
-        return aggregationMap;
-    }
-
-    private List<Double> fetchSensorValues(Map<String, Object> widgetData, String frequency, LocalDateTime generatedTime) {
-        List<Double> sensorValues = new ArrayList<>();
+        // ✅ Aggregations, table rows and alarms of all widgets read together over the generated window
+        widgetRenderers.render(targets, RenderContext.generated(windowStart, generatedTime));
 
-        List<Map<String, Object>> sensors = (List<Map<String, Object>>) widgetData.get("sensors");
-        if (sensors == null || sensors.isEmpty()) {
-            return sensorValues;
-        }
-
-        for (Map<String, Object> sensor : sensors) {
-            String sensorId = (String) sensor.get("sensorId");
-            if (sensorId != null) {
-                sensorValues.addAll(getSensorReadings(sensorId, frequency, generatedTime));
-            }
-        }
+        layoutDetails.put("widgets", widgetsList);
+        reportDetails.put("layout", layoutDetails);
 
-        return sensorValues;
+        return reportDetails;
     }
 
-    private List<Double> getSensorReadings(String sensorId, String frequency, LocalDateTime generatedTime) {
-        LocalDateTime startTime = switch (frequency.toUpperCase()) {
-            case "HOURLY" -> generatedTime.minusHours(1);
-            case "DAILY" -> generatedTime.minusDays(1);
-            case "WEEKLY" -> generatedTime.minusDays(7);
-            case "MONTHLY" -> generatedTime.minusDays(30);
-            default -> generatedTime;
-        };
 
-        return sensorRepository.findSensorValuesBetween(sensorId, startTime, generatedTime);
-    }
 
-    private List<Map<String, Object>> getSensorTableData(Map<String, Object> widgetData, String frequency, LocalDateTime generatedTime) {
-        LocalDateTime startTime = switch (frequency.toUpperCase()) {
+    // Start of the window a report of this frequency covers, ending at its generated time
+    private LocalDateTime windowStart(String frequency, LocalDateTime generatedTime) {
+        return switch (frequency.toUpperCase()) {
             case "HOURLY" -> generatedTime.minusHours(1);
             case "DAILY" -> generatedTime.minusDays(1);
             case "WEEKLY" -> generatedTime.minusDays(7);
             case "MONTHLY" -> generatedTime.minusDays(30);
-            default -> generatedTime;
+            default -> generatedTime; // fallback
         };
-
-        LocalDateTime endTime = generatedTime;
-
-        return fetchSensorTableValues(widgetData, startTime, endTime);
-    }
-
-
-    private List<Map<String, Object>> fetchSensorTableValues(Map<String, Object> dataMap, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Map<String, Object>> sensorsList = (List<Map<String, Object>>) dataMap.get("sensors");
-
-        if (sensorsList == null || sensorsList.isEmpty()) {
-            log.warn("No sensors provided for fetching values in Sensor Data Table");
-            return Collections.emptyList();
-        }
-
-        Set<String> addedEntries = new HashSet<>();
-        List<Map<String, Object>> tableData = new ArrayList<>();
-
-        for (Map<String, Object> sensorData : sensorsList) {
-            Object rawSensorIds = sensorData.get("sensorId");
-            Object rawSensorTypes = sensorData.get("sensorType");
-
-            List<String> sensorIds = rawSensorIds instanceof List
-                    ? (List<String>) rawSensorIds
-                    : List.of(String.valueOf(rawSensorIds));
-
-            List<String> sensorTypes = rawSensorTypes instanceof List
-                    ? (List<String>) rawSensorTypes
-                    : List.of(String.valueOf(rawSensorTypes));
-
-            if (sensorIds.isEmpty() || sensorTypes.isEmpty()) {
-                log.warn("Skipping sensor due to missing sensorId or sensorType");
-                continue;
-            }
-
-            List<Sensor> validSensors = sensorRepository.findBySensorIdInAndSensorTypeIn(sensorIds, sensorTypes);
-
-            for (Sensor sensor : validSensors) {
-                String sensorId = sensor.getSensorId();
-                List<Sensor> sensorValues = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, startTime, endTime);
-
-                for (Sensor sv : sensorValues) {
-                    String valueStr = String.valueOf(sv.getValue());
-                    String timestampStr = sv.getTimestamp().withNano(0).toString(); // remove nanoseconds
-
-                    // Composite key to detect duplicates
-                    String key = sensorId + "|" + valueStr + "|" + timestampStr;
-
-                    if (addedEntries.contains(key)) {
-                        continue; // skip duplicate
-                    }
-
-                    addedEntries.add(key);
-
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    row.put("sensorId", sensorId);
-                    row.put("value", sv.getValue());
-                    row.put("timestamp", timestampStr);
-                    tableData.add(row);
-                }
-            }
-        }
-
-        return tableData;
-    }
-
-
-    public List<Map<String, Object>> fetchAlarms(List<String> sensorIdList,
-                                                 List<String> statusList,
-                                                 List<String> severityList,
-                                                 LocalDateTime startTime,
-                                                 LocalDateTime endTime) {
-
-        List<Map<String, Object>> allAlarms = new ArrayList<>();
-        Set<String> seenAlarms = new HashSet<>();
-
-        for (String sensorId : sensorIdList) {
-            List<AlarmEntity> alarms = alarmRepository.findAlarmsBySensorId(
-                    sensorId, statusList, severityList, startTime, endTime
-            );
-
-            for (AlarmEntity alarm : alarms) {
-                // Get and sort the sensorIds for uniqueness check
-                List<String> sensorIds = alarm.getSensorId(); // assuming it's List<String>
-                List<String> sortedSensorIds = new ArrayList<>(sensorIds);
-                Collections.sort(sortedSensorIds);
-
-                // Unique key to avoid duplicates
-                String uniqueKey = alarm.getAlarmId() + "|" +
-                        String.join(",", sortedSensorIds) + "|" +
-                        alarm.getStatus() + "|" +
-                        alarm.getAlarmName();
-
-                if (seenAlarms.add(uniqueKey)) {
-                    Map<String, Object> alarmData = new LinkedHashMap<>();
-                    alarmData.put("alarmId", alarm.getAlarmId());
-                    alarmData.put("sensorId", sortedSensorIds);
-                    alarmData.put("status", alarm.getStatus());
-                    alarmData.put("alarmName", alarm.getAlarmName());
-                    allAlarms.add(alarmData);
-                }
-            }
-        }
-
-        return allAlarms;
-    }
-
-
-
-
-    private String getIgnoreCase(Map<String, Object> map, String key, String defaultValue) {
-        return map.entrySet().stream()
-                .filter(entry -> entry.getKey().equalsIgnoreCase(key))
-                .map(entry -> (String) entry.getValue())
-                .findFirst()
-                .orElse(defaultValue);
     }
 
     private LinkedHashMap<String, Object> getDateRangeBasedOnGeneratedTime(String frequency, LocalDateTime generatedTime) {
-        LocalDateTime startDate;
-        switch (frequency.toUpperCase()) {
-            case "HOURLY" -> startDate = generatedTime.minusHours(1);
-            case "DAILY" -> startDate = generatedTime.minusDays(1);
-            case "WEEKLY" -> startDate = generatedTime.minusDays(7);
-            case "MONTHLY" -> startDate = generatedTime.minusDays(30);
-            default -> startDate = generatedTime; // fallback
-        }
-
         LinkedHashMap<String, Object> dateRange = new LinkedHashMap<>();
-        dateRange.put("startDate", startDate.format(DATE_TIME_FORMATTER));
+        dateRange.put("startDate", windowStart(frequency, generatedTime).format(DATE_TIME_FORMATTER));
         dateRange.put("endDate", generatedTime.format(DATE_TIME_FORMATTER));
         return dateRange;
     }
@@ -8,6 +8,7 @@ import com.Project.DataAcquisition.Entity.Reports.Layout.Widget;
 import com.Project.DataAcquisition.Repository.Reports.Widget.LayoutRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.LayoutWidgetRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.WidgetRepository;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +40,9 @@ public class LayoutService {
     @Autowired
     private LayoutWidgetRepository layoutWidgetRepository;
 
+    @Autowired
+    private ChangeWatermarks changeWatermarks;
+
     public static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
 
@@ -87,6 +91,8 @@ public class LayoutService {
         layoutResponse.setCreatedAt(layout.getCreatedAt());
         layoutResponse.setWidgets(widgetResponses);
 
+        changeWatermarks.touch(ChangeWatermarks.LAYOUTS);
+        changeWatermarks.touch(ChangeWatermarks.WIDGETS);
         return layoutResponse;
     }
 
@@ -291,6 +297,9 @@ public class LayoutService {
             layoutWidgetRepository.save(layoutWidget);
         }
 
+        changeWatermarks.touch(ChangeWatermarks.LAYOUTS);
+        changeWatermarks.touch(ChangeWatermarks.WIDGETS);
+
         // ✅ Refresh layout & return updated response
         entityManager.flush();
         entityManager.clear();
@@ -327,6 +336,7 @@ public class LayoutService {
         Optional<Layout> layoutOptional = layoutRepository.findById(id);
         if (layoutOptional.isPresent()) {
             layoutRepository.deleteById(id);
+            changeWatermarks.touch(ChangeWatermarks.LAYOUTS);
             return ResponseEntity.ok("Layout deleted successfully.");
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Layout not found with id: " + id);
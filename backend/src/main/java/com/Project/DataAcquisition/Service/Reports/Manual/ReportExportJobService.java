@@ -0,0 +1,341 @@
+package com.Project.DataAcquisition.Service.Reports.Manual;
+
+import com.Project.DataAcquisition.DTO.Reports.Manual.ExportJobRequest;
+import com.Project.DataAcquisition.Entity.Reports.Layout.ReportWidget;
+import com.Project.DataAcquisition.Repository.Reports.Manual.ReportRepository;
+import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Background CSV and PDF exports, so a month-long report does not hold an HTTP thread.
+ * <ol>
+ *     <li>A job is validated, keyed and queued on a bounded pool ({@code reports.export.pool-size} workers,
+ *     {@code reports.export.queue-capacity} waiting); a full queue rejects the request.</li>
+ *     <li>The worker writes the artifact to {@code reports.export.dir}, reporting progress as it goes.</li>
+ *     <li>Finished artifacts are served from disk without copying through the heap and deleted after
+ *     {@code reports.export.ttl-minutes}.</li>
+ * </ol>
+ * A request with the same key (format, report and hash of its widget configs or sensor set, dates, gzip) reuses
+ * the queued, running or finished job instead of exporting again. Widgets without a saved range export the last
+ * 24 hours as of the first request, so reuse can lag behind by up to the TTL.
+ */
+@Service
+public class ReportExportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportExportJobService.class);
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private static final Pattern ARTIFACT_NAME = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}(\\.part|-.+)");
+
+    private final ReportExportService reportExportService;
+    private final ReportPdfService reportPdfService;
+    private final ReportRepository reportRepository;
+    private final ReportWidgetRepository reportWidgetRepository;
+
+    @Value("${reports.export.pool-size:2}")
+    private int poolSize;
+
+    @Value("${reports.export.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${reports.export.dir:${java.io.tmpdir}/report-exports}")
+    private String exportDir;
+
+    @Value("${reports.export.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private Path directory;
+    private ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ReportExportJobService(ReportExportService reportExportService,
+                                  ReportPdfService reportPdfService,
+                                  ReportRepository reportRepository,
+                                  ReportWidgetRepository reportWidgetRepository) {
+        this.reportExportService = reportExportService;
+        this.reportPdfService = reportPdfService;
+        this.reportRepository = reportRepository;
+        this.reportWidgetRepository = reportWidgetRepository;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        directory = Path.of(exportDir);
+        Files.createDirectories(directory);
+        // Jobs do not survive a restart, so neither do their files (only ours: "<job id>-name" or "<job id>.part")
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> ARTIFACT_NAME.matcher(file.getFileName().toString()).matches()).forEach(this::deleteQuietly);
+        }
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-export-" + threads.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts an export, or returns the existing job for an identical request.
+     *
+     * @throws IllegalArgumentException                         for an invalid format, sensor set or dates
+     * @throws NoSuchElementException                           if the report does not exist
+     * @throws java.util.concurrent.RejectedExecutionException  if the export queue is full
+     */
+    public Map<String, Object> submit(ExportJobRequest request) {
+        String format = request.getFormat() != null ? request.getFormat().toLowerCase() : "csv";
+        Runnable work;
+        ExportJob job;
+
+        if ("csv".equals(format)) {
+            ReportExportService.CsvExport export = request.getReportId() != null
+                    ? reportExportService.prepareReportExport(request.getReportId(), request.getStartDate(), request.getEndDate())
+                    : reportExportService.prepareSensorExport(request.getSensorIds(), request.getStartDate(), request.getEndDate());
+            job = new ExportJob(key(format, request), export.fileName() + (request.isGzip() ? ".csv.gz" : ".csv"),
+                    request.isGzip() ? "application/gzip" : "text/csv");
+            work = () -> writeArtifact(job, out -> reportExportService.writeCsv(export, out, request.isGzip(), job::progress));
+        } else if ("pdf".equals(format)) {
+            if (request.getReportId() == null) {
+                throw new IllegalArgumentException("reportId is required for PDF export.");
+            }
+            if (!reportRepository.existsById(request.getReportId())) {
+                throw new NoSuchElementException("Report not found");
+            }
+            job = new ExportJob(key(format, request), "report-" + request.getReportId() + ".pdf", "application/pdf");
+            work = () -> writeArtifact(job, out -> out.write(reportPdfService.renderReportForJob(request.getReportId())));
+        } else {
+            throw new IllegalArgumentException("Unsupported export format: " + request.getFormat());
+        }
+
+        synchronized (jobsByKey) {
+            ExportJob existing = jobsByKey.get(job.key);
+            if (existing != null && existing.status != Status.FAILED && !existing.isExpired()) {
+                return existing.describe();
+            }
+            executor.execute(() -> run(job, work)); // RejectedExecutionException when full; nothing registered yet
+            jobsById.put(job.id, job);
+            jobsByKey.put(job.key, job);
+        }
+        return job.describe();
+    }
+
+    public Optional<Map<String, Object>> describe(String jobId) {
+        return Optional.ofNullable(jobsById.get(jobId)).map(ExportJob::describe);
+    }
+
+    /**
+     * Sends a finished artifact. Tomcat's sendfile hands the file to the socket directly; other containers get
+     * a FileChannel.transferTo loop. Neither copies the file through the Java heap.
+     *
+     * @throws NoSuchElementException if the job is unknown or its artifact expired
+     * @throws IllegalStateException  if the job has not finished successfully
+     */
+    public void download(String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportJob job = jobsById.get(jobId);
+        if (job == null || job.isExpired()) {
+            throw new NoSuchElementException("Export job not found or expired");
+        }
+        if (job.status != Status.DONE) {
+            throw new IllegalStateException("Export job is " + job.status);
+        }
+
+        long size = Files.size(job.file);
+        response.setContentType(job.contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.fileName + "\"");
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", job.file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+            request.setAttribute("org.apache.tomcat.sendfile.end", size);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reports.export.cleanup-ms:300000}")
+    public void expireArtifacts() {
+        for (ExportJob job : jobsById.values()) {
+            if (job.isExpired()) {
+                jobsById.remove(job.id);
+                jobsByKey.remove(job.key, job);
+                if (job.file != null) {
+                    deleteQuietly(job.file);
+                }
+            }
+        }
+    }
+
+    private void run(ExportJob job, Runnable work) {
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            work.run();
+            job.progressPercent = 100;
+            job.status = Status.DONE;
+            log.info("Export job {} finished: {} ({} rows)", job.id, job.fileName, job.rowsWritten);
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.status = Status.FAILED;
+            log.error("Export job {} failed: {}", job.id, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ArtifactWriter {
+        void write(OutputStream out) throws Exception;
+    }
+
+    // Written to a temporary file and moved into place, so a download never sees a partial artifact
+    private void writeArtifact(ExportJob job, ArtifactWriter writer) {
+        Path partial = directory.resolve(job.id + ".part");
+        Path file = directory.resolve(job.id + "-" + job.fileName);
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                writer.write(out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = file;
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    // Same report and widget configs (or sensor set), same dates and compression
+    private String key(String format, ExportJobRequest request) {
+        StringBuilder source = new StringBuilder(format).append('|').append(request.isGzip())
+                .append('|').append(request.getStartDate()).append('|').append(request.getEndDate());
+        if (request.getReportId() != null) {
+            source.append("|report:").append(request.getReportId());
+            for (ReportWidget reportWidget : reportWidgetRepository.findByReport_Id(request.getReportId())) {
+                source.append('|').append(reportWidget.getWidget().getWidgetId()).append('=').append(reportWidget.getData());
+            }
+        } else if (request.getSensorIds() != null) {
+            source.append("|sensors:").append(new TreeSet<>(request.getSensorIds()));
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private final class ExportJob {
+        final String id = UUID.randomUUID().toString();
+        final String key;
+        final String fileName;
+        final String contentType;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile Status status = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile int progressPercent;
+        volatile long rowsWritten;
+        volatile String error;
+        volatile Path file;
+
+        ExportJob(String key, String fileName, String contentType) {
+            this.key = key;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+
+        void progress(int seriesDone, int seriesTotal, long rows) {
+            rowsWritten = rows;
+            if (seriesTotal > 0) {
+                progressPercent = Math.min(99, seriesDone * 100 / seriesTotal);
+            }
+        }
+
+        boolean isExpired() {
+            LocalDateTime finished = finishedAt;
+            return finished != null && finished.plusMinutes(ttlMinutes).isBefore(LocalDateTime.now());
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("jobId", id);
+            details.put("status", status.name());
+            details.put("progress", progressPercent);
+            details.put("rowsWritten", rowsWritten);
+            details.put("fileName", fileName);
+            details.put("createdAt", createdAt.format(ReportService.DATE_TIME_FORMATTER));
+            details.put("startedAt", startedAt != null ? startedAt.format(ReportService.DATE_TIME_FORMATTER) : null);
+            details.put("finishedAt", finishedAt != null ? finishedAt.format(ReportService.DATE_TIME_FORMATTER) : null);
+            details.put("expiresAt", finishedAt != null ? finishedAt.plusMinutes(ttlMinutes).format(ReportService.DATE_TIME_FORMATTER) : null);
+            details.put("error", error);
+            return details;
+        }
+    }
+}
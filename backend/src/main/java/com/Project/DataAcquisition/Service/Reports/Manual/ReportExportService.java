@@ -0,0 +1,214 @@
+package com.Project.DataAcquisition.Service.Reports.Manual;
+
+import com.Project.DataAcquisition.Entity.Reports.Layout.ReportWidget;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Model.DateRange;
+import com.Project.DataAcquisition.Model.WidgetConfig;
+import com.Project.DataAcquisition.Repository.Reports.Manual.ReportRepository;
+import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Alarm.SensorChunkStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV export of sensor readings, either behind a report's widgets or for any set of sensors and range.
+ * Readings are read through a database cursor (SensorChunkStore.streamReadings) and written straight to the
+ * response, so the heap stays flat however many rows are exported.
+ */
+@Service
+public class ReportExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    // Whole seconds print without a fraction, otherwise up to microseconds
+    private static final DateTimeFormatter CSV_TIMESTAMP = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .appendFraction(ChronoField.MICRO_OF_SECOND, 0, 6, true)
+            .toFormatter();
+
+    private final ReportRepository reportRepository;
+    private final ReportWidgetRepository reportWidgetRepository;
+    private final SensorCatalogService sensorCatalogService;
+    private final SensorChunkStore sensorChunkStore;
+    private final WidgetConfigCache widgetConfigCache;
+
+    public ReportExportService(ReportRepository reportRepository,
+                               ReportWidgetRepository reportWidgetRepository,
+                               SensorCatalogService sensorCatalogService,
+                               SensorChunkStore sensorChunkStore,
+                               WidgetConfigCache widgetConfigCache) {
+        this.reportRepository = reportRepository;
+        this.reportWidgetRepository = reportWidgetRepository;
+        this.sensorCatalogService = sensorCatalogService;
+        this.sensorChunkStore = sensorChunkStore;
+        this.widgetConfigCache = widgetConfigCache;
+    }
+
+    // What to write, resolved and validated before the response is committed
+    public record CsvExport(String fileName, boolean withWidget, List<ExportSeries> series) {}
+
+    public record ExportSeries(String widgetName, SensorCatalog sensor, LocalDateTime startTime, LocalDateTime endTime) {}
+
+    /**
+     * Readings behind every sensor widget of a report, each over the widget's own range unless dates are given.
+     * Charts without a saved range use the last 24 hours, as in the report view; Alarms Tables have no readings.
+     */
+    public CsvExport prepareReportExport(Long reportId, String startDate, String endDate) {
+        if (!reportRepository.existsById(reportId)) {
+            throw new NoSuchElementException("Report not found");
+        }
+
+        List<ExportSeries> series = new ArrayList<>();
+        for (ReportWidget reportWidget : reportWidgetRepository.findByReport_Id(reportId)) {
+            String widgetName = reportWidget.getWidget().getWidgetName();
+            if ("Alarms Table".equalsIgnoreCase(widgetName)) {
+                continue;
+            }
+            WidgetConfig config = widgetConfigCache.of(reportWidget);
+            LocalDateTime[] range = widgetRange(config.getDate(), startDate, endDate);
+            for (SensorCatalog sensor : widgetSensors(config)) {
+                series.add(new ExportSeries(widgetName, sensor, range[0], range[1]));
+            }
+        }
+        return new CsvExport("report-" + reportId, true, series);
+    }
+
+    // Readings of the given sensors over one range; unknown sensor ids are rejected
+    public CsvExport prepareSensorExport(Collection<String> sensorIds, String startDate, String endDate) {
+        if (sensorIds == null || sensorIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one sensorId is required.");
+        }
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("startDate and endDate are required.");
+        }
+        LocalDateTime startTime = parseDateOrDateTime(startDate, false);
+        LocalDateTime endTime = parseDateOrDateTime(endDate, true);
+
+        Map<String, ExportSeries> series = new LinkedHashMap<>();
+        for (String sensorId : sensorIds) {
+            SensorCatalog sensor = sensorCatalogService.find(sensorId);
+            if (sensor == null) {
+                throw new IllegalArgumentException("Unknown sensor: " + sensorId);
+            }
+            series.putIfAbsent(sensorId, new ExportSeries(null, sensor, startTime, endTime));
+        }
+        return new CsvExport("sensors-" + startTime.toLocalDate() + "-" + endTime.toLocalDate(), false, new ArrayList<>(series.values()));
+    }
+
+    /**
+     * Writes the export as CSV, one sensor after the other in time order, optionally gzip-compressed.
+     * Only one row is formatted at a time; the buffered writer hands full blocks to the response.
+     */
+    public void writeCsv(CsvExport export, OutputStream out, boolean gzip) throws IOException {
+        writeCsv(export, out, gzip, null);
+    }
+
+    // Reports series and rows done every PROGRESS_INTERVAL rows and after each series
+    @FunctionalInterface
+    public interface ExportProgress {
+        void update(int seriesDone, int seriesTotal, long rowsWritten);
+    }
+
+    public void writeCsv(CsvExport export, OutputStream out, boolean gzip, ExportProgress progress) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        long[] written = {0};
+        int[] seriesDone = {0};
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(export.withWidget() ? "widget,sensorId,sensorType,timestamp,value\n" : "sensorId,sensorType,timestamp,value\n");
+            for (ExportSeries series : export.series()) {
+                String prefix = (export.withWidget() ? csv(series.widgetName()) + "," : "")
+                        + csv(series.sensor().getSensorId()) + "," + csv(series.sensor().getSensorType()) + ",";
+                try {
+                    sensorChunkStore.streamReadings(series.sensor().getSensorKey(), series.startTime(), series.endTime(), (time, value) -> {
+                        try {
+                            writer.write(prefix);
+                            writer.write(CSV_TIMESTAMP.format(SensorChunkStore.fromMicros(time)));
+                            writer.write(',');
+                            writer.write(Double.toString(value));
+                            writer.write('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (++written[0] % PROGRESS_INTERVAL == 0 && progress != null) {
+                            progress.update(seriesDone[0], export.series().size(), written[0]);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                seriesDone[0]++;
+                if (progress != null) {
+                    progress.update(seriesDone[0], export.series().size(), written[0]);
+                }
+            }
+        }
+        log.info("Exported {} readings of {} series as {}", written[0], export.series().size(), export.fileName());
+    }
+
+    // Catalog entries of every sensor id in the widget's sensors, each once
+    private List<SensorCatalog> widgetSensors(WidgetConfig config) {
+        Map<String, SensorCatalog> sensors = new LinkedHashMap<>();
+        for (String id : config.sensorIds()) {
+            SensorCatalog sensor = sensorCatalogService.find(id);
+            if (sensor != null) {
+                sensors.putIfAbsent(sensor.getSensorId(), sensor);
+            }
+        }
+        return new ArrayList<>(sensors.values());
+    }
+
+    // [start, end] from explicit dates, else the widget's "date" (range or single day), else the last 24 hours
+    private LocalDateTime[] widgetRange(DateRange date, String startDate, String endDate) {
+        String start = startDate != null ? startDate : date != null ? date.getStartDate() : null;
+        String end = endDate != null ? endDate : date == null ? null : date.isSingle() ? date.getStartDate() : date.getEndDate();
+        LocalDateTime endTime = end != null ? parseDateOrDateTime(end, true) : LocalDateTime.now();
+        LocalDateTime startTime = start != null ? parseDateOrDateTime(start, false) : endTime.minusHours(24);
+        return new LocalDateTime[]{startTime, endTime};
+    }
+
+    private LocalDateTime parseDateOrDateTime(String input, boolean isEndDate) {
+        try {
+            return LocalDateTime.parse(input, ReportService.DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            LocalDate date = LocalDate.parse(input);
+            return isEndDate ? date.atTime(23, 59, 59) : date.atStartOfDay();
+        }
+    }
+
+    private static String csv(String field) {
+        if (field == null) {
+            return "";
+        }
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
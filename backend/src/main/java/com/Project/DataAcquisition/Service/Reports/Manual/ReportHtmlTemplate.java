@@ -0,0 +1,193 @@
+package com.Project.DataAcquisition.Service.Reports.Manual;
+
+import com.Project.DataAcquisition.Model.SensorSeries;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Server-side HTML of a report view (the map returned by ReportService.getReportById), used for PDF export
+ * when no frontend URL is configured. Charts are drawn as inline SVG so the page needs no scripts or network.
+ */
+@Component
+public class ReportHtmlTemplate {
+
+    private static final String[] COLORS = {"#1f77b4", "#ff7f0e", "#2ca02c", "#d62728", "#9467bd", "#8c564b", "#e377c2", "#17becf"};
+    private static final int CHART_WIDTH = 760;
+    private static final int CHART_HEIGHT = 220;
+    private static final int MAX_CHART_POINTS = 800; // per sensor; more cannot be told apart at this width
+
+    private final String template;
+
+    public ReportHtmlTemplate() {
+        try (InputStream in = new ClassPathResource("templates/report-pdf.html").getInputStream()) {
+            template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Report PDF template is missing", e);
+        }
+    }
+
+    public String render(Map<String, Object> report) {
+        Map<?, ?> layout = report.get("layout") instanceof Map<?, ?> map ? map : Map.of();
+        String title = String.valueOf(report.getOrDefault("reportType", "Report")) + " #" + report.get("reportId");
+        String meta = "Created " + report.get("createdAt")
+                + (layout.get("layoutName") != null ? " &middot; Layout " + escape(layout.get("layoutName")) : "")
+                + (report.get("description") != null ? " &middot; " + escape(report.get("description")) : "");
+
+        StringBuilder widgets = new StringBuilder();
+        if (layout.get("widgets") instanceof List<?> list) {
+            for (Object widget : list) {
+                if (widget instanceof Map<?, ?> widgetMap) {
+                    appendWidget(widgets, widgetMap);
+                }
+            }
+        }
+        return template.replace("${title}", escape(title))
+                .replace("${meta}", meta)
+                .replace("${widgets}", widgets.toString());
+    }
+
+    private void appendWidget(StringBuilder html, Map<?, ?> widget) {
+        Map<?, ?> data = widget.get("data") instanceof Map<?, ?> map ? map : Map.of();
+        html.append("<section><h2>").append(escape(widget.get("widgetName"))).append("</h2>\n");
+
+        boolean rendered = false;
+        if (data.get("aggregationValues") instanceof Map<?, ?> aggregations && !aggregations.isEmpty()) {
+            html.append("<table><tr>");
+            aggregations.keySet().forEach(key -> html.append("<th>").append(escape(key)).append("</th>"));
+            html.append("</tr><tr>");
+            aggregations.values().forEach(value -> html.append("<td>").append(escape(value)).append("</td>"));
+            html.append("</tr></table>\n");
+            rendered = true;
+        }
+        if (data.get("sensors") instanceof List<?> sensors && sensors.stream().anyMatch(s -> s instanceof Map<?, ?> m && m.get("sensorValues") != null)) {
+            appendChart(html, sensors);
+            rendered = true;
+        }
+        if (data.get("sensorTableData") instanceof List<?> rows) {
+            appendTable(html, rows, List.of("sensorId", "value", "timestamp"));
+            if (data.get("nextCursor") != null) {
+                html.append("<p class=\"empty\">First ").append(rows.size()).append(" rows of the table</p>\n");
+            }
+            rendered = true;
+        }
+        if (data.get("alarmTableData") instanceof List<?> rows) {
+            appendTable(html, rows, List.of("alarmId", "alarmName", "status", "severity", "sensorId", "createdAt"));
+            rendered = true;
+        }
+        if (!rendered) {
+            html.append("<p class=\"empty\">No data</p>\n");
+        }
+        html.append("</section>\n");
+    }
+
+    // One polyline per sensor on shared axes
+    private void appendChart(StringBuilder html, List<?> sensors) {
+        long minTime = Long.MAX_VALUE, maxTime = Long.MIN_VALUE;
+        double minValue = Double.POSITIVE_INFINITY, maxValue = Double.NEGATIVE_INFINITY;
+        for (Object sensor : sensors) {
+            SensorSeries series = series(sensor);
+            for (int i = 0; i < series.size(); i++) {
+                long time = series.timestampMillis(i) / 1000;
+                double value = series.value(i);
+                minTime = Math.min(minTime, time);
+                maxTime = Math.max(maxTime, time);
+                minValue = Math.min(minValue, value);
+                maxValue = Math.max(maxValue, value);
+            }
+        }
+        if (minTime == Long.MAX_VALUE) {
+            html.append("<p class=\"empty\">No readings in range</p>\n");
+            return;
+        }
+        double timeSpan = Math.max(1, maxTime - minTime);
+        double valueSpan = maxValue > minValue ? maxValue - minValue : 1;
+
+        html.append("<svg width=\"").append(CHART_WIDTH).append("\" height=\"").append(CHART_HEIGHT + 20)
+                .append("\" xmlns=\"http://www.w3.org/2000/svg\">")
+                .append("<rect x=\"0\" y=\"0\" width=\"").append(CHART_WIDTH).append("\" height=\"").append(CHART_HEIGHT)
+                .append("\" fill=\"none\" stroke=\"#ccc\"/>");
+        StringBuilder legend = new StringBuilder("<div class=\"legend\">");
+        for (int s = 0; s < sensors.size(); s++) {
+            SensorSeries series = series(sensors.get(s));
+            String color = COLORS[s % COLORS.length];
+            int stride = Math.max(1, (series.size() + MAX_CHART_POINTS - 1) / MAX_CHART_POINTS);
+            html.append("<polyline fill=\"none\" stroke-width=\"1.2\" stroke=\"").append(color).append("\" points=\"");
+            for (int i = 0; i < series.size(); i += stride) {
+                double x = (series.timestampMillis(i) / 1000 - minTime) / timeSpan * CHART_WIDTH;
+                double y = CHART_HEIGHT - (series.value(i) - minValue) / valueSpan * CHART_HEIGHT;
+                html.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, y));
+            }
+            html.append("\"/>");
+            Object sensorId = sensors.get(s) instanceof Map<?, ?> m ? m.get("sensorId") : null;
+            legend.append("<span><i class=\"swatch\" style=\"background:").append(color).append("\"></i>")
+                    .append(escape(sensorId)).append("</span>");
+        }
+        html.append(String.format(Locale.ROOT, "<text x=\"2\" y=\"%d\" font-size=\"9\">%s</text>", CHART_HEIGHT + 14, escape(formatSeconds(minTime))))
+                .append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" font-size=\"9\" text-anchor=\"end\">%s</text>", CHART_WIDTH - 2, CHART_HEIGHT + 14, escape(formatSeconds(maxTime))))
+                .append(String.format(Locale.ROOT, "<text x=\"4\" y=\"12\" font-size=\"9\">%s</text>", escape(maxValue)))
+                .append(String.format(Locale.ROOT, "<text x=\"4\" y=\"%d\" font-size=\"9\">%s</text>", CHART_HEIGHT - 4, escape(minValue)))
+                .append("</svg>\n")
+                .append(legend).append("</div>\n");
+    }
+
+    private void appendTable(StringBuilder html, List<?> rows, List<String> columns) {
+        if (rows.isEmpty()) {
+            html.append("<p class=\"empty\">No rows</p>\n");
+            return;
+        }
+        html.append("<table><tr>");
+        columns.forEach(column -> html.append("<th>").append(escape(column)).append("</th>"));
+        html.append("</tr>\n");
+        for (Object row : rows) {
+            Map<?, ?> cells = row instanceof Map<?, ?> map ? map : Map.of();
+            html.append("<tr>");
+            for (String column : columns) {
+                Object cell = cells.get(column);
+                html.append("<td>").append(escape(cell instanceof List<?> list ? String.join(", ", list.stream().map(String::valueOf).toList()) : cell))
+                        .append("</td>");
+            }
+            html.append("</tr>\n");
+        }
+        html.append("</table>\n");
+    }
+
+    private static SensorSeries series(Object sensor) {
+        Object values = sensor instanceof Map<?, ?> map ? map.get("sensorValues") : null;
+        if (values instanceof SensorSeries series) {
+            return series;
+        }
+        return SensorSeries.fromRows(values instanceof List<?> rows ? rows : List.of());
+    }
+
+    private static String formatSeconds(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, SensorSeries.EPOCH_ZONE).format(ReportService.DATE_TIME_FORMATTER);
+    }
+
+    private static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = String.valueOf(value);
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '&' -> escaped.append("&amp;");
+                case '"' -> escaped.append("&quot;");
+                default -> escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,352 @@
+package com.Project.DataAcquisition.Service.Reports.Manual;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.Margin;
+import com.microsoft.playwright.options.WaitUntilState;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PDF export of a report view through a pool of headless Chromium workers (Playwright).
+ * <p>
+ * Playwright objects are bound to the thread that created them, so each worker is a dedicated thread owning its
+ * own Playwright, browser and browser context. Workers start with the first export, so an instance that never
+ * prints launches no browsers (and Playwright downloads none). Each opens one page per render in a reused
+ * context, and replaces the context after {@code reports.pdf.max-renders-per-context} renders so
+ * renderer memory does not build up. Renders wait in a bounded queue; when it is full the export is rejected
+ * instead of piling up, and a render still queued or running past {@code reports.pdf.timeout-ms} fails. Export jobs
+ * wait for a slot instead and get {@code reports.pdf.job-timeout-ms}.
+ * <p>
+ * The page is the frontend's report view when {@code reports.pdf.frontend-url} is set, otherwise the server-side
+ * template of ReportHtmlTemplate. The report view holds only the first page of each Sensor Data Table, so the
+ * template gets the following pages too, up to {@code reports.pdf.max-table-rows} rows per table.
+ */
+@Service
+public class ReportPdfService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportPdfService.class);
+
+    private final ReportService reportService;
+    private final ReportHtmlTemplate reportHtmlTemplate;
+    private final ReportWidgetService reportWidgetService;
+
+    @Value("${reports.pdf.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reports.pdf.pool-size:2}")
+    private int poolSize;
+
+    @Value("${reports.pdf.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${reports.pdf.timeout-ms:60000}")
+    private long timeoutMs;
+
+    // Background export jobs: queue wait plus render, no HTTP client waiting on it
+    @Value("${reports.pdf.job-timeout-ms:600000}")
+    private long jobTimeoutMs;
+
+    @Value("${reports.pdf.max-renders-per-context:50}")
+    private int maxRendersPerContext;
+
+    // Beyond this the table is cut off and the PDF says how many rows it shows
+    @Value("${reports.pdf.max-table-rows:20000}")
+    private int maxTableRows;
+
+    // e.g. http://localhost:3000/reports/{reportId}/view; blank renders the server-side template
+    @Value("${reports.pdf.frontend-url:}")
+    private String frontendUrl;
+
+    // Optional element the frontend shows once every widget has its data
+    @Value("${reports.pdf.ready-selector:}")
+    private String readySelector;
+
+    private BlockingQueue<RenderJob> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private boolean stopped;
+
+    public ReportPdfService(ReportService reportService, ReportHtmlTemplate reportHtmlTemplate,
+                            ReportWidgetService reportWidgetService) {
+        this.reportService = reportService;
+        this.reportHtmlTemplate = reportHtmlTemplate;
+        this.reportWidgetService = reportWidgetService;
+    }
+
+    // Started by the first render rather than at startup
+    private synchronized void startWorkers() {
+        if (!enabled || running || stopped) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        running = true;
+        for (int i = 0; i < Math.max(1, poolSize); i++) {
+            Thread worker = new Thread(new Worker(), "report-pdf-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Started {} PDF render workers (queue capacity {})", workers.size(), queueCapacity);
+    }
+
+    /**
+     * Renders the report view as an A4 PDF for a waiting request.
+     *
+     * @throws java.util.NoSuchElementException if the report does not exist
+     * @throws RejectedExecutionException       if PDF export is disabled or the render queue is full
+     * @throws TimeoutException                 if the render did not finish within the timeout
+     */
+    public byte[] renderReport(Long reportId) throws TimeoutException {
+        return render(reportId, timeoutMs, false);
+    }
+
+    /**
+     * Same PDF for a background export job: waits for a free queue slot instead of being rejected, and the wait
+     * plus the render may take up to {@code reports.pdf.job-timeout-ms}.
+     *
+     * @throws java.util.NoSuchElementException if the report does not exist
+     * @throws RejectedExecutionException       if PDF export is disabled
+     * @throws TimeoutException                 if no slot freed up or the render did not finish within the timeout
+     */
+    public byte[] renderReportForJob(Long reportId) throws TimeoutException {
+        return render(reportId, jobTimeoutMs, true);
+    }
+
+    private byte[] render(Long reportId, long timeout, boolean waitForSlot) throws TimeoutException {
+        if (!running) {
+            startWorkers();
+        }
+        if (!running) {
+            throw new RejectedExecutionException("PDF export is not available.");
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        // Resolved on the calling thread so a missing report fails before taking a queue slot
+        RenderJob job = frontendUrl.isBlank()
+                ? new RenderJob(null, reportHtmlTemplate.render(withTableRows(reportId, reportService.getReportById(reportId))), deadline)
+                : new RenderJob(reportUrl(reportId), null, deadline);
+        try {
+            if (!waitForSlot && !queue.offer(job)) {
+                throw new RejectedExecutionException("PDF render queue is full, try again later.");
+            }
+            if (waitForSlot && !queue.offer(job, remaining(deadline), TimeUnit.MILLISECONDS)) {
+                throw new TimeoutException("No PDF render slot freed up within " + timeout + " ms for report " + reportId + ".");
+            }
+            return job.result.get(remaining(deadline), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.result.cancel(false);
+            throw new RejectedExecutionException("Interrupted while waiting for the PDF.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timedOut) {
+                throw timedOut;
+            }
+            throw new IllegalStateException("Rendering report " + reportId + " failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            job.result.cancel(false);
+            throw new TimeoutException("Rendering report " + reportId + " took longer than " + timeout + " ms.");
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stopWorkers() {
+        stopped = true;
+        running = false;
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+        if (queue != null) {
+            RenderJob job;
+            while ((job = queue.poll()) != null) {
+                job.result.cancel(false);
+            }
+        }
+    }
+
+    // Copy of the report view with every Sensor Data Table paged through; the view itself is shared, so it is not changed
+    private Map<String, Object> withTableRows(Long reportId, Map<String, Object> report) {
+        if (!(report.get("layout") instanceof Map<?, ?> layout) || !(layout.get("widgets") instanceof List<?> widgets)) {
+            return report;
+        }
+        List<Object> pagedWidgets = new ArrayList<>(widgets.size());
+        for (Object widget : widgets) {
+            if (widget instanceof Map<?, ?> widgetMap && widgetMap.get("data") instanceof Map<?, ?> data
+                    && data.get("nextCursor") instanceof String cursor && widgetMap.get("widgetId") instanceof Number widgetId) {
+                Map<String, Object> pagedData = copy(data);
+                appendTablePages(reportWidgetService.prepareSensorTable(reportId, widgetId.longValue(), null, null), cursor, pagedData);
+                Map<String, Object> pagedWidget = copy(widgetMap);
+                pagedWidget.put("data", pagedData);
+                pagedWidgets.add(pagedWidget);
+            } else {
+                pagedWidgets.add(widget);
+            }
+        }
+        Map<String, Object> pagedLayout = copy(layout);
+        pagedLayout.put("widgets", pagedWidgets);
+        Map<String, Object> pagedReport = new LinkedHashMap<>(report);
+        pagedReport.put("layout", pagedLayout);
+        return pagedReport;
+    }
+
+    private static Map<String, Object> copy(Map<?, ?> map) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        map.forEach((key, value) -> copy.put(String.valueOf(key), value));
+        return copy;
+    }
+
+    // Follows nextCursor until the last page or maxTableRows; a cursor left over tells the template the table was cut off
+    private void appendTablePages(ReportWidgetService.SensorTableQuery query, String cursor, Map<String, Object> data) {
+        List<Object> rows = data.get("sensorTableData") instanceof List<?> firstPage ? new ArrayList<>(firstPage) : new ArrayList<>();
+        while (cursor != null && rows.size() < maxTableRows) {
+            Map<String, Object> page = reportWidgetService.sensorTablePage(query, cursor, null);
+            if (page.get("sensorTableData") instanceof List<?> pageRows) {
+                rows.addAll(pageRows);
+            }
+            cursor = (String) page.get("nextCursor");
+        }
+        if (rows.size() > maxTableRows) {
+            rows.subList(maxTableRows, rows.size()).clear();
+            cursor = cursor != null ? cursor : "";
+        }
+        data.put("sensorTableData", rows);
+        data.put("nextCursor", cursor);
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.currentTimeMillis());
+    }
+
+    private String reportUrl(Long reportId) {
+        return frontendUrl.replace("{reportId}", String.valueOf(reportId));
+    }
+
+    // Either a URL to open or HTML to load; the result completes with the PDF bytes
+    private record RenderJob(String url, String html, long deadline, CompletableFuture<byte[]> result) {
+        RenderJob(String url, String html, long deadline) {
+            this(url, html, deadline, new CompletableFuture<>());
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private Playwright playwright;
+        private Browser browser;
+        private BrowserContext context;
+        private int rendersInContext;
+
+        @Override
+        public void run() {
+            try {
+                warmUp();
+                while (running) {
+                    RenderJob job = queue.poll(1, TimeUnit.SECONDS);
+                    if (job != null && !job.result.isDone()) {
+                        render(job);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+
+        private void warmUp() {
+            try {
+                ensureContext();
+            } catch (RuntimeException e) {
+                // Retried on the first render; the browser may still be downloading or missing
+                log.error("PDF worker {} could not start its browser: {}", Thread.currentThread().getName(), e.getMessage());
+                close();
+            }
+        }
+
+        private void render(RenderJob job) {
+            long remaining = job.deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                job.result.completeExceptionally(new TimeoutException("Waited too long in the PDF render queue."));
+                return;
+            }
+            try {
+                ensureContext();
+                Page page = context.newPage();
+                try {
+                    page.setDefaultTimeout(remaining);
+                    if (job.url != null) {
+                        page.navigate(job.url, new Page.NavigateOptions().setWaitUntil(WaitUntilState.NETWORKIDLE));
+                        if (!readySelector.isBlank()) {
+                            page.waitForSelector(readySelector);
+                        }
+                    } else {
+                        page.setContent(job.html, new Page.SetContentOptions().setWaitUntil(WaitUntilState.LOAD));
+                    }
+                    job.result.complete(page.pdf(new Page.PdfOptions()
+                            .setFormat("A4")
+                            .setPrintBackground(true)
+                            .setMargin(new Margin().setTop("12mm").setBottom("12mm").setLeft("10mm").setRight("10mm"))));
+                } finally {
+                    page.close();
+                }
+                if (++rendersInContext >= maxRendersPerContext) {
+                    recycleContext();
+                }
+            } catch (RuntimeException e) {
+                boolean timedOut = System.currentTimeMillis() >= job.deadline;
+                job.result.completeExceptionally(timedOut ? new TimeoutException("PDF render timed out.") : e);
+                log.warn("PDF render failed on {}: {}", Thread.currentThread().getName(), e.getMessage());
+                // Start the next render from a fresh browser in case this one is wedged
+                close();
+            }
+        }
+
+        private void ensureContext() {
+            if (browser == null || !browser.isConnected()) {
+                close();
+                playwright = Playwright.create();
+                browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+            }
+            if (context == null) {
+                context = browser.newContext();
+                rendersInContext = 0;
+            }
+        }
+
+        private void recycleContext() {
+            try {
+                context.close();
+            } catch (RuntimeException e) {
+                log.debug("Closing browser context failed: {}", e.getMessage());
+            }
+            context = null;
+        }
+
+        private void close() {
+            try {
+                if (playwright != null) {
+                    playwright.close(); // Also closes the browser and its contexts
+                }
+            } catch (RuntimeException e) {
+                log.debug("Closing Playwright failed: {}", e.getMessage());
+            }
+            playwright = null;
+            browser = null;
+            context = null;
+        }
+    }
+}
@@ -405,7 +405,7 @@
 //                System.out.println("Processing sensorId: " + sensorId + " | sensorType: " + sensorType);
 //
 //                // Fetch sensor readings within the specified time range
-//                List<Sensor> sensorReadings = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, from, now);
+//                List<Sensor> sensorReadings = sensorRepository.findBySensorKeyAndTimestampBetween(sensorCatalogService.keyOf(sensorId), from, now);
 //
 //                // If the widget has showValues or aggregation, calculate min, max, avg
 //                if (hasShowValues || hasAggregation) {
@@ -513,7 +513,7 @@
 //            String sensorId = sensor.get("sensorid").toString();
 //
 //            // Fetch readings
-//            List<Sensor> sensorReadings = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, from, to);
+//            List<Sensor> sensorReadings = sensorRepository.findBySensorKeyAndTimestampBetween(sensorCatalogService.keyOf(sensorId), from, to);
 //
 //            // Calculate statistics
 //            double avg = sensorReadings.stream().mapToDouble(Sensor::getValue).average().orElse(0);
@@ -635,7 +635,12 @@ import com.Project.DataAcquisition.Repository.Reports.Automated.AutomatedReportW
 import com.Project.DataAcquisition.Repository.Reports.Manual.ReportRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
 import com.Project.DataAcquisition.Repository.Reports.Manual.ScheduledReportRepository;
-import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Alarm.SensorHotWindowStore;
+import com.Project.DataAcquisition.Service.Reports.Render.PlannedReads;
+import com.Project.DataAcquisition.Service.Reports.Render.ReadPlan;
+import com.Project.DataAcquisition.Service.Reports.Render.WidgetReadPlanner;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -664,8 +669,12 @@ public class ReportSchedulerService {
     private final AutomatedReportRepository automatedReportRepository;
     private final ReportRepository reportRepository;
     private final ReportWidgetRepository reportWidgetRepository;
-    private final SensorRepository sensorRepository;
+    private final SensorHotWindowStore sensorHotWindowStore;
+    private final SensorCatalogService sensorCatalogService;
     private final AutomatedReportWidgetRepository automatedReportWidgetRepository;
+    private final ChangeWatermarks changeWatermarks;
+    private final WidgetConfigCache widgetConfigCache;
+    private final WidgetReadPlanner widgetReadPlanner;
     private final Object lock = new Object();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -673,14 +682,22 @@ public class ReportSchedulerService {
                                   AutomatedReportRepository automatedReportRepository,
                                   ReportRepository reportRepository,
                                   ReportWidgetRepository reportWidgetRepository,
-                                  SensorRepository sensorRepository,
-                                  AutomatedReportWidgetRepository automatedReportWidgetRepository) {
+                                  SensorHotWindowStore sensorHotWindowStore,
+                                  SensorCatalogService sensorCatalogService,
+                                  AutomatedReportWidgetRepository automatedReportWidgetRepository,
+                                  ChangeWatermarks changeWatermarks,
+                                  WidgetConfigCache widgetConfigCache,
+                                  WidgetReadPlanner widgetReadPlanner) {
         this.scheduledReportRepository = scheduledReportRepository;
         this.automatedReportRepository = automatedReportRepository;
         this.reportRepository = reportRepository;
         this.reportWidgetRepository = reportWidgetRepository;
-        this.sensorRepository = sensorRepository;
+        this.sensorHotWindowStore = sensorHotWindowStore;
+        this.sensorCatalogService = sensorCatalogService;
         this.automatedReportWidgetRepository = automatedReportWidgetRepository;
+        this.changeWatermarks = changeWatermarks;
+        this.widgetConfigCache = widgetConfigCache;
+        this.widgetReadPlanner = widgetReadPlanner;
     }
 
     public Map<String, Object> toggleSchedule(Long reportId, String frequency, boolean enable) {
@@ -715,6 +732,7 @@ public class ReportSchedulerService {
 
         report.setScheduleStatus(enable);
         reportRepository.save(report);
+        changeWatermarks.touch(ChangeWatermarks.REPORTS);
 
         logger.info("✅ Schedule {} for Report ID={} Frequency={}. Updated scheduleStatus to {}",
                 enable ? "enabled" : "disabled", reportId, frequency, enable);
@@ -891,6 +909,7 @@ public class ReportSchedulerService {
 
         if (!hasOtherSchedules) {
             reportRepository.updateScheduleStatus(reportId, false);
+            changeWatermarks.touch(ChangeWatermarks.REPORTS);
             logger.info("✅ Updated schedule status to false for Report ID={}", reportId);
         } else {
             logger.info("ℹ️ Other schedules exist for Report ID={}. Not updating schedule status.");
@@ -928,17 +947,30 @@ public class ReportSchedulerService {
 
             List<ReportWidget> manualWidgets = reportWidgetRepository.findByReport_Id(reportId);
 
+            // Readings of all widgets planned together, a sensor shown by several widgets is read once
+            LocalDateTime from = windowStart(frequency, now);
+            Map<ReportWidget, Map<String, Object>> widgetDataById = new LinkedHashMap<>();
+            ReadPlan plan = new ReadPlan();
+            for (ReportWidget manualWidget : manualWidgets) {
+                if (manualWidget.getData() != null) {
+                    Map<String, Object> widgetData = widgetConfigCache.of(manualWidget).toData();
+                    widgetDataById.put(manualWidget, widgetData);
+                    convertToListOfMaps(widgetData.get("sensors"))
+                            .forEach(sensor -> plan.readings(sensorCatalogService.keyOf(joinedSensorId(sensor)), from, now));
+                }
+            }
+            PlannedReads reads = widgetReadPlanner.execute(plan);
+
             for (ReportWidget manualWidget : manualWidgets) {
                 Widget originalWidget = manualWidget.getWidget();
-                String widgetJson = manualWidget.getData();
+                Map<String, Object> widgetData = widgetDataById.get(manualWidget);
                 Map<String, Object> updatedData;
 
-                if (widgetJson == null) {
+                if (widgetData == null) {
                     logger.warn("⚠️ Widget ID={} has null data. Proceeding with empty data.", manualWidget.getId());
                     updatedData = new HashMap<>();
                 } else {
-                    Map<String, Object> widgetData = parseJsonToMap(widgetJson);
-                    updatedData = generateWidgetDataByFrequency(widgetData, frequency);
+                    updatedData = generateWidgetData(widgetData, from, now, reads);
                 }
 
                 String updatedJson = convertDataToJson(updatedData);
@@ -949,6 +981,7 @@ public class ReportSchedulerService {
                 arw.setData(updatedJson);
                 automatedReportWidgetRepository.save(arw);
             }
+            changeWatermarks.touch(ChangeWatermarks.REPORTS);
 
             // Next Run Time
             LocalDateTime nextRun;
@@ -1004,27 +1037,25 @@ public class ReportSchedulerService {
 
 
     public Map<String, Object> generateWidgetDataByFrequency(Map<String, Object> originalData, String frequency) {
-        Map<String, Object> updatedData = new HashMap<>(originalData);
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime from;
-
-        // Determine the correct time range based on frequency
-        switch (frequency) {
-            case "HOURLY":
-                from = now.minusHours(1);
-                break;
-            case "DAILY":
-                from = now.minusDays(1);
-                break;
-            case "WEEKLY":
-                from = now.minusWeeks(1);
-                break;
-            case "MONTHLY":
-                from = now.minusMonths(1);
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported frequency: " + frequency);
-        }
+        LocalDateTime from = windowStart(frequency, now);
+        return generateWidgetData(originalData, from, now, widgetReadPlanner.execute(new ReadPlan()));
+    }
+
+    // Determine the correct time range based on frequency
+    private LocalDateTime windowStart(String frequency, LocalDateTime now) {
+        return switch (frequency) {
+            case "HOURLY" -> now.minusHours(1);
+            case "DAILY" -> now.minusDays(1);
+            case "WEEKLY" -> now.minusWeeks(1);
+            case "MONTHLY" -> now.minusMonths(1);
+            default -> throw new IllegalArgumentException("Unsupported frequency: " + frequency);
+        };
+    }
+
+    // A widget's data over [from, now], its readings taken from reads
+    private Map<String, Object> generateWidgetData(Map<String, Object> originalData, LocalDateTime from, LocalDateTime now, PlannedReads reads) {
+        Map<String, Object> updatedData = new HashMap<>(originalData);
 
         // Update widgets' date fields based on frequency
         updateWidgetDates(updatedData, from, now);
@@ -1036,15 +1067,7 @@ public class ReportSchedulerService {
 
         if (!sensors.isEmpty()) {
             for (Map<String, Object> sensor : sensors) {
-                // Handle sensorId safely
-                Object sensorIdObj = sensor.get("sensorId");
-                String sensorId = "";
-                if (sensorIdObj instanceof List) {
-                    List<String> sensorIds = (List<String>) sensorIdObj;
-                    sensorId = String.join(",", sensorIds); // Convert list to a comma-separated string
-                } else if (sensorIdObj instanceof String) {
-                    sensorId = (String) sensorIdObj;
-                }
+                String sensorId = joinedSensorId(sensor);
 
                 // Handle sensorType safely
                 Object sensorTypeObj = sensor.get("sensorType");
@@ -1060,7 +1083,7 @@ public class ReportSchedulerService {
                 System.out.println("Processing sensorId: " + sensorId + " | sensorType: " + sensorType);
 
                 // Fetch sensor readings within the specified time range
-                List<Sensor> sensorReadings = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, from, now);
+                List<Sensor> sensorReadings = reads.readings(sensorCatalogService.keyOf(sensorId), from, now);
 
                 // If the widget has showValues or aggregation, calculate min, max, avg
                 if (hasShowValues || hasAggregation) {
@@ -1090,6 +1113,17 @@ public class ReportSchedulerService {
         return updatedData;
     }
 
+    // Handle sensorId safely: a list becomes a comma-separated string
+    private String joinedSensorId(Map<String, Object> sensor) {
+        Object sensorIdObj = sensor.get("sensorId");
+        if (sensorIdObj instanceof List) {
+            return String.join(",", (List<String>) sensorIdObj);
+        } else if (sensorIdObj instanceof String) {
+            return (String) sensorIdObj;
+        }
+        return "";
+    }
+
     /**
      * Updates the date fields inside widgets to ensure they match the selected frequency.
      */
@@ -1168,7 +1202,7 @@ public class ReportSchedulerService {
             String sensorId = sensor.get("sensorid").toString();
 
             // Fetch readings
-            List<Sensor> sensorReadings = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, from, to);
+            List<Sensor> sensorReadings = sensorHotWindowStore.findReadings(sensorCatalogService.keyOf(sensorId), from, to);
 
             // Calculate statistics
             double avg = sensorReadings.stream().mapToDouble(Sensor::getValue).average().orElse(0);
@@ -1,7 +1,6 @@
 package com.Project.DataAcquisition.Service.Reports.Manual;
 
 import com.Project.DataAcquisition.DTO.Reports.Manual.CreateReportRequest;
-import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
 import com.Project.DataAcquisition.Entity.Reports.Layout.Layout;
 import com.Project.DataAcquisition.Entity.Reports.Layout.LayoutWidget;
 import com.Project.DataAcquisition.Entity.Reports.Layout.ReportWidget;
@@ -9,16 +8,22 @@ import com.Project.DataAcquisition.Entity.Reports.Layout.Widget;
 import com.Project.DataAcquisition.Entity.Reports.Manual.Report;
 import com.Project.DataAcquisition.Entity.Reports.Manual.ReportType;
 import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
-import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Model.WidgetConfig;
 import com.Project.DataAcquisition.Repository.Reports.Widget.LayoutRepository;
 import com.Project.DataAcquisition.Repository.Reports.Manual.ReportRepository;
 import com.Project.DataAcquisition.Repository.Reports.Manual.ReportTypeRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
-import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Alarm.SensorHotWindowStore;
+import com.Project.DataAcquisition.Service.Reports.Render.RenderContext;
+import com.Project.DataAcquisition.Service.Reports.Render.WidgetRenderers;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
+import com.Project.DataAcquisition.Utils.SingleFlight;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -38,11 +43,28 @@ public class ReportService {
 
 
     @Autowired
-    private SensorRepository sensorRepository;
+    private SensorHotWindowStore sensorHotWindowStore;
+
+    @Autowired
+    private SensorCatalogService sensorCatalogService;
+
+
+    @Autowired
+    private WidgetConfigCache widgetConfigCache;
 
+    @Autowired
+    private WidgetRenderers widgetRenderers;
 
     @Autowired
-    private AlarmRepository alarmRepository;
+    private ChangeWatermarks changeWatermarks;
+
+    // Whatever a rendered report depends on; a change to any of them starts a new render
+    private static final String[] RENDER_INPUTS = {ChangeWatermarks.REPORTS, ChangeWatermarks.LAYOUTS, ChangeWatermarks.WIDGETS, ChangeWatermarks.ALARMS};
+
+    @Value("${reports.single-flight.ttl-ms:0}")
+    private long singleFlightTtlMs;
+
+    private final SingleFlight<String, Map<String, Object>> reportRenders = new SingleFlight<>();
 
     @Autowired
     public ReportService(ReportRepository reportRepository, ReportTypeRepository reportTypeRepository, LayoutRepository layoutRepository, ReportWidgetRepository reportWidgetRepository) {
@@ -107,6 +129,7 @@ public class ReportService {
                 .build();
 
         reportRepository.save(newReport);
+        changeWatermarks.touch(ChangeWatermarks.REPORTS);
 
         // 🔹 Fetch Widgets from LayoutWidgets & insert them into report_widgets
         List<ReportWidget> reportWidgets = new ArrayList<>();
@@ -142,7 +165,47 @@ public class ReportService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * A report with its layout and rendered widgets. Concurrent calls for the same report (and the same data, see
+     * ChangeWatermarks) share one render; the result is shared too and must not be modified.
+     */
     public Map<String, Object> getReportById(Long reportId) {
+        String key = changeWatermarks.tag(RENDER_INPUTS, "report", reportId);
+        return reportRenders.run(key, singleFlightTtlMs, () -> renderReport(reportId));
+    }
+
+    /**
+     * The report and its layout with each widget's configuration only, so the page can be laid out before any data
+     * is read; the data of each widget then comes from {@link #getWidgetData(Long, Long)}.
+     */
+    public Map<String, Object> getReportSkeleton(Long reportId) {
+        return reportView(reportId, false);
+    }
+
+    /**
+     * One rendered widget of a report, shaped like an entry of the view's widget list. Concurrent calls for the same
+     * widget share one render, like whole reports do.
+     */
+    public Map<String, Object> getWidgetData(Long reportId, Long widgetId) {
+        String key = changeWatermarks.tag(RENDER_INPUTS, "report-widget", reportId, widgetId);
+        return reportRenders.run(key, singleFlightTtlMs, () -> renderWidget(reportId, widgetId));
+    }
+
+    private Map<String, Object> renderWidget(Long reportId, Long widgetId) {
+        ReportWidget reportWidget = reportWidgetRepository.findByReport_IdAndWidget_WidgetId(reportId, widgetId)
+                .orElseThrow(() -> new NoSuchElementException("Widget not found in report"));
+
+        WidgetConfig config = configOf(reportWidget);
+        Map<String, Object> widgetData = config.toData();
+        widgetRenderers.render(config, widgetData, RenderContext.report());
+        return widgetDetails(reportWidget.getWidget(), widgetData);
+    }
+
+    private Map<String, Object> renderReport(Long reportId) {
+        return reportView(reportId, true);
+    }
+
+    private Map<String, Object> reportView(Long reportId, boolean render) {
         Optional<Report> reportOptional = reportRepository.findById(reportId);
         if (reportOptional.isEmpty()) {
             throw new NoSuchElementException("Report not found");
@@ -163,162 +226,20 @@ public class ReportService {
         layoutDetails.put("createdAt", layout.getCreatedAt().format(DATE_TIME_FORMATTER));
 
         List<ReportWidget> reportWidgets = reportWidgetRepository.findByReport_Id(reportId);
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        List<LinkedHashMap<String, Object>> widgetsList = reportWidgets.stream()
-                .map(reportWidget -> {
-                    Widget widget = reportWidget.getWidget();
-                    LinkedHashMap<String, Object> widgetData = new LinkedHashMap<>();
-                    String rawJsonData = reportWidget.getData();
-
-                    // ✅ Safely parse stored JSON data
-                    try {
-                        widgetData = (rawJsonData != null && !rawJsonData.isEmpty()) ?
-                                objectMapper.readValue(rawJsonData, new TypeReference<>() {}) :
-                                new LinkedHashMap<>();
-                    } catch (Exception e) {
-                        System.err.println("Error parsing widget data: " + e.getMessage());
-                    }
-
-                    // ✅ Handle date parsing
-                    Object dateObj = getIgnoreCase(widgetData, "date");
-                    LocalDateTime startTime = null;
-                    LocalDateTime endTime = LocalDateTime.now(); // Default to now
-
-                    LinkedHashMap<String, Object> dateMap = new LinkedHashMap<>();
-                    if (dateObj instanceof Map) {
-                        dateMap.putAll((Map<String, String>) dateObj);
-                        try {
-                            startTime = LocalDate.parse(dateMap.get("startDate").toString()).atStartOfDay();
-                            endTime = LocalDate.parse(dateMap.get("endDate").toString()).atTime(23, 59, 59);
-                        } catch (Exception e) {
-                            System.err.println("Error parsing date range: " + e.getMessage());
-                        }
-                    } else if (dateObj instanceof String) {
-                        dateMap.put("startDate", dateObj);
-                        try {
-                            startTime = LocalDate.parse(dateObj.toString()).atStartOfDay();
-                        } catch (Exception e) {
-                            System.err.println("Error parsing single date: " + e.getMessage());
-                        }
-                    }
-
-                    // ✅ Fetch Sensor Values and Aggregations if required
-                    String widgetName = widget.getWidgetName();
-                    if (widgetName.equalsIgnoreCase("Time Series Chart") ||
-                            widgetName.equalsIgnoreCase("Line Chart") ||
-                            widgetName.equalsIgnoreCase("Bar Chart") ||
-                            widgetName.equalsIgnoreCase("Value and Chart Card")) {
-
-                        if (startTime == null) {
-                            startTime = endTime.minusHours(24); // Default to last 24 hours if missing
-                        }
-                        widgetData.put("sensors", fetchSensorValues(widgetData, startTime, endTime));
-                    }
-
-                    if (widgetName.equalsIgnoreCase("Value Card")) {
-                        String sensorId = getSensorId(widgetData);
-                        if (sensorId != null && startTime != null) {
-                            LocalDateTime startOfDay = startTime;
-                            LocalDateTime endOfDay = startTime.withHour(23).withMinute(59).withSecond(59);
-
-                            Map<String, Boolean> requestedAggregations = (Map<String, Boolean>) widgetData.get("aggregations");
-                            Map<String, Double> aggregationValues = new LinkedHashMap<>();
-
-                            if (requestedAggregations.getOrDefault("max", false)) {
-                                aggregationValues.put("max", sensorRepository.findMaxValue(sensorId, startOfDay, endOfDay));
-                            }
-                            if (requestedAggregations.getOrDefault("min", false)) {
-                                aggregationValues.put("min", sensorRepository.findMinValue(sensorId, startOfDay, endOfDay));
-                            }
-                            if (requestedAggregations.getOrDefault("average", false)) {
-                                aggregationValues.put("average", sensorRepository.findAverageValue(sensorId, startOfDay, endOfDay));
-                            }
-
-                            widgetData.put("aggregationValues", aggregationValues);
-                        }
-                    }
-
-                    // ✅ Handle "Sensor Data Table" - Remove sensorValues from sensors list
-                    if (widgetName.equalsIgnoreCase("Sensor Data Table")) {
-                        List<Map<String, Object>> sensorsList = (List<Map<String, Object>>) widgetData.get("sensors");
-                        if (sensorsList != null) {
-                            for (Map<String, Object> sensorEntry : sensorsList) {
-                                sensorEntry.remove("sensorValues");  // ✅ Remove sensorValues key
-                            }
-                        }
-
-                        // ✅ Move "date" field after "sensors"
-                        widgetData.remove("date");
-                        widgetData.put("date", dateMap);
-                    }
-
-                    if (widgetName.equalsIgnoreCase("Alarms Table")) {
-                        // ✅ Extract sensorIds from inside the sensors list
-                        List<String> sensorIds = new ArrayList<>();
-                        List<Map<String, Object>> sensorsList = (List<Map<String, Object>>) widgetData.get("sensors");
-                        if (sensorsList != null) {
-                            for (Map<String, Object> sensorEntry : sensorsList) {
-                                Object sensorIdObj = getIgnoreCase(sensorEntry, "sensorId");
-                                if (sensorIdObj instanceof List<?>) {
-                                    for (Object sid : (List<?>) sensorIdObj) {
-                                        if (sid != null) sensorIds.add(sid.toString());
-                                    }
-                                } else if (sensorIdObj instanceof String) {
-                                    sensorIds.add(sensorIdObj.toString());
-                                }
-
-                                // ✅ Also remove "sensorValues" if present
-                                sensorEntry.remove("sensorValues");
-                            }
-                        }
-
-                        // ✅ Get status and severity
-                        List<String> statusList = (List<String>) getIgnoreCase(widgetData, "status");
-                        List<String> severityList = (List<String>) getIgnoreCase(widgetData, "severity");
-
-                        List<Map<String, Object>> alarmTableData = new ArrayList<>();
-
-                        if (sensorIds != null && startTime != null && endTime != null) {
-                            for (String sensorId : sensorIds) {
-                                List<AlarmEntity> alarms = alarmRepository.findAlarmsBySensorId(
-                                        sensorId,
-                                        statusList != null ? statusList : Collections.emptyList(),
-                                        severityList != null ? severityList : Collections.emptyList(),
-                                        startTime,
-                                        endTime
-                                );
-
-                                for (AlarmEntity alarm : alarms) {
-                                    Map<String, Object> alarmMap = new LinkedHashMap<>();
-                                    alarmMap.put("alarmId", alarm.getAlarmId());
-                                    alarmMap.put("alarmName", alarm.getAlarmName());
-                                    alarmMap.put("status", alarm.getStatus());
-                                    alarmMap.put("severity", alarm.getSeverity());
-                                    alarmMap.put("sensorId", alarm.getSensorId());
-                                    alarmMap.put("createdAt", alarm.getCreatedAt().format(DATE_TIME_FORMATTER));
-                                    alarmTableData.add(alarmMap);
-                                }
-                            }
-                        }
-
-                        widgetData.remove("date");        // move date to end
-                        widgetData.put("date", dateMap);
-                        widgetData.put("alarmTableData", alarmTableData);
-                    }
-
-
-
-                    // ✅ Build Final Widget Response
-                    LinkedHashMap<String, Object> widgetDetails = new LinkedHashMap<>();
-                    widgetDetails.put("widgetId", widget.getWidgetId());
-                    widgetDetails.put("widgetType", widget.getWidgetType());
-                    widgetDetails.put("widgetName", widget.getWidgetName());
-                    widgetDetails.put("data", widgetData);
-
-                    return widgetDetails;
-                })
-                .collect(Collectors.toList());
+
+        List<Map<String, Object>> widgetsList = new ArrayList<>(reportWidgets.size());
+        List<WidgetRenderers.Target> targets = new ArrayList<>(reportWidgets.size());
+        for (ReportWidget reportWidget : reportWidgets) {
+            WidgetConfig config = configOf(reportWidget);
+            Map<String, Object> widgetData = config.toData();
+            targets.add(new WidgetRenderers.Target(config, widgetData));
+            widgetsList.add(widgetDetails(reportWidget.getWidget(), widgetData));
+        }
+
+        // ✅ Readings and alarms of all widgets planned together, each shared read queried once
+        if (render) {
+            widgetRenderers.render(targets, RenderContext.report());
+        }
 
         layoutDetails.put("widgets", widgetsList);
         reportDetails.put("layout", layoutDetails);
@@ -327,11 +248,31 @@ public class ReportService {
     }
 
 
+    // ✅ Parsed configuration, bound once per widget version
+    private WidgetConfig configOf(ReportWidget reportWidget) {
+        try {
+            return widgetConfigCache.of(reportWidget);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing widget data: " + e.getMessage());
+            return WidgetConfig.forWidget(reportWidget.getWidget().getWidgetName());
+        }
+    }
+
+    // ✅ Build Final Widget Response
+    private static Map<String, Object> widgetDetails(Widget widget, Map<String, Object> widgetData) {
+        LinkedHashMap<String, Object> widgetDetails = new LinkedHashMap<>();
+        widgetDetails.put("widgetId", widget.getWidgetId());
+        widgetDetails.put("widgetType", widget.getWidgetType());
+        widgetDetails.put("widgetName", widget.getWidgetName());
+        widgetDetails.put("data", widgetData);
+        return widgetDetails;
+    }
+
     private List<Map<String, Object>> fetchTableSensorValues(List<String> sensorIds, LocalDateTime startTime, LocalDateTime endTime) {
         List<Map<String, Object>> sensorDataList = new ArrayList<>();
 
         for (String sensorId : sensorIds) {
-            List<Sensor> sensorValues = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, startTime, endTime);
+            List<Sensor> sensorValues = sensorHotWindowStore.findReadings(sensorCatalogService.keyOf(sensorId), startTime, endTime);
 
             List<Map<String, Object>> valuesList = new ArrayList<>();
             for (Sensor sv : sensorValues) {
@@ -351,62 +292,6 @@ public class ReportService {
     }
 
 
-    private String getSensorId(Map<String, Object> dataMap) {
-        if (dataMap.get("sensors") instanceof List) {
-            List<Map<String, Object>> sensorList = (List<Map<String, Object>>) dataMap.get("sensors");
-            if (!sensorList.isEmpty()) {
-                return sensorList.get(0).get("sensorId").toString();
-            }
-        } else if (dataMap.get("sensors") instanceof Map) {
-            return ((Map<String, Object>) dataMap.get("sensors")).get("sensorId").toString();
-        }
-        return null;
-    }
-
-    // ✅ Helper method to get values ignoring case
-    private Object getIgnoreCase(Map<?, ?> map, String key) {
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            if (entry.getKey().toString().equalsIgnoreCase(key)) {
-                return entry.getValue();
-            }
-        }
-        return null;
-    }
-
-
-    private List<Map<String, Object>> fetchSensorValues(Map<String, Object> dataMap, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Map<String, Object>> sensors = (List<Map<String, Object>>) dataMap.get("sensors");
-        if (sensors == null || sensors.isEmpty()) {
-            return Collections.emptyList(); // Return empty list if no sensors
-        }
-
-        List<Map<String, Object>> updatedSensors = new ArrayList<>();
-        for (Map<String, Object> sensor : sensors) {
-            String sensorId = sensor.get("sensorId").toString();
-
-            // Fetch sensor values from DB within the given time range
-            List<Sensor> sensorValues = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, startTime, endTime);
-
-            // Convert sensor values to required format
-            List<Map<String, Object>> sensorValuesList = new ArrayList<>();
-            for (Sensor sv : sensorValues) {
-                Map<String, Object> sensorValueMap = new LinkedHashMap<>();
-                sensorValueMap.put("timestamp", sv.getTimestamp().toString());
-                sensorValueMap.put("value", sv.getValue());
-                sensorValuesList.add(sensorValueMap);
-            }
-
-            // Update sensor structure with sensorValues
-            LinkedHashMap<String, Object> updatedSensor = new LinkedHashMap<>(sensor);
-            updatedSensor.put("sensorValues", sensorValuesList);
-            updatedSensors.add(updatedSensor);
-        }
-
-        return updatedSensors;
-    }
-
-
-
     // 7. Filter reports based on various criteria
     public List<Map<String, Object>> filterReports(String reportType, Boolean scheduleStatus, LocalDate startDate, LocalDate endDate, String query) {
         List<Report> reports = reportRepository.findAll();
@@ -444,28 +329,16 @@ public class ReportService {
         return filteredReports;
     }
 
-    // 8. Download a report
-    public Map<String, String> downloadReport(Long reportId) {
-        if (reportRepository.existsById(reportId)) {
-            return Map.of("message", "Report downloaded successfully.", "reportId", reportId.toString());
-        }
-        throw new NoSuchElementException("Report not found");
-    }
-
     // 9. Delete a report
     public Map<String, String> deleteReport(Long reportId) {
         if (reportRepository.existsById(reportId)) {
             reportRepository.deleteById(reportId);
+            changeWatermarks.touch(ChangeWatermarks.REPORTS);
             return Map.of("message", "Report deleted successfully.");
         }
         throw new NoSuchElementException("Report not found");
     }
 
-    // 11. Export report to PDF
-    public Map<String, String> exportReportToPDF(Long reportId) {
-        return Map.of("message", "Report exported successfully.", "reportId", reportId.toString());
-    }
-
     public Map<String, Object> getReportsSummary() {
         long automatedCount = countAutomatedReports();
         long manualCount = countManualReports();
@@ -1,22 +1,34 @@
 package com.Project.DataAcquisition.Service.Reports.Manual;
 
-import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
 import com.Project.DataAcquisition.Entity.Reports.Layout.LayoutWidget;
 import com.Project.DataAcquisition.Entity.Reports.Layout.ReportWidget;
 import com.Project.DataAcquisition.Entity.Reports.Layout.Widget;
 import com.Project.DataAcquisition.Entity.Reports.Manual.Report;
 import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
 import com.Project.DataAcquisition.Entity.Rules.RtuData;
+import com.Project.DataAcquisition.Model.DateRange;
+import com.Project.DataAcquisition.Model.TimeSeriesTableWidget;
+import com.Project.DataAcquisition.Model.WidgetConfig;
+import com.Project.DataAcquisition.Model.WidgetSensor;
 import com.Project.DataAcquisition.Exception.GlobalExceptionHandler;
-import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Repository.Alarm.AlarmSensorRepository;
 import com.Project.DataAcquisition.Repository.Reports.Manual.*;
 import com.Project.DataAcquisition.Repository.Reports.Widget.LayoutWidgetRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.ReportWidgetRepository;
 import com.Project.DataAcquisition.Repository.Reports.Widget.WidgetRepository;
-import com.Project.DataAcquisition.Repository.Rule.SensorRepository;
+
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Alarm.SensorChunkStore;
+import com.Project.DataAcquisition.Service.Reports.Render.RenderContext;
+import com.Project.DataAcquisition.Service.Reports.Render.WidgetRenderers;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
+import com.Project.DataAcquisition.Utils.OrderedDeduplicator;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.Project.DataAcquisition.Exception.GlobalExceptionHandler.InvalidSensorDataException;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
@@ -24,10 +36,15 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -50,10 +67,28 @@ public class ReportWidgetService {
     private RtuRepository rtuRepository;
 
     @Autowired
-    private SensorRepository sensorRepository;
+    private SensorCatalogService sensorCatalogService;
+
+    @Autowired
+    private SensorChunkStore sensorChunkStore;
+
+    @Autowired
+    private WidgetConfigCache widgetConfigCache;
+
+    @Autowired
+    private WidgetRenderers widgetRenderers;
 
     @Autowired
-    private AlarmRepository alarmRepository;
+    private ChangeWatermarks changeWatermarks;
+
+    @Value("${reports.sensor-table.page-size:500}")
+    private int sensorTablePageSize;
+
+    @Value("${reports.sensor-table.max-page-size:5000}")
+    private int sensorTableMaxPageSize;
+
+    @Autowired
+    private AlarmSensorRepository alarmSensorRepository;
 
     private static final Map<String, String> SENSOR_UNIT_MAP = Map.of(
             "Temperature", "°C",
@@ -89,14 +124,11 @@ public class ReportWidgetService {
             ReportWidget reportWidget = reportWidgetOptional.get();
             widget = reportWidget.getWidget();
 
-            // Fetch stored JSON data
-            String jsonData = reportWidget.getData();
-            if (jsonData != null && !jsonData.isEmpty()) {
-                try {
-                    widgetData = objectMapper.readValue(jsonData, new TypeReference<>() {});
-                } catch (Exception e) {
-                    widgetData.put("error", "Invalid JSON format in ReportWidget data");
-                }
+            // Stored configuration, bound once per widget version
+            try {
+                widgetData = widgetConfigCache.of(reportWidget).toData();
+            } catch (IllegalArgumentException e) {
+                widgetData.put("error", "Invalid JSON format in ReportWidget data");
             }
         } else {
             Optional<LayoutWidget> layoutWidgetOptional = layoutWidgetRepository.findByWidget_WidgetIdAndLayout_Id(widgetId, layoutId);
@@ -133,6 +165,7 @@ public class ReportWidgetService {
 
         // ✅ Remove "aggregationValues" if present
         widgetData.remove("aggregationValues");
+        widgetData.remove("sensorTableData"); // Table rows are read per page
 
         // ✅ Build final response
         LinkedHashMap<String, Object> response = new LinkedHashMap<>();
@@ -151,6 +184,7 @@ public class ReportWidgetService {
 
         if (reportWidgetOptional.isPresent()) {
             reportWidgetRepository.delete(reportWidgetOptional.get());
+            changeWatermarks.touch(ChangeWatermarks.REPORTS);
             return true;
         }
 
@@ -209,153 +243,24 @@ public class ReportWidgetService {
                         orderedDataMap.put("sensors", List.of(sensorData));
                     }
 
-                    // Handle widget-specific cases
-                    if ("Time Series Chart".equalsIgnoreCase(widgetName)) {
-                        LocalDateTime endTime = LocalDateTime.now();
-                        LocalDateTime startTime = endTime.minusHours(24);
-                        orderedDataMap.put("sensors", fetchSensorValues(orderedDataMap, startTime, endTime));
-
-                    } else if ("Line Chart".equalsIgnoreCase(widgetName) || "Bar Chart".equalsIgnoreCase(widgetName)) {
-                        if (!dataMap.containsKey("date") || dataMap.get("date") == null) {
-                            throw new IllegalArgumentException("Date range is missing for " + widgetName);
-                        }
-
-                        Map<String, String> dateRange = (Map<String, String>) dataMap.get("date");
-                        if (!dateRange.containsKey("startDate") || !dateRange.containsKey("endDate")) {
-                            throw new IllegalArgumentException("Invalid date range format for " + widgetName);
-                        }
-
-                        LocalDateTime startTime = parseDateOrDateTime(dateRange.get("startDate"), false);
-                        LocalDateTime endTime = parseDateOrDateTime(dateRange.get("endDate"), true);
-
-
-                        orderedDataMap.put("sensors", fetchSensorValues(orderedDataMap, startTime, endTime));
-
-                    } else if ("Value Card".equalsIgnoreCase(widgetName)) {
-
-                        if (!dataMap.containsKey("date") || dataMap.get("date") == null) {
-                            throw new IllegalArgumentException("Date is missing for Value Card.");
-                        }
-
-                        String sensorId = getSensorId(orderedDataMap);
-                        if (sensorId == null || sensorId.isEmpty()) {
-                            throw new IllegalArgumentException("Sensor ID is missing or empty in Value Card.");
-                        }
-
-                        String dateInput = dataMap.get("date").toString();
-                        LocalDateTime startTime;
-                        LocalDateTime endTime;
-                        try {
-                            startTime = parseDateOrDateTime(dateInput, false);
-                            endTime = parseDateOrDateTime(dateInput, true);
-                        } catch (DateTimeParseException e) {
-                            throw new IllegalArgumentException("Invalid date format: " + dateInput);
-                        }
-
-
-                        // Fetch aggregation values like max, min, average for the Value Card
-                        Map<String, Boolean> requestedAggregations = (Map<String, Boolean>) dataMap.get("aggregations");
-                        if (requestedAggregations == null) {
-                            throw new IllegalArgumentException("Aggregations data is missing in Value Card.");
-                        }
-
-                        Map<String, Double> aggregationValues = new LinkedHashMap<>();
-
-                        if (requestedAggregations.getOrDefault("max", false)) {
-                            Double maxValue = sensorRepository.findMaxValue(sensorId, startTime, endTime);
-                            aggregationValues.put("max", maxValue != null ? maxValue : 0.0);
-                        }
-                        if (requestedAggregations.getOrDefault("min", false)) {
-                            Double minValue = sensorRepository.findMinValue(sensorId, startTime, endTime);
-                            aggregationValues.put("min", minValue != null ? minValue : 0.0);
-                        }
-                        if (requestedAggregations.getOrDefault("average", false)) {
-                            Double avgValue = sensorRepository.findAverageValue(sensorId, startTime, endTime);
-                            aggregationValues.put("average", avgValue != null ? avgValue : 0.0);
-                        }
-
-                        orderedDataMap.put("aggregationValues", aggregationValues);
-
-                    } else if ("Value and Chart Card".equalsIgnoreCase(widgetName)) {
-                        LocalDateTime endTime = LocalDateTime.now();
-                        LocalDateTime startTime = endTime.minusHours(24);
-
-                        // Directly fetch sensor values
-                        orderedDataMap.put("sensors", fetchSensorValues(orderedDataMap, startTime, endTime));
-
-                    } else if ("Sensor Data Table".equalsIgnoreCase(widgetName)) {
-                        if (!dataMap.containsKey("date") || dataMap.get("date") == null) {
-                            throw new IllegalArgumentException("Date range is missing for Sensor Data Table.");
-                        }
-
-                        Map<String, String> dateRange = (Map<String, String>) dataMap.get("date");
-                        if (!dateRange.containsKey("startDate") || !dateRange.containsKey("endDate")) {
-                            throw new IllegalArgumentException("Invalid date range format for Sensor Data Table.");
-                        }
-
-                        LocalDateTime startTime = parseDateOrDateTime(dateRange.get("startDate"), false);
-                        LocalDateTime endTime = parseDateOrDateTime(dateRange.get("endDate"), true);
-
-                        // Fetch sensor data list
-                        List<Map<String, Object>> sensorData = fetchSensorTableValues(orderedDataMap, startTime, endTime);
-
-                        // ✅ Store it in a single key to ensure proper JSON response
-                        orderedDataMap.put("sensorTableData", sensorData);
-
-                    } else if ("Alarms Table".equalsIgnoreCase(widgetName)) {
-                        List<Map<String, Object>> sensorsList = (List<Map<String, Object>>) dataMap.get("sensors");
-                        List<String> sensorId = new ArrayList<>();
-                        List<String> sensorTypes = new ArrayList<>();
-
-                        if (sensorsList != null && !sensorsList.isEmpty()) {
-                            for (Map<String, Object> sensorEntry : sensorsList) {
-                                Object sensorIdsObj = sensorEntry.get("sensorId");
-                                Object typesObj = sensorEntry.get("Type"); // Capital T matches your JSON
-
-                                if (sensorIdsObj instanceof List<?> && typesObj instanceof List<?>) {
-                                    List<?> idsList = (List<?>) sensorIdsObj;
-                                    List<?> typesList = (List<?>) typesObj;
-
-                                    boolean idsValid = idsList.stream().allMatch(id -> id instanceof String);
-                                    boolean typesValid = typesList.stream().allMatch(t -> t instanceof String);
-
-                                    if (idsValid && typesValid && !idsList.isEmpty() && !typesList.isEmpty()) {
-                                        sensorId.addAll((List<String>) idsList);
-                                        sensorTypes.addAll((List<String>) typesList);
-                                    } else {
-                                        log.error("Sensor data contains non-string or empty values: {}", sensorEntry);
-                                    }
-                                } else {
-                                    log.error("Sensor data is incomplete or wrong type: {}", sensorEntry);
-                                }
-                            }
-                        } else {
-                            log.warn("Sensor list is null or empty.");
-                        }
-
-                        List<String> statusList = (List<String>) dataMap.get("status");
-                        List<String> severityList = (List<String>) dataMap.get("severity");
-
-                        Map<String, String> dateRange = (Map<String, String>) dataMap.get("date");
-
-                        LocalDateTime startTime = parseDateOrDateTime(dateRange.get("startDate"), false);
-                        LocalDateTime endTime = parseDateOrDateTime(dateRange.get("endDate"), true);
-
-
-                        List<Map<String, Object>> alarmTableData = fetchAlarms(sensorId, statusList, severityList, startTime, endTime);
-                        orderedDataMap.put("alarmTableData", alarmTableData);
-                    }
-
+                    // Checks the report view is lenient about, then the widget's renderer fills in its live values
+                    requireRenderableData(widgetName, orderedDataMap);
+                    WidgetConfig config = widgetConfigCache.bind(widgetName, orderedDataMap);
+                    widgetRenderers.render(config, orderedDataMap, RenderContext.update());
 
                 } catch (Exception e) {
                     log.error("Error while processing widget {}: {}", widgetName, e.getMessage(), e);
                     throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid data: " + e.getMessage());
                 }
 
-                // Convert updated data to JSON and save
-                String updatedDataJson = convertDataToJson(orderedDataMap);
+                // Convert updated data to JSON and save (table rows are read per page, never stored)
+                Map<String, Object> storedData = new LinkedHashMap<>(orderedDataMap);
+                storedData.remove("sensorTableData");
+                storedData.remove("nextCursor");
+                String updatedDataJson = convertDataToJson(storedData);
                 reportWidget.setData(updatedDataJson);
                 reportWidgetRepository.save(reportWidget);
+                changeWatermarks.touch(ChangeWatermarks.REPORTS);
 
                 // Prepare response
                 Map<String, Object> formattedResponse = new LinkedHashMap<>();
@@ -404,160 +309,195 @@ public class ReportWidgetService {
         return null;
     }
 
-    private List<Map<String, Object>> fetchSensorValues(Map<String, Object> dataMap, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Map<String, Object>> sensors = (List<Map<String, Object>>) dataMap.get("sensors");
-        if (sensors == null || sensors.isEmpty()) {
-            throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty"); // Return empty list if no sensors
+    // What a widget update needs beyond validateWidgetData: sensors to chart, dates, and a card's aggregations
+    private void requireRenderableData(String widgetName, Map<String, Object> dataMap) {
+        boolean chart = Set.of("time series chart", "line chart", "bar chart", "value and chart card")
+                .contains(widgetName.toLowerCase(Locale.ROOT));
+        if (chart && !(dataMap.get("sensors") instanceof List<?> sensors && !sensors.isEmpty())) {
+            throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty");
         }
 
-        List<Map<String, Object>> updatedSensors = new ArrayList<>();
-        for (Map<String, Object> sensor : sensors) {
-            String sensorId = sensor.get("sensorId").toString();
-            log.info("Fetching sensor values for Sensor ID: {} from {} to {}", sensorId, startTime, endTime);
-
-            // Fetch sensor values from DB within the given time range
-            List<Sensor> sensorValues = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, startTime, endTime);
-            log.info("Fetched {} values for Sensor: {}", sensorValues.size(), sensorId);
-
-            // Convert sensor values to required format
-            List<Map<String, Object>> sensorValuesList = new ArrayList<>();
-            for (Sensor sv : sensorValues) {
-                Map<String, Object> sensorValueMap = new LinkedHashMap<>();
-                sensorValueMap.put("timestamp", sv.getTimestamp().toString());
-                sensorValueMap.put("value", sv.getValue());
-                sensorValuesList.add(sensorValueMap);
+        if ("Line Chart".equalsIgnoreCase(widgetName) || "Bar Chart".equalsIgnoreCase(widgetName)
+                || "Sensor Data Table".equalsIgnoreCase(widgetName)) {
+            if (dataMap.get("date") == null) {
+                throw new IllegalArgumentException("Date range is missing for " + widgetName + ".");
+            }
+            if (!(dataMap.get("date") instanceof Map<?, ?> dateRange)
+                    || !dateRange.containsKey("startDate") || !dateRange.containsKey("endDate")) {
+                throw new IllegalArgumentException("Invalid date range format for " + widgetName + ".");
+            }
+        } else if ("Value Card".equalsIgnoreCase(widgetName)) {
+            if (dataMap.get("date") == null) {
+                throw new IllegalArgumentException("Date is missing for Value Card.");
+            }
+            String sensorId = getSensorId(dataMap);
+            if (sensorId == null || sensorId.isEmpty()) {
+                throw new IllegalArgumentException("Sensor ID is missing or empty in Value Card.");
+            }
+            if (dataMap.get("aggregations") == null) {
+                throw new IllegalArgumentException("Aggregations data is missing in Value Card.");
             }
-
-            // Update sensor structure with sensorValues
-            LinkedHashMap<String, Object> updatedSensor = new LinkedHashMap<>(sensor);
-            updatedSensor.put("sensorValues", sensorValuesList);
-            updatedSensors.add(updatedSensor);
         }
-
-        return updatedSensors;
     }
 
-
-    private List<Map<String, Object>> fetchSensorTableValues(Map<String, Object> dataMap, LocalDateTime startTime, LocalDateTime endTime) {
-        List<Map<String, Object>> sensorsList = (List<Map<String, Object>>) dataMap.get("sensors");
-
-        if (sensorsList == null || sensorsList.isEmpty()) {
-            throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty");
+    /**
+     * One page of the table ordered by (timestamp, sensor) as "sensorTableData", plus "nextCursor" for the
+     * following page (null on the last one). Clients pass the cursor back unchanged with the same range.
+     */
+    public Map<String, Object> sensorTablePage(SensorTableQuery query, String cursor, Integer size) {
+        int limit = size != null ? size : sensorTablePageSize;
+        if (limit <= 0 || limit > sensorTableMaxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + sensorTableMaxPageSize + ".");
+        }
+        SensorChunkStore.PagePoint after = cursor != null && !cursor.isBlank() ? decodeTableCursor(cursor) : null;
+
+        Map<Integer, SensorCatalog> sensorsByKey = new LinkedHashMap<>();
+        query.sensors().forEach(sensor -> sensorsByKey.put(sensor.getSensorKey(), sensor));
+        List<SensorChunkStore.PagePoint> points = sensorChunkStore.page(new ArrayList<>(sensorsByKey.keySet()),
+                query.startTime(), query.endTime(), after, limit);
+
+        // Each sensor's readings are in time order within the page, so duplicates are adjacent per sensor
+        Map<Integer, OrderedDeduplicator> deduplicators = new HashMap<>();
+        if (after != null) {
+            deduplicators.computeIfAbsent(after.sensorKey(), key -> new OrderedDeduplicator())
+                    .accept(SensorChunkStore.fromMicros(after.time()), after.value());
         }
 
-        Set<String> addedEntries = new HashSet<>();
-        List<Map<String, Object>> tableData = new ArrayList<>();
-
-        for (Map<String, Object> sensorData : sensorsList) {
-            // Extract sensorIds and sensorTypes from each sensorData entry
-            Object rawSensorIds = sensorData.get("sensorId");
-            Object rawSensorTypes = sensorData.get("sensorType");
-
-            List<String> sensorIds = rawSensorIds instanceof List
-                    ? (List<String>) rawSensorIds
-                    : List.of(String.valueOf(rawSensorIds));
-
-            List<String> sensorTypes = rawSensorTypes instanceof List
-                    ? (List<String>) rawSensorTypes
-                    : List.of(String.valueOf(rawSensorTypes));
-
-            if (sensorIds.isEmpty() || sensorTypes.isEmpty()) {
-                throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty");
+        List<Map<String, Object>> rows = new ArrayList<>(points.size());
+        for (SensorChunkStore.PagePoint point : points) {
+            LocalDateTime timestamp = SensorChunkStore.fromMicros(point.time());
+            if (!deduplicators.computeIfAbsent(point.sensorKey(), key -> new OrderedDeduplicator()).accept(timestamp, point.value())) {
+                continue; // Skip duplicate
             }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("sensorId", sensorsByKey.get(point.sensorKey()).getSensorId());
+            row.put("value", point.value());
+            row.put("timestamp", timestamp.withNano(0).toString()); // Normalize timestamp
+            rows.add(row);
+        }
 
-            log.info("Validating sensors using sensorIds={} and sensorTypes={}", sensorIds, sensorTypes);
-            List<Sensor> validSensors = sensorRepository.findBySensorIdInAndSensorTypeIn(sensorIds, sensorTypes);
-
-            if (validSensors.isEmpty()) {
-                throw new GlobalExceptionHandler.InvalidSensorDataException("Invalid Sensors");
-            }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("sensorTableData", rows);
+        page.put("nextCursor", points.size() == limit ? encodeTableCursor(points.get(points.size() - 1)) : null);
+        return page;
+    }
 
-            for (Sensor sensor : validSensors) {
-                String sensorId = sensor.getSensorId();
-                log.info("Fetching sensor data table values for Sensor ID: {} from {} to {}", sensorId, startTime, endTime);
+    // First page for a widget config that is already parsed, e.g. while a whole report is opened
+    public Map<String, Object> firstSensorTablePage(TimeSeriesTableWidget table) {
+        return sensorTablePage(tableQuery(table, null, null), null, null);
+    }
 
-                List<Sensor> sensorValues = sensorRepository.findBySensorIdAndTimestampBetween(sensorId, startTime, endTime);
+    // Opaque to clients: epoch micros, value and sensor id of the last row, base64url encoded
+    private String encodeTableCursor(SensorChunkStore.PagePoint point) {
+        String raw = point.time() + "|" + point.value() + "|" + sensorCatalogService.sensorIdOf(point.sensorKey());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-                log.info("Fetched {} values for Sensor: {} in Sensor Data Table", sensorValues.size(), sensorId);
+    private SensorChunkStore.PagePoint decodeTableCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            Integer sensorKey = parts.length == 3 ? sensorCatalogService.keyOf(parts[2]) : null;
+            if (sensorKey == null) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new SensorChunkStore.PagePoint(Long.parseLong(parts[0]), sensorKey, Double.parseDouble(parts[1]));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
 
-                for (Sensor sv : sensorValues) {
-                    String valueStr = String.valueOf(sv.getValue());
-                    String timestampStr = sv.getTimestamp().withNano(0).toString(); // Normalize timestamp
-                    String key = sensorId + "|" + valueStr + "|" + timestampStr;
+    // Range and sensors of a stored Sensor Data Table widget, checked before anything is written to the response
+    public record SensorTableQuery(List<SensorCatalog> sensors, LocalDateTime startTime, LocalDateTime endTime) {}
 
-                    if (addedEntries.contains(key)) {
-                        continue; // Skip duplicate
-                    }
+    public SensorTableQuery prepareSensorTable(Long reportId, Long widgetId, String startDate, String endDate) {
+        ReportWidget reportWidget = reportWidgetRepository.findByReport_IdAndWidget_WidgetId(reportId, widgetId)
+                .orElseThrow(() -> new EntityNotFoundException("Widget " + widgetId + " not found in report " + reportId));
+        if (!"Sensor Data Table".equalsIgnoreCase(reportWidget.getWidget().getWidgetName())) {
+            throw new IllegalArgumentException("Widget " + widgetId + " is not a Sensor Data Table.");
+        }
 
-                    addedEntries.add(key);
+        return tableQuery(widgetConfigCache.of(reportWidget), startDate, endDate);
+    }
 
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    row.put("sensorId", sensorId);
-                    row.put("value", sv.getValue());
-                    row.put("timestamp", timestampStr);
-                    tableData.add(row);
-                }
-            }
+    // Sensors and range of a table config; explicit dates override the stored range
+    private SensorTableQuery tableQuery(WidgetConfig config, String startDate, String endDate) {
+        DateRange dateRange = config.getDate() != null && !config.getDate().isSingle() ? config.getDate() : null;
+        String start = startDate != null ? startDate : dateRange != null ? dateRange.getStartDate() : null;
+        String end = endDate != null ? endDate : dateRange != null ? dateRange.getEndDate() : null;
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Date range is missing for Sensor Data Table.");
         }
 
-        return tableData;
+        return new SensorTableQuery(resolveTableSensors(config),
+                parseDateOrDateTime(start, false), parseDateOrDateTime(end, true));
     }
 
+    /**
+     * Writes the table as a JSON array of {sensorId, value, timestamp} while reading it through a database cursor,
+     * so memory stays flat however long the range is.
+     */
+    public void writeSensorTable(SensorTableQuery query, OutputStream out) throws IOException {
+        OrderedDeduplicator deduplicator = new OrderedDeduplicator();
+        long[] written = {0};
 
-
-    public List<Map<String, Object>> fetchAlarms(List<String> sensorIdList,
-                                                 List<String> statusList,
-                                                 List<String> severityList,
-                                                 LocalDateTime startTime,
-                                                 LocalDateTime endTime) {
-
-        List<Map<String, Object>> allAlarms = new ArrayList<>();
-        Set<String> seenAlarms = new HashSet<>();
-
-        for (String sensorId : sensorIdList) {
-            List<AlarmEntity> alarms = alarmRepository.findAlarmsBySensorId(
-                    sensorId, statusList, severityList, startTime, endTime
-            );
-
-            for (AlarmEntity alarm : alarms) {
-                // Sort the sensorId array (assuming it's stored as JSON array)
-                List<String> sensorIds = alarm.getSensorId(); // assuming it's List<String>
-                List<String> sortedSensorIds = new ArrayList<>(sensorIds);
-                Collections.sort(sortedSensorIds);
-
-                // Create a unique string key for this alarm
-                String uniqueKey = alarm.getAlarmId() + "|" +
-                        String.join(",", sortedSensorIds) + "|" +
-                        alarm.getStatus() + "|" +
-                        alarm.getAlarmName();
-
-                // Add only if not seen before
-                if (seenAlarms.add(uniqueKey)) {
-                    Map<String, Object> alarmData = new LinkedHashMap<>();
-                    alarmData.put("alarmId", alarm.getAlarmId());
-                    alarmData.put("sensorId", sortedSensorIds);
-                    alarmData.put("status", alarm.getStatus());
-                    alarmData.put("alarmName", alarm.getAlarmName());
-                    allAlarms.add(alarmData);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (SensorCatalog sensor : query.sensors()) {
+                String sensorId = sensor.getSensorId();
+                deduplicator.reset();
+                try {
+                    sensorChunkStore.streamReadings(sensor.getSensorKey(), query.startTime(), query.endTime(), (time, value) -> {
+                        LocalDateTime timestamp = SensorChunkStore.fromMicros(time);
+                        if (!deduplicator.accept(timestamp, value)) {
+                            return;
+                        }
+                        try {
+                            generator.writeStartObject();
+                            generator.writeStringField("sensorId", sensorId);
+                            generator.writeNumberField("value", value);
+                            generator.writeStringField("timestamp", timestamp.withNano(0).toString());
+                            generator.writeEndObject();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        written[0]++;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
                 }
             }
+            generator.writeEndArray();
         }
-
-        return allAlarms;
+        log.info("Streamed {} Sensor Data Table rows for {} sensors from {} to {}",
+                written[0], query.sensors().size(), query.startTime(), query.endTime());
     }
 
+    // Valid catalog entries for the widget's sensor groups, each sensor once
+    private List<SensorCatalog> resolveTableSensors(WidgetConfig config) {
+        if (config.getSensors().isEmpty()) {
+            throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty");
+        }
 
-    private Map<String, Double> fetchAggregatedValues(String sensorId, LocalDateTime startTime, LocalDateTime endTime) {
-        Double maxValue = sensorRepository.findMaxValue(sensorId, startTime, endTime);
-        Double minValue = sensorRepository.findMinValue(sensorId, startTime, endTime);
-        Double avgValue = sensorRepository.findAverageValue(sensorId, startTime, endTime);
+        Map<String, SensorCatalog> sensors = new LinkedHashMap<>();
+        for (WidgetSensor sensorData : config.getSensors()) {
+            // sensorIds and sensorTypes of each entry, normalized to lists when the config was bound
+            List<String> sensorIds = sensorData.sensorIds();
+            List<String> sensorTypes = sensorData.sensorTypes();
 
-        Map<String, Double> aggregationMap = new LinkedHashMap<>();
-        aggregationMap.put("max", maxValue);
-        aggregationMap.put("min", minValue);
-        aggregationMap.put("average", avgValue);
+            if (sensorIds.isEmpty() || sensorTypes.isEmpty()) {
+                throw new GlobalExceptionHandler.InvalidInputException("Sensors  must not be empty");
+            }
 
-        return aggregationMap;
+            log.info("Validating sensors using sensorIds={} and sensorTypes={}", sensorIds, sensorTypes);
+            List<SensorCatalog> validSensors = sensorCatalogService.findAll(sensorIds, sensorTypes);
+
+            if (validSensors.isEmpty()) {
+                throw new GlobalExceptionHandler.InvalidSensorDataException("Invalid Sensors");
+            }
+            validSensors.forEach(sensor -> sensors.putIfAbsent(sensor.getSensorId(), sensor));
+        }
+        return new ArrayList<>(sensors.values());
     }
 
     private void validateWidgetData(String widgetName, Object rawData) {
@@ -623,21 +563,15 @@ public class ReportWidgetService {
                 if (types.size() == 1) {
                     String type = types.get(0);
                     for (String sensorId : sensorIds) {
-                        String sensorIdJson = wrapInJsonArray(sensorId);
-                        String typeJson = wrapInJsonArray(type);
-
-                        log.info("Calling existsBySensorIdAndType with sensorIdJson={}, typeJson={}", sensorIdJson, typeJson);
-                        if (!alarmRepository.existsBySensorIdAndType(sensorIdJson, typeJson)) {
+                        log.info("Checking alarm existence for sensorId={} and type={}", sensorId, type);
+                        if (!alarmSensorRepository.existsBySensorIdAndSensorType(sensorId, type)) {
                             throw new IllegalArgumentException("Alarm entry not found for sensorId=" + sensorId + " and type=" + type);
                         }
                     }
                 } else if (sensorIds.size() == types.size()) {
                     for (int i = 0; i < sensorIds.size(); i++) {
-                        String sensorIdJson = wrapInJsonArray(sensorIds.get(i));
-                        String typeJson = wrapInJsonArray(types.get(i));
-
                         log.info("Checking alarm existence for sensorId={} and type={}", sensorIds.get(i), types.get(i));
-                        if (!alarmRepository.existsBySensorIdAndType(sensorIdJson, typeJson)) {
+                        if (!alarmSensorRepository.existsBySensorIdAndSensorType(sensorIds.get(i), types.get(i))) {
                             throw new IllegalArgumentException("Alarm entry not found for sensorId=" + sensorIds.get(i) + " and type=" + types.get(i));
                         }
                     }
@@ -659,10 +593,10 @@ public class ReportWidgetService {
                 log.info("Checking sensor existence for sensorId={} and sensorType={}", sensorId, sensorType);
 
                 log.info(">> Extracted sensorId: {}, sensorType: {}", sensorId, sensorType);
-                log.info("Calling sensorRepository.findBySensorIdAndSensorType()...");
+                log.info("Looking up sensor in the sensor catalog...");
 
                 try {
-                    List<Sensor> sensors = sensorRepository.findBySensorIdAndSensorType(sensorId, sensorType);
+                    List<SensorCatalog> sensors = sensorCatalogService.findAll(List.of(sensorId), List.of(sensorType));
                     log.info("Sensor lookup completed. Found: {}", sensors);
                     if (sensors == null) {
                         throw new IllegalArgumentException("Sensor not found for sensorId=" + sensorId + ", sensorType=" + sensorType);
@@ -695,11 +629,6 @@ public class ReportWidgetService {
         throw new IllegalArgumentException("Expected a List or String but got: " + value.getClass());
     }
 
-    private String wrapInJsonArray(String value) {
-        return "[\"" + value + "\"]"; // ✅ Manual, fast & safe for a single string
-    }
-
-
     private String convertDataToJson(Object data) {
         try {
             return objectMapper.writeValueAsString(data);
@@ -0,0 +1,114 @@
+package com.Project.DataAcquisition.Service.Reports.Manual;
+
+import com.Project.DataAcquisition.Entity.Reports.Automated.AutomatedReportWidget;
+import com.Project.DataAcquisition.Entity.Reports.Layout.ReportWidget;
+import com.Project.DataAcquisition.Model.SensorSeries;
+import com.Project.DataAcquisition.Model.WidgetConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Widget configurations bound once into their typed models (see WidgetConfig) and kept for later renders.
+ * Report widgets are cached per (id, version): any update bumps the version, so a stale entry is never returned.
+ * Automated report widgets never change after generation and are cached per id, together with their stored
+ * readings; the cache is bounded by entries and by the number of readings it holds, least recently used first.
+ * <p>
+ * Keys are matched case-insensitively and single values are accepted where lists are expected, which is how
+ * the configurations have always been read.
+ */
+@Service
+public class WidgetConfigCache {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Value("${reports.widget-config-cache.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${reports.widget-config-cache.max-points:2000000}")
+    private long maxPoints;
+
+    private record Entry(long version, WidgetConfig config) {}
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long points;
+
+    /**
+     * Configuration of a report widget. Readings stored by older versions are skipped, a report render reads
+     * them again anyway.
+     *
+     * @throws IllegalArgumentException if the stored JSON cannot be bound
+     */
+    public WidgetConfig of(ReportWidget reportWidget) {
+        String widgetName = reportWidget.getWidget().getWidgetName();
+        if (reportWidget.getId() == null || reportWidget.getVersion() == null) {
+            return parse(widgetName, reportWidget.getData(), true);
+        }
+        return cached("r" + reportWidget.getId(), reportWidget.getVersion(), widgetName, reportWidget.getData(), true);
+    }
+
+    // Configuration of an automated report widget, including its stored readings
+    public WidgetConfig of(AutomatedReportWidget automatedWidget) {
+        String widgetName = automatedWidget.getWidget().getWidgetName();
+        if (automatedWidget.getId() == null) {
+            return parse(widgetName, automatedWidget.getData(), false);
+        }
+        return cached("a" + automatedWidget.getId(), 0, widgetName, automatedWidget.getData(), false);
+    }
+
+    // Binds a configuration that is not stored yet, e.g. a request body; never cached
+    public WidgetConfig bind(String widgetName, Map<String, Object> data) {
+        return objectMapper.convertValue(data != null ? data : Map.of(), WidgetConfig.forWidget(widgetName).getClass());
+    }
+
+    private WidgetConfig cached(String key, long version, String widgetName, String json, boolean skipReadings) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version() == version) {
+                return entry.config();
+            }
+        }
+        // Parsed outside the lock; two readers of the same new version both parse and the last one is kept
+        WidgetConfig config = parse(widgetName, json, skipReadings);
+        synchronized (entries) {
+            Entry previous = entries.put(key, new Entry(version, config));
+            points += config.weight() - (previous != null ? previous.config().weight() : 0);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || points > maxPoints) && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                points -= evicted.config().weight();
+            }
+        }
+        return config;
+    }
+
+    private WidgetConfig parse(String widgetName, String json, boolean skipReadings) {
+        Class<? extends WidgetConfig> type = WidgetConfig.forWidget(widgetName).getClass();
+        if (json == null || json.isBlank()) {
+            return WidgetConfig.forWidget(widgetName);
+        }
+        ObjectReader reader = objectMapper.readerFor(type);
+        if (skipReadings) {
+            reader = reader.withAttribute(SensorSeries.SKIP_STORED, Boolean.TRUE);
+        }
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON format in widget data", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Alarms linked to any of the sensors, filtered like AlarmRepository.findAlarmsBySensorIds
+public record AlarmQuery(List<String> sensorIds,
+                         List<String> statusList,
+                         List<String> severityList,
+                         LocalDateTime startTime,
+                         LocalDateTime endTime,
+                         Pageable pageable) {
+
+    // An empty list matches nothing, as in the repository
+    boolean matchesNothing() {
+        return sensorIds.isEmpty() || statusList.isEmpty() || severityList.isEmpty();
+    }
+}
@@ -0,0 +1,79 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
+import com.Project.DataAcquisition.Model.AlarmTableWidget;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alarms Tables: alarms linked to the table's sensors with the selected statuses and severities, newest first.
+ * The optional page / pageSize of the configuration apply to report views and updates; automated reports list
+ * the whole generated window.
+ */
+@Component
+public class AlarmTableRenderer implements WidgetRenderer<AlarmTableWidget> {
+
+    @Override
+    public Class<AlarmTableWidget> configType() {
+        return AlarmTableWidget.class;
+    }
+
+    @Override
+    public void plan(AlarmTableWidget config, RenderContext context, ReadPlan plan) {
+        plan.alarms(query(config, context));
+    }
+
+    @Override
+    public void render(AlarmTableWidget config, RenderContext context, PlannedReads reads, Map<String, Object> data) {
+        AlarmQuery query = query(config, context);
+        if (query.startTime() == null && context.strict()) {
+            throw new IllegalArgumentException("Date range is missing for Alarms Table.");
+        }
+
+        List<Map<String, Object>> alarmTableData = new ArrayList<>();
+        for (AlarmEntity alarm : reads.alarms(query)) {
+            List<String> sortedSensorIds = new ArrayList<>(alarm.getSensorId());
+            Collections.sort(sortedSensorIds);
+
+            Map<String, Object> alarmMap = new LinkedHashMap<>();
+            alarmMap.put("alarmId", alarm.getAlarmId());
+            alarmMap.put("alarmName", alarm.getAlarmName());
+            alarmMap.put("status", alarm.getStatus());
+            alarmMap.put("severity", alarm.getSeverity());
+            alarmMap.put("sensorId", sortedSensorIds);
+            alarmMap.put("createdAt", alarm.getCreatedAt().format(ReportService.DATE_TIME_FORMATTER));
+            alarmTableData.add(alarmMap);
+        }
+
+        if (!context.isGenerated()) {
+            WidgetRenderer.putDateLast(data, config.getDate());
+        }
+        data.put("alarmTableData", alarmTableData);
+    }
+
+    private static AlarmQuery query(AlarmTableWidget config, RenderContext context) {
+        LocalDateTime startTime = context.start(config.getDate());
+        LocalDateTime endTime = context.end(config.getDate());
+        return new AlarmQuery(config.sensorIds(),
+                config.getStatus() != null ? config.getStatus() : Collections.emptyList(),
+                config.getSeverity() != null ? config.getSeverity() : Collections.emptyList(),
+                startTime, endTime, context.isGenerated() ? Pageable.unpaged() : page(config));
+    }
+
+    private static Pageable page(AlarmTableWidget config) {
+        if (config.getPageSize() != null && config.getPageSize() > 0) {
+            int pageNumber = config.getPage() != null ? Math.max(config.getPage(), 0) : 0;
+            return PageRequest.of(pageNumber, config.getPageSize());
+        }
+        return Pageable.unpaged();
+    }
+}
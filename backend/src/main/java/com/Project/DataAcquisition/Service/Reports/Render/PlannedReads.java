@@ -0,0 +1,106 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Service.Alarm.SensorChunkStore;
+import com.Project.DataAcquisition.Service.Alarm.SensorHotWindowStore;
+import com.Project.DataAcquisition.Service.Alarm.SensorReadCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of an executed ReadPlan, handed out per widget. Each widget gets a view of the merged read that
+ * covers its range, so widgets sharing a sensor share one list. A read that was not planned still works,
+ * it just goes to the store on its own. Statistics come from a planned read that covers the range, otherwise
+ * from the store's aggregate query, so they never load readings just to add them up.
+ */
+public class PlannedReads {
+
+    private static final Logger log = LoggerFactory.getLogger(PlannedReads.class);
+
+    private record LoadedSeries(LocalDateTime to, List<Sensor> readings) {}
+
+    private final SensorHotWindowStore sensorHotWindowStore;
+    private final AlarmRepository alarmRepository;
+
+    // Merged ranges per sensor key, by start
+    private final Map<Integer, TreeMap<LocalDateTime, LoadedSeries>> series = new HashMap<>();
+    private final Map<AlarmQuery, List<AlarmEntity>> alarms = new HashMap<>();
+
+    PlannedReads(SensorHotWindowStore sensorHotWindowStore, AlarmRepository alarmRepository) {
+        this.sensorHotWindowStore = sensorHotWindowStore;
+        this.alarmRepository = alarmRepository;
+    }
+
+    void putSeries(Integer sensorKey, LocalDateTime from, LocalDateTime to, List<Sensor> readings) {
+        series.computeIfAbsent(sensorKey, key -> new TreeMap<>()).put(from, new LoadedSeries(to, readings));
+    }
+
+    void putAlarms(AlarmQuery query, List<AlarmEntity> result) {
+        alarms.put(query, result);
+    }
+
+    // Readings of the sensor in [from, to], in time order
+    public List<Sensor> readings(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        if (sensorKey == null || from == null || to == null || from.isAfter(to)) {
+            return List.of();
+        }
+        List<Sensor> planned = planned(sensorKey, from, to);
+        if (planned == null) {
+            log.debug("Unplanned read of sensor key {} from {} to {}", sensorKey, from, to);
+            return sensorHotWindowStore.findReadings(sensorKey, from, to);
+        }
+        return planned;
+    }
+
+    // Count, sum, min and max of the sensor's readings in [from, to]
+    public SensorChunkStore.ValueStats stats(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        if (sensorKey == null || from == null || to == null || from.isAfter(to)) {
+            return SensorChunkStore.ValueStats.EMPTY;
+        }
+        List<Sensor> planned = planned(sensorKey, from, to);
+        if (planned == null) {
+            return sensorHotWindowStore.findStats(sensorKey, from, to);
+        }
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Sensor reading : planned) {
+            sum += reading.getValue();
+            min = Math.min(min, reading.getValue());
+            max = Math.max(max, reading.getValue());
+        }
+        return new SensorChunkStore.ValueStats(planned.size(), sum, min, max);
+    }
+
+    // The planned readings of [from, to], or null when no planned read covers the range
+    private List<Sensor> planned(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        TreeMap<LocalDateTime, LoadedSeries> loaded = series.get(sensorKey);
+        Map.Entry<LocalDateTime, LoadedSeries> covering = loaded != null ? loaded.floorEntry(from) : null;
+        if (covering == null || covering.getValue().to().isBefore(to)) {
+            return null;
+        }
+        return SensorReadCoalescer.slice(covering.getValue().readings(), from, to);
+    }
+
+    // Alarms of the query, newest first
+    public List<AlarmEntity> alarms(AlarmQuery query) {
+        if (query.matchesNothing() || query.startTime() == null || query.endTime() == null) {
+            return List.of();
+        }
+        List<AlarmEntity> result = alarms.get(query);
+        if (result == null) {
+            log.debug("Unplanned alarm query {}", query);
+            return alarmRepository.findAlarmsBySensorIds(query.sensorIds(), query.statusList(), query.severityList(),
+                    query.startTime(), query.endTime(), query.pageable());
+        }
+        return result;
+    }
+}
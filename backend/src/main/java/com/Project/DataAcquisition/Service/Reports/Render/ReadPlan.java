@@ -0,0 +1,35 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads declared by the widgets of one render, before anything is queried
+public class ReadPlan {
+
+    record SeriesRead(Integer sensorKey, LocalDateTime from, LocalDateTime to) {}
+
+    private final List<SeriesRead> seriesReads = new ArrayList<>();
+    private final List<AlarmQuery> alarmQueries = new ArrayList<>();
+
+    // Readings of one sensor over [from, to]; unknown sensors (null key) read nothing
+    public void readings(Integer sensorKey, LocalDateTime from, LocalDateTime to) {
+        if (sensorKey != null && from != null && to != null && !from.isAfter(to)) {
+            seriesReads.add(new SeriesRead(sensorKey, from, to));
+        }
+    }
+
+    public void alarms(AlarmQuery query) {
+        if (!query.matchesNothing() && query.startTime() != null && query.endTime() != null) {
+            alarmQueries.add(query);
+        }
+    }
+
+    List<SeriesRead> seriesReads() {
+        return seriesReads;
+    }
+
+    List<AlarmQuery> alarmQueries() {
+        return alarmQueries;
+    }
+}
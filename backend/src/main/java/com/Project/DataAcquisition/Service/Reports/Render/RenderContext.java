@@ -0,0 +1,70 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Model.DateRange;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * What widgets are rendered for. Report views and widget updates read over each widget's stored date range;
+ * automated reports read over the window their schedule generated, and chart the readings stored with them.
+ *
+ * @param now         end of relative ranges (the 24 hour chart default), fixed once per render
+ * @param windowStart generated window of an automated report, null otherwise
+ * @param windowEnd   end of that window
+ * @param strict      whether an incomplete configuration is rejected (widget updates) or rendered as far as it goes
+ */
+public record RenderContext(LocalDateTime now, LocalDateTime windowStart, LocalDateTime windowEnd, boolean strict) {
+
+    public static RenderContext report() {
+        return new RenderContext(LocalDateTime.now(), null, null, false);
+    }
+
+    public static RenderContext update() {
+        return new RenderContext(LocalDateTime.now(), null, null, true);
+    }
+
+    public static RenderContext generated(LocalDateTime windowStart, LocalDateTime windowEnd) {
+        return new RenderContext(windowEnd, windowStart, windowEnd, false);
+    }
+
+    public boolean isGenerated() {
+        return windowStart != null;
+    }
+
+    // Start of the range: the generated window, else the stored (start) date, null when missing or unparsable
+    public LocalDateTime start(DateRange date) {
+        if (isGenerated()) {
+            return windowStart;
+        }
+        return date != null ? parse(date.getStartDate(), false) : null;
+    }
+
+    // End of the range: the generated window, else the end of the stored end date, else now
+    public LocalDateTime end(DateRange date) {
+        if (isGenerated()) {
+            return windowEnd;
+        }
+        LocalDateTime end = date != null && !date.isSingle() ? parse(date.getEndDate(), true) : null;
+        return end != null ? end : now;
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" as is, a bare date at the start or end of that day
+    static LocalDateTime parse(String input, boolean endOfDay) {
+        if (input == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(input, ReportService.DATE_TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            try {
+                LocalDate day = LocalDate.parse(input);
+                return endOfDay ? day.atTime(23, 59, 59) : day.atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+}
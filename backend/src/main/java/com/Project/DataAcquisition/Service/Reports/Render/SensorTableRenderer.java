@@ -0,0 +1,107 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Model.TimeSeriesTableWidget;
+import com.Project.DataAcquisition.Model.WidgetSensor;
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Reports.Manual.ReportWidgetService;
+import com.Project.DataAcquisition.Utils.OrderedDeduplicator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sensor Data Tables. Report views and updates show the first keyset page (ReportWidgetService.sensorTablePage,
+ * the rest is paged by clients); automated reports list every reading of the generated window.
+ */
+@Component
+public class SensorTableRenderer implements WidgetRenderer<TimeSeriesTableWidget> {
+
+    private static final Logger log = LoggerFactory.getLogger(SensorTableRenderer.class);
+
+    private final SensorCatalogService sensorCatalogService;
+    // Looked up on use: ReportWidgetService renders widget updates through WidgetRenderers itself
+    private final ObjectProvider<ReportWidgetService> reportWidgetService;
+
+    public SensorTableRenderer(SensorCatalogService sensorCatalogService,
+                               ObjectProvider<ReportWidgetService> reportWidgetService) {
+        this.sensorCatalogService = sensorCatalogService;
+        this.reportWidgetService = reportWidgetService;
+    }
+
+    @Override
+    public Class<TimeSeriesTableWidget> configType() {
+        return TimeSeriesTableWidget.class;
+    }
+
+    @Override
+    public void plan(TimeSeriesTableWidget config, RenderContext context, ReadPlan plan) {
+        if (context.isGenerated()) {
+            tableSensors(config).forEach(sensor -> plan.readings(sensor.getSensorKey(), context.windowStart(), context.windowEnd()));
+        }
+    }
+
+    @Override
+    public void render(TimeSeriesTableWidget config, RenderContext context, PlannedReads reads, Map<String, Object> data) {
+        if (context.isGenerated()) {
+            data.put("sensorTableData", generatedRows(config, context, reads));
+            return;
+        }
+
+        WidgetRenderer.putDateLast(data, config.getDate());
+        try {
+            data.putAll(reportWidgetService.getObject().firstSensorTablePage(config));
+        } catch (RuntimeException e) {
+            if (context.strict()) {
+                throw e;
+            }
+            log.warn("Error fetching sensor table page: {}", e.getMessage());
+        }
+    }
+
+    // Every reading of the table's sensors in the window, sensor by sensor, without adjacent duplicates
+    private List<Map<String, Object>> generatedRows(TimeSeriesTableWidget config, RenderContext context, PlannedReads reads) {
+        Collection<SensorCatalog> sensors = tableSensors(config);
+        if (sensors.isEmpty()) {
+            log.warn("No sensors provided for fetching values in Sensor Data Table");
+            return List.of();
+        }
+        OrderedDeduplicator deduplicator = new OrderedDeduplicator();
+        List<Map<String, Object>> tableData = new ArrayList<>();
+        for (SensorCatalog sensor : sensors) {
+            deduplicator.reset();
+            for (Sensor reading : reads.readings(sensor.getSensorKey(), context.windowStart(), context.windowEnd())) {
+                if (!deduplicator.accept(reading.getTimestamp(), reading.getValue())) {
+                    continue; // skip duplicate
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("sensorId", sensor.getSensorId());
+                row.put("value", reading.getValue());
+                row.put("timestamp", reading.getTimestamp().withNano(0).toString()); // remove nanoseconds
+                tableData.add(row);
+            }
+        }
+        return tableData;
+    }
+
+    // Catalog entries of each sensor entry's ids and types, each sensor once
+    private Collection<SensorCatalog> tableSensors(TimeSeriesTableWidget config) {
+        Map<String, SensorCatalog> sensors = new LinkedHashMap<>();
+        for (WidgetSensor entry : config.getSensors()) {
+            if (entry.sensorIds().isEmpty() || entry.sensorTypes().isEmpty()) {
+                continue;
+            }
+            sensorCatalogService.findAll(entry.sensorIds(), entry.sensorTypes())
+                    .forEach(sensor -> sensors.putIfAbsent(sensor.getSensorId(), sensor));
+        }
+        return sensors.values();
+    }
+}
@@ -0,0 +1,79 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Model.ValueCardWidget;
+import com.Project.DataAcquisition.Service.Alarm.SensorCatalogService;
+import com.Project.DataAcquisition.Service.Alarm.SensorChunkStore;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Value cards: the requested aggregations of the card's sensor over its day. Automated reports aggregate all
+ * of the card's sensors over the generated window and always give max, min and average.
+ * <p>
+ * Cards plan no reads of their own. When another widget of the render reads the card's sensor over a range
+ * covering the card's, the aggregations come from those readings; otherwise from one aggregate query, so a
+ * card over a month of readings never loads them.
+ */
+@Component
+public class ValueCardRenderer implements WidgetRenderer<ValueCardWidget> {
+
+    private final SensorCatalogService sensorCatalogService;
+
+    public ValueCardRenderer(SensorCatalogService sensorCatalogService) {
+        this.sensorCatalogService = sensorCatalogService;
+    }
+
+    @Override
+    public Class<ValueCardWidget> configType() {
+        return ValueCardWidget.class;
+    }
+
+    @Override
+    public void plan(ValueCardWidget config, RenderContext context, ReadPlan plan) {
+        // Nothing to read up front, see render
+    }
+
+    @Override
+    public void render(ValueCardWidget config, RenderContext context, PlannedReads reads, Map<String, Object> data) {
+        if (context.isGenerated()) {
+            if (config.getAggregations() == null) {
+                return;
+            }
+            SensorChunkStore.ValueStats stats = SensorChunkStore.ValueStats.EMPTY;
+            for (String sensorId : config.sensorIds()) {
+                stats = stats.plus(reads.stats(sensorCatalogService.keyOf(sensorId), context.windowStart(), context.windowEnd()));
+            }
+            Map<String, Double> aggregationValues = new LinkedHashMap<>();
+            aggregationValues.put("max", stats.maxOrNull());
+            aggregationValues.put("min", stats.minOrNull());
+            aggregationValues.put("average", stats.averageOrNull());
+            data.put("aggregationValues", aggregationValues);
+            return;
+        }
+
+        LocalDateTime startOfDay = context.start(config.getDate());
+        if (config.sensorId() == null || startOfDay == null) {
+            return;
+        }
+        SensorChunkStore.ValueStats stats = reads.stats(sensorCatalogService.keyOf(config.sensorId()), startOfDay, endOfDay(startOfDay));
+
+        Map<String, Double> aggregationValues = new LinkedHashMap<>();
+        if (config.wants("max")) {
+            aggregationValues.put("max", stats.maxOrNull());
+        }
+        if (config.wants("min")) {
+            aggregationValues.put("min", stats.minOrNull());
+        }
+        if (config.wants("average")) {
+            aggregationValues.put("average", stats.averageOrNull());
+        }
+        data.put("aggregationValues", aggregationValues);
+    }
+
+    private static LocalDateTime endOfDay(LocalDateTime startOfDay) {
+        return startOfDay.withHour(23).withMinute(59).withSecond(59);
+    }
+}
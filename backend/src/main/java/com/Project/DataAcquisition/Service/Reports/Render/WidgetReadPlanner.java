@@ -0,0 +1,153 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Entity.Alarms.AlarmEntity;
+import com.Project.DataAcquisition.Repository.Alarm.AlarmRepository;
+import com.Project.DataAcquisition.Service.Alarm.SensorHotWindowStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the reads declared by all widgets of a render as few queries as possible:
+ * <ul>
+ *   <li>per sensor, overlapping or adjacent ranges are read once over their union;</li>
+ *   <li>unpaged alarm queries with overlapping ranges become one query over the union of their sensors,
+ *       statuses and severities, and each widget's rows are filtered back out in memory (the order is kept).</li>
+ * </ul>
+ * Paged alarm queries run on their own, a page of a union is not a page of its parts.
+ */
+@Service
+public class WidgetReadPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(WidgetReadPlanner.class);
+
+    private final SensorHotWindowStore sensorHotWindowStore;
+    private final AlarmRepository alarmRepository;
+
+    public WidgetReadPlanner(SensorHotWindowStore sensorHotWindowStore, AlarmRepository alarmRepository) {
+        this.sensorHotWindowStore = sensorHotWindowStore;
+        this.alarmRepository = alarmRepository;
+    }
+
+    public PlannedReads execute(ReadPlan plan) {
+        PlannedReads reads = new PlannedReads(sensorHotWindowStore, alarmRepository);
+        int seriesQueries = executeSeries(plan.seriesReads(), reads);
+        int alarmQueries = executeAlarms(plan.alarmQueries(), reads);
+        log.debug("Read plan: {} series reads as {} queries, {} alarm queries as {}",
+                plan.seriesReads().size(), seriesQueries, plan.alarmQueries().size(), alarmQueries);
+        return reads;
+    }
+
+    private int executeSeries(List<ReadPlan.SeriesRead> seriesReads, PlannedReads reads) {
+        Map<Integer, List<ReadPlan.SeriesRead>> bySensor = new LinkedHashMap<>();
+        seriesReads.forEach(read -> bySensor.computeIfAbsent(read.sensorKey(), key -> new ArrayList<>()).add(read));
+
+        int queries = 0;
+        for (Map.Entry<Integer, List<ReadPlan.SeriesRead>> entry : bySensor.entrySet()) {
+            Integer sensorKey = entry.getKey();
+            List<ReadPlan.SeriesRead> ranges = entry.getValue();
+            ranges.sort(Comparator.comparing(ReadPlan.SeriesRead::from));
+
+            LocalDateTime from = null;
+            LocalDateTime to = null;
+            for (ReadPlan.SeriesRead range : ranges) {
+                // Day ranges end at 23:59:59, so the next day starting a second later still joins
+                if (from != null && !range.from().isAfter(to.plusSeconds(1))) {
+                    to = range.to().isAfter(to) ? range.to() : to;
+                    continue;
+                }
+                if (from != null) {
+                    reads.putSeries(sensorKey, from, to, sensorHotWindowStore.findReadings(sensorKey, from, to));
+                    queries++;
+                }
+                from = range.from();
+                to = range.to();
+            }
+            reads.putSeries(sensorKey, from, to, sensorHotWindowStore.findReadings(sensorKey, from, to));
+            queries++;
+        }
+        return queries;
+    }
+
+    private int executeAlarms(List<AlarmQuery> alarmQueries, PlannedReads reads) {
+        List<AlarmQuery> unpaged = new ArrayList<>();
+        int queries = 0;
+        for (AlarmQuery query : new LinkedHashSet<>(alarmQueries)) {
+            if (query.pageable().isPaged()) {
+                reads.putAlarms(query, alarmRepository.findAlarmsBySensorIds(query.sensorIds(), query.statusList(),
+                        query.severityList(), query.startTime(), query.endTime(), query.pageable()));
+                queries++;
+            } else {
+                unpaged.add(query);
+            }
+        }
+
+        unpaged.sort(Comparator.comparing(AlarmQuery::startTime));
+        List<AlarmQuery> group = new ArrayList<>();
+        LocalDateTime groupEnd = null;
+        for (AlarmQuery query : unpaged) {
+            if (!group.isEmpty() && query.startTime().isAfter(groupEnd)) {
+                executeAlarmGroup(group, reads);
+                queries++;
+                group = new ArrayList<>();
+            }
+            group.add(query);
+            groupEnd = group.size() == 1 || query.endTime().isAfter(groupEnd) ? query.endTime() : groupEnd;
+        }
+        if (!group.isEmpty()) {
+            executeAlarmGroup(group, reads);
+            queries++;
+        }
+        return queries;
+    }
+
+    // One query for queries whose ranges overlap, split back per query
+    private void executeAlarmGroup(List<AlarmQuery> group, PlannedReads reads) {
+        if (group.size() == 1) {
+            AlarmQuery query = group.get(0);
+            reads.putAlarms(query, alarmRepository.findAlarmsBySensorIds(query.sensorIds(), query.statusList(),
+                    query.severityList(), query.startTime(), query.endTime(), Pageable.unpaged()));
+            return;
+        }
+        Set<String> sensorIds = new LinkedHashSet<>();
+        Set<String> statuses = new LinkedHashSet<>();
+        Set<String> severities = new LinkedHashSet<>();
+        LocalDateTime start = group.get(0).startTime();
+        LocalDateTime end = group.get(0).endTime();
+        for (AlarmQuery query : group) {
+            sensorIds.addAll(query.sensorIds());
+            statuses.addAll(query.statusList());
+            severities.addAll(query.severityList());
+            end = query.endTime().isAfter(end) ? query.endTime() : end;
+        }
+        List<AlarmEntity> union = alarmRepository.findAlarmsBySensorIds(new ArrayList<>(sensorIds), new ArrayList<>(statuses),
+                new ArrayList<>(severities), start, end, Pageable.unpaged());
+
+        for (AlarmQuery query : group) {
+            Set<String> querySensors = new HashSet<>(query.sensorIds());
+            List<AlarmEntity> rows = new ArrayList<>();
+            for (AlarmEntity alarm : union) {
+                if (query.statusList().contains(alarm.getStatus())
+                        && query.severityList().contains(alarm.getSeverity())
+                        && !alarm.getCreatedAt().isBefore(query.startTime())
+                        && !alarm.getCreatedAt().isAfter(query.endTime())
+                        && alarm.getSensorId() != null
+                        && alarm.getSensorId().stream().anyMatch(querySensors::contains)) {
+                    rows.add(alarm);
+                }
+            }
+            reads.putAlarms(query, rows);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Model.DateRange;
+import com.Project.DataAcquisition.Model.WidgetConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders one kind of widget in two steps so a whole report can be read at once: {@link #plan} declares the
+ * readings and alarms the widget needs, WidgetReadPlanner runs the plans of all widgets as few queries, and
+ * {@link #render} fills the widget's data from its slice of the results.
+ * <p>
+ * Implementations are Spring beans picked up by WidgetRenderers; plan and render must agree on the ranges they
+ * use, which is why relative ranges end at {@link RenderContext#now()} rather than the current time.
+ */
+public interface WidgetRenderer<C extends WidgetConfig> {
+
+    // Configurations this renderer handles (subclasses included)
+    Class<C> configType();
+
+    // Declares what the widget reads; nothing is read here
+    void plan(C config, RenderContext context, ReadPlan plan);
+
+    // Puts the widget's live values (readings, aggregations, table rows) into data
+    void render(C config, RenderContext context, PlannedReads reads, Map<String, Object> data);
+
+    // Tables list their "date" after the sensors, always as a {"startDate", "endDate"} map
+    static void putDateLast(Map<String, Object> data, DateRange date) {
+        data.remove("date");
+        data.put("date", date != null ? date.toMap() : new LinkedHashMap<>());
+    }
+}
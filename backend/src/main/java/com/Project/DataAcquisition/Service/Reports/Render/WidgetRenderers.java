@@ -0,0 +1,61 @@
+package com.Project.DataAcquisition.Service.Reports.Render;
+
+import com.Project.DataAcquisition.Model.WidgetConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registered WidgetRenderers, looked up by configuration type. Renders any number of widgets with one
+ * ReadPlan, so widgets of a report that read the same sensors or alarms share the queries.
+ */
+@Service
+public class WidgetRenderers {
+
+    // A widget's configuration and the data map its live values are put into
+    public record Target(WidgetConfig config, Map<String, Object> data) {}
+
+    private final List<WidgetRenderer<?>> renderers;
+    private final WidgetReadPlanner widgetReadPlanner;
+    private final Map<Class<?>, Optional<WidgetRenderer<?>>> byType = new ConcurrentHashMap<>();
+
+    public WidgetRenderers(List<WidgetRenderer<?>> renderers, WidgetReadPlanner widgetReadPlanner) {
+        this.renderers = renderers;
+        this.widgetReadPlanner = widgetReadPlanner;
+    }
+
+    public void render(WidgetConfig config, Map<String, Object> data, RenderContext context) {
+        render(List.of(new Target(config, data)), context);
+    }
+
+    // Plans every widget, reads once, then renders each from its slice; widgets without a renderer are left as they are
+    public void render(List<Target> targets, RenderContext context) {
+        ReadPlan plan = new ReadPlan();
+        for (Target target : targets) {
+            rendererFor(target.config()).ifPresent(renderer -> plan(renderer, target.config(), context, plan));
+        }
+        PlannedReads reads = widgetReadPlanner.execute(plan);
+        for (Target target : targets) {
+            rendererFor(target.config()).ifPresent(renderer -> render(renderer, target, context, reads));
+        }
+    }
+
+    private Optional<WidgetRenderer<?>> rendererFor(WidgetConfig config) {
+        return byType.computeIfAbsent(config.getClass(), type -> renderers.stream()
+                .filter(renderer -> renderer.configType().isAssignableFrom(type))
+                .findFirst());
+    }
+
+    private static <C extends WidgetConfig> void plan(WidgetRenderer<C> renderer, WidgetConfig config,
+                                                      RenderContext context, ReadPlan plan) {
+        renderer.plan(renderer.configType().cast(config), context, plan);
+    }
+
+    private static <C extends WidgetConfig> void render(WidgetRenderer<C> renderer, Target target,
+                                                        RenderContext context, PlannedReads reads) {
+        renderer.render(renderer.configType().cast(target.config()), context, reads, target.data());
+    }
+}
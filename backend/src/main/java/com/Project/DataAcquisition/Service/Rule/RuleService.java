@@ -4,6 +4,7 @@ import com.Project.DataAcquisition.Entity.Rules.RtuData;
 import com.Project.DataAcquisition.Entity.Rules.Rule;
 import com.Project.DataAcquisition.Repository.Alarm.RtuDataRepository;
 import com.Project.DataAcquisition.Repository.Rule.RuleRepository;
+import com.Project.DataAcquisition.Utils.ChangeWatermarks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -20,11 +21,16 @@ public class RuleService {
     @Autowired
     private RtuDataRepository rtuDataRepository;
 
+    @Autowired
+    private ChangeWatermarks changeWatermarks;
+
     //  Save Rule
     public Rule saveRule(Rule rule) {
         setRtuDetails(rule); // Ensure RTU details are set
         rule.setLastUpdated(LocalDateTime.now());
-        return ruleRepository.save(rule);
+        Rule saved = ruleRepository.save(rule);
+        changeWatermarks.touch(ChangeWatermarks.RULES);
+        return saved;
     }
 
     //  Get all Rules (Ensure RTU details are included)
@@ -61,7 +67,9 @@ public class RuleService {
             //  Ensure RTU details are updated correctly
             setRtuDetails(existingRule, updatedRule.getRtuId());
 
-            return ruleRepository.save(existingRule);
+            Rule saved = ruleRepository.save(existingRule);
+            changeWatermarks.touch(ChangeWatermarks.RULES);
+            return saved;
         }
         return null;
     }
@@ -70,6 +78,7 @@ public class RuleService {
     public boolean deleteRule(Long id) {
         if (ruleRepository.existsById(id)) {
             ruleRepository.deleteById(id);
+            changeWatermarks.touch(ChangeWatermarks.RULES);
             return true;
         }
         return false;
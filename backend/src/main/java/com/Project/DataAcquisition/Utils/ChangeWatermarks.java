@@ -0,0 +1,87 @@
+package com.Project.DataAcquisition.Utils;
+
+import com.Project.DataAcquisition.DTO.Alarms.AlarmEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters behind the ETags of frequently polled reads (layouts, widget types, automated reports and the
+ * dashboard summaries). Every service that writes one of these resources touches its counter; a poll whose
+ * If-None-Match still carries the current counters is answered with 304 before anything is loaded or serialized.
+ * <p>
+ * Counters are bumped after the writing transaction commits, so a tag never names data a reader cannot see yet.
+ * They live in memory like the alarm stream's summary deltas, and the startup epoch in every tag makes a restart
+ * invalidate all earlier tags.
+ */
+@Component
+public class ChangeWatermarks {
+
+    public static final String ALARMS = "alarms";
+    public static final String RULES = "rules";
+    public static final String REPORTS = "reports"; // manual and automated
+    public static final String LAYOUTS = "layouts";
+    public static final String WIDGETS = "widgets";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long version(String resource) {
+        return counter(resource).get();
+    }
+
+    // Tag from the current versions of the given resources plus any identifying parts (ids, timestamps)
+    public String tag(String[] resources, Object... parts) {
+        StringBuilder tag = new StringBuilder(epoch);
+        for (String resource : resources) {
+            tag.append('-').append(Long.toString(version(resource), 36));
+        }
+        for (Object part : parts) {
+            tag.append('-').append(part);
+        }
+        return tag.toString();
+    }
+
+    public void touch(String resource) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter(resource).incrementAndGet();
+                }
+            });
+        } else {
+            counter(resource).incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onAlarmEvent(AlarmEvent event) {
+        touch(ALARMS);
+    }
+
+    /**
+     * Sets the ETag (and Last-Modified when given, else -1) and reports whether the client's copy is current;
+     * the handler then returns null and Spring sends 304. Tags are weak because Tomcat does not compress
+     * responses carrying a strong ETag, and they include Accept and format since one URL serves JSON,
+     * columnar JSON, Smile and CBOR.
+     */
+    public static boolean notModified(WebRequest request, String tag, long lastModified) {
+        String variant = request.getHeader("Accept") + "|" + request.getParameter("format");
+        return request.checkNotModified("W/\"" + tag + "-" + Integer.toHexString(variant.hashCode()) + "\"", lastModified);
+    }
+
+    public static boolean notModified(WebRequest request, String tag) {
+        return notModified(request, tag, -1);
+    }
+
+    private AtomicLong counter(String resource) {
+        return versions.computeIfAbsent(resource, key -> new AtomicLong());
+    }
+}
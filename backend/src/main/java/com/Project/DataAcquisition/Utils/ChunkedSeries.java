@@ -0,0 +1,196 @@
+package com.Project.DataAcquisition.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-ordered readings of one sensor kept in fixed-size chunks of primitive arrays
+ * (epoch microseconds and values), so a window of millions of points costs 16 bytes per point
+ * and no per-reading objects. Every reading at or after {@link #coveredFrom()} is held.
+ */
+public class ChunkedSeries {
+
+    @FunctionalInterface
+    public interface PointConsumer {
+        void accept(long time, double value);
+    }
+
+    private static final class Chunk {
+        final long[] times;
+        final double[] values;
+        int size;
+
+        Chunk(int capacity) {
+            times = new long[capacity];
+            values = new double[capacity];
+        }
+
+        long min() { return times[0]; }
+
+        long max() { return times[size - 1]; }
+
+        // First index whose time is > time (keeps equal timestamps in arrival order)
+        int upperBound(long time) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] <= time) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // First index whose time is >= time
+        int lowerBound(long time) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (times[mid] < time) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        void insert(long time, double value) {
+            int at = upperBound(time);
+            System.arraycopy(times, at, times, at + 1, size - at);
+            System.arraycopy(values, at, values, at + 1, size - at);
+            times[at] = time;
+            values[at] = value;
+            size++;
+        }
+    }
+
+    private final int chunkSize;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private long coveredFrom;
+
+    public ChunkedSeries(int chunkSize, long coveredFrom) {
+        this.chunkSize = chunkSize;
+        this.coveredFrom = coveredFrom;
+    }
+
+    public synchronized long coveredFrom() {
+        return coveredFrom;
+    }
+
+    public synchronized boolean covers(long from) {
+        return from >= coveredFrom;
+    }
+
+    /**
+     * Adds a reading and returns the number of chunks allocated for it (0 or 1).
+     * Readings older than the covered range are ignored; they are only in the database.
+     */
+    public synchronized int add(long time, double value) {
+        if (time < coveredFrom) {
+            return 0;
+        }
+        Chunk last = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+        if (last == null || time >= last.max()) {
+            // In-order append, the common case
+            int allocated = 0;
+            if (last == null || last.size == chunkSize) {
+                last = new Chunk(chunkSize);
+                chunks.add(last);
+                allocated = 1;
+            }
+            last.times[last.size] = time;
+            last.values[last.size] = value;
+            last.size++;
+            return allocated;
+        }
+
+        int index = chunkFor(time);
+        Chunk chunk = chunks.get(index);
+        int allocated = 0;
+        if (chunk.size == chunkSize) {
+            Chunk upper = split(chunk);
+            chunks.add(index + 1, upper);
+            allocated = 1;
+            if (time >= upper.min()) {
+                chunk = upper;
+            }
+        }
+        chunk.insert(time, value);
+        return allocated;
+    }
+
+    // Feeds every reading with from <= time <= to to the consumer, in time order
+    public synchronized int range(long from, long to, PointConsumer consumer) {
+        int count = 0;
+        for (int c = firstChunkEndingAtOrAfter(from); c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            if (chunk.min() > to) {
+                break;
+            }
+            int end = chunk.upperBound(to);
+            for (int i = chunk.lowerBound(from); i < end; i++) {
+                consumer.accept(chunk.times[i], chunk.values[i]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Drops whole chunks that end before the cutoff and returns how many were freed
+    public synchronized int evictBefore(long cutoff) {
+        int freed = 0;
+        while (!chunks.isEmpty() && chunks.get(0).max() < cutoff) {
+            dropFirst();
+            freed++;
+        }
+        return freed;
+    }
+
+    // Drops the oldest chunk to stay inside the memory budget
+    public synchronized int evictOldest() {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        dropFirst();
+        return 1;
+    }
+
+    // Time of the oldest held reading, or Long.MAX_VALUE when empty
+    public synchronized long oldestTime() {
+        return chunks.isEmpty() ? Long.MAX_VALUE : chunks.get(0).min();
+    }
+
+    public synchronized int chunkCount() {
+        return chunks.size();
+    }
+
+    private void dropFirst() {
+        Chunk dropped = chunks.remove(0);
+        coveredFrom = Math.max(coveredFrom, dropped.max() + 1);
+    }
+
+    private Chunk split(Chunk full) {
+        int half = full.size / 2;
+        Chunk upper = new Chunk(chunkSize);
+        upper.size = full.size - half;
+        System.arraycopy(full.times, half, upper.times, 0, upper.size);
+        System.arraycopy(full.values, half, upper.values, 0, upper.size);
+        full.size = half;
+        return upper;
+    }
+
+    // Index of the last chunk starting at or before time (0 when time precedes every chunk)
+    private int chunkFor(long time) {
+        int lo = 0, hi = chunks.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (chunks.get(mid).min() <= time) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // Index of the first chunk whose last reading is at or after time
+    private int firstChunkEndingAtOrAfter(long time) {
+        int lo = 0, hi = chunks.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chunks.get(mid).max() < time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -17,33 +17,43 @@ public class GenerateAndInsertData {
         String password = "postgres";
 
         try (Connection conn = DriverManager.getConnection(url, user, password)) {
-            String insertSQL = "INSERT INTO public.sensor_data (id, sensor_id, sensor_type, timestamp, value, rtu_id) VALUES (?, ?, ?, ?, ?, ?)";
+            String catalogSQL = "INSERT INTO public.sensor_catalog (sensor_id, rtu_id, sensor_type, unit) VALUES (?, ?, ?, ?) ON CONFLICT (sensor_id) DO NOTHING";
+            PreparedStatement catalogStmt = conn.prepareStatement(catalogSQL);
+            String insertSQL = "INSERT INTO public.sensor_data (id, sensor_key, timestamp, value) SELECT ?, sensor_key, ?, ? FROM public.sensor_catalog WHERE sensor_id = ?";
             PreparedStatement pstmt = conn.prepareStatement(insertSQL);
 
             LocalDateTime startTimestamp = LocalDateTime.of(2025, 5, 1, 0, 0);
             LocalDateTime endTimestamp = LocalDateTime.of(2025, 5, 30, 23, 59);
 
             String[] sensorTypes = {"Temperature", "Humidity", "Pressure"};
+            String[] units = {"°C", "%", "Pa"};
             double[][] valueRanges = {{-10, 60}, {10, 90}, {0.95, 1.05}};
             int idCounter = 64801;
             Random random = new Random();
 
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+            for (int rtuId = 1; rtuId <= 5; rtuId++) {
+                for (int i = 0; i < sensorTypes.length; i++) {
+                    catalogStmt.setString(1, "RTU" + rtuId + "-" + sensorTypes[i] + "001");
+                    catalogStmt.setInt(2, rtuId);
+                    catalogStmt.setString(3, sensorTypes[i]);
+                    catalogStmt.setString(4, units[i]);
+                    catalogStmt.executeUpdate();
+                }
+            }
+
             while (!startTimestamp.isAfter(endTimestamp)) {
                 for (int rtuId = 1; rtuId <= 5; rtuId++) {
                     for (int i = 0; i < sensorTypes.length; i++) {
-                        String sensorType = sensorTypes[i];
-                        String sensorId = "RTU" + rtuId + "-" + sensorType + "001";
+                        String sensorId = "RTU" + rtuId + "-" + sensorTypes[i] + "001";
                         double value = Math.round((random.nextDouble() * (valueRanges[i][1] - valueRanges[i][0]) + valueRanges[i][0]) * 100.0) / 100.0;
                         Timestamp timestamp = Timestamp.valueOf(startTimestamp);
 
                         pstmt.setInt(1, idCounter);
-                        pstmt.setString(2, sensorId);
-                        pstmt.setString(3, sensorType);
-                        pstmt.setTimestamp(4, timestamp);
-                        pstmt.setDouble(5, value);
-                        pstmt.setInt(6, rtuId);
+                        pstmt.setTimestamp(2, timestamp);
+                        pstmt.setDouble(3, value);
+                        pstmt.setString(4, sensorId);
                         pstmt.executeUpdate();
 
                         idCounter++;
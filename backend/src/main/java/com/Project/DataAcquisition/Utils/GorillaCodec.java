@@ -0,0 +1,218 @@
+package com.Project.DataAcquisition.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Gorilla-style encoding of a time-ordered series: delta-of-delta timestamps and XOR-compressed doubles.
+ * Regular readings (fixed cadence, slowly changing values) cost a few bits per point instead of a table row.
+ * <p>
+ * Layout: count (32 bits), time unit in microseconds (32 bits), first time (64), first value (64),
+ * then one time and one value record per following point.
+ */
+public final class GorillaCodec {
+
+    private GorillaCodec() {}
+
+    public static byte[] encode(long[] times, double[] values, int count) {
+        BitWriter out = new BitWriter(count * 2 + 32);
+        long unit = timeUnit(times, count);
+
+        out.write(count, 32);
+        out.write(unit, 32);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+
+        long previousTime = times[0] / unit;
+        long previousBits = Double.doubleToRawLongBits(values[0]);
+        out.write(previousTime, 64);
+        out.write(previousBits, 64);
+
+        long previousDelta = 0;
+        int previousLeading = Integer.MAX_VALUE;
+        int previousTrailing = 0;
+
+        for (int i = 1; i < count; i++) {
+            long time = times[i] / unit;
+            long delta = time - previousTime;
+            writeDeltaOfDelta(out, delta - previousDelta);
+            previousDelta = delta;
+            previousTime = time;
+
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                continue;
+            }
+            out.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading != Integer.MAX_VALUE && leading >= previousLeading && trailing >= previousTrailing) {
+                // Meaningful bits fit in the previous window
+                out.writeBit(false);
+                out.write(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int significant = 64 - leading - trailing;
+                out.writeBit(true);
+                out.write(leading, 5);
+                out.write(significant - 1, 6);
+                out.write(xor >>> trailing, significant);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static void decode(byte[] data, ChunkedSeries.PointConsumer consumer) {
+        BitReader in = new BitReader(data);
+        int count = (int) in.read(32);
+        long unit = in.read(32);
+        if (count == 0) {
+            return;
+        }
+
+        long time = in.read(64);
+        long bits = in.read(64);
+        consumer.accept(time * unit, Double.longBitsToDouble(bits));
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            time += delta;
+
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.read(5);
+                    int significant = (int) in.read(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                bits ^= in.read(64 - leading - trailing) << trailing;
+            }
+            consumer.accept(time * unit, Double.longBitsToDouble(bits));
+        }
+    }
+
+    // Seconds or milliseconds when every timestamp allows it, which keeps the deltas-of-deltas small
+    private static long timeUnit(long[] times, int count) {
+        for (long unit : new long[]{1_000_000L, 1_000L}) {
+            boolean divisible = true;
+            for (int i = 0; i < count && divisible; i++) {
+                divisible = times[i] % unit == 0;
+            }
+            if (divisible) {
+                return unit;
+            }
+        }
+        return 1L;
+    }
+
+    private static void writeDeltaOfDelta(BitWriter out, long dod) {
+        if (dod == 0) {
+            out.writeBit(false);
+        } else if (dod >= -64 && dod <= 63) {
+            out.write(0b10, 2);
+            out.write(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            out.write(0b110, 3);
+            out.write(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            out.write(0b1110, 4);
+            out.write(dod, 12);
+        } else if (dod >= Integer.MIN_VALUE && dod <= Integer.MAX_VALUE) {
+            out.write(0b11110, 5);
+            out.write(dod, 32);
+        } else {
+            out.write(0b11111, 5);
+            out.write(dod, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return in.readSigned(7);
+        }
+        if (!in.readBit()) {
+            return in.readSigned(9);
+        }
+        if (!in.readBit()) {
+            return in.readSigned(12);
+        }
+        return in.readBit() ? in.read(64) : in.readSigned(32);
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int bitPosition;
+
+        BitWriter(int initialBytes) {
+            buffer = new byte[Math.max(initialBytes, 16)];
+        }
+
+        void writeBit(boolean bit) {
+            ensureCapacity(1);
+            if (bit) {
+                buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+            }
+            bitPosition++;
+        }
+
+        // Writes the low 'bits' bits of value, most significant first
+        void write(long value, int bits) {
+            ensureCapacity(bits);
+            for (int i = bits - 1; i >= 0; i--) {
+                if (((value >>> i) & 1L) != 0) {
+                    buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (bitPosition + 7) >>> 3);
+        }
+
+        private void ensureCapacity(int bits) {
+            int needed = (bitPosition + bits + 7) >>> 3;
+            if (needed > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(needed, buffer.length * 2));
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] buffer;
+        private int bitPosition;
+
+        BitReader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        boolean readBit() {
+            boolean bit = (buffer[bitPosition >>> 3] & (0x80 >>> (bitPosition & 7))) != 0;
+            bitPosition++;
+            return bit;
+        }
+
+        long read(int bits) {
+            long value = 0;
+            for (int i = 0; i < bits; i++) {
+                value = (value << 1) | (readBit() ? 1L : 0L);
+            }
+            return value;
+        }
+
+        long readSigned(int bits) {
+            long value = read(bits);
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.Project.DataAcquisition.Utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Drops repeated (timestamp to the second, value) readings from one sensor's time-ordered stream.
+ * Only the values of the current second are remembered, so memory does not grow with the range.
+ */
+public class OrderedDeduplicator {
+
+    private long currentSecond = Long.MIN_VALUE;
+    private double[] valuesInSecond = new double[4];
+    private int count;
+
+    // True the first time a (second, value) pair is seen
+    public boolean accept(LocalDateTime timestamp, double value) {
+        long second = timestamp.toEpochSecond(ZoneOffset.UTC);
+        if (second != currentSecond) {
+            currentSecond = second;
+            count = 0;
+        } else {
+            for (int i = 0; i < count; i++) {
+                if (Double.compare(valuesInSecond[i], value) == 0) {
+                    return false;
+                }
+            }
+        }
+        if (count == valuesInSecond.length) {
+            valuesInSecond = Arrays.copyOf(valuesInSecond, count * 2);
+        }
+        valuesInSecond[count++] = value;
+        return true;
+    }
+
+    public void reset() {
+        currentSecond = Long.MIN_VALUE;
+        count = 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.Project.DataAcquisition.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs one computation per key at a time: callers arriving while it runs wait for it and get the same result
+ * (or exception). With a TTL the result is also handed to callers for that long after it finished.
+ * Results are shared between threads, so they must not be modified by callers.
+ */
+public class SingleFlight<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+
+    private static final class Call<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE; // nanoTime; running calls never expire
+
+        boolean expired(long now) {
+            return result.isDone() && now - expiresAt > 0;
+        }
+    }
+
+    private final Map<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+    public V run(K key, long ttlMillis, Supplier<V> computation) {
+        while (true) {
+            long now = System.nanoTime();
+            Call<V> call = calls.get(key);
+            if (call != null && !call.expired(now)) {
+                log.debug("Sharing result of {}", key);
+                return await(call);
+            }
+            Call<V> mine = new Call<>();
+            boolean owner = call == null ? calls.putIfAbsent(key, mine) == null : calls.replace(key, call, mine);
+            if (owner) {
+                return compute(key, mine, ttlMillis, computation);
+            }
+            // Another caller started it first: loop and join theirs
+        }
+    }
+
+    private V compute(K key, Call<V> call, long ttlMillis, Supplier<V> computation) {
+        try {
+            V value = computation.get();
+            call.expiresAt = System.nanoTime() + ttlMillis * 1_000_000L;
+            call.result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too, or callers already waiting in await would block forever
+            call.result.completeExceptionally(e);
+            calls.remove(key, call); // failures are never kept
+            throw e;
+        } finally {
+            if (ttlMillis <= 0) {
+                calls.remove(key, call);
+            } else {
+                // Keys that are not asked again would otherwise keep their last result
+                long now = System.nanoTime();
+                calls.values().removeIf(other -> other.expired(now));
+            }
+        }
+    }
+
+    private static <V> V await(Call<V> call) {
+        try {
+            return call.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
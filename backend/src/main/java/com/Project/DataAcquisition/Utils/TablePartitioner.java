@@ -0,0 +1,149 @@
+package com.Project.DataAcquisition.Utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Catalog helpers shared by the services that keep tables range-partitioned by time.
+ * Partitions are named {@code <table>_pyyyyMMdd} (daily) or {@code <table>_pyyyy_MM} (monthly),
+ * so their bounds can be read back from the name.
+ */
+@Component
+public class TablePartitioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TablePartitioner.class);
+
+    private static final DateTimeFormatter DAILY_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTHLY_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TablePartitioner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // True while the table is still the ordinary heap table Hibernate created
+    public boolean isPlainTable(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, table);
+        return !kinds.isEmpty() && "r".equals(kinds.get(0));
+    }
+
+    public List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = ?
+                """, String.class, table);
+    }
+
+    public String dailyPartitionName(String table, LocalDate day) {
+        return table + "_p" + day.format(DAILY_SUFFIX);
+    }
+
+    public String monthlyPartitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(MONTHLY_SUFFIX);
+    }
+
+    public void createDailyPartition(String table, LocalDate day) {
+        createPartition(table, dailyPartitionName(table, day), day, day.plusDays(1));
+    }
+
+    public void createMonthlyPartition(String table, YearMonth month) {
+        createPartition(table, monthlyPartitionName(table, month), month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    /**
+     * Exclusive upper bound encoded in a partition name, or null for partitions this class did not name
+     * (e.g. the default partition).
+     */
+    public LocalDate upperBound(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        String suffix = partition.substring(prefix.length());
+        try {
+            return suffix.length() == 8
+                    ? LocalDate.parse(suffix, DAILY_SUFFIX).plusDays(1)
+                    : YearMonth.parse(suffix, MONTHLY_SUFFIX).plusMonths(1).atDay(1);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Detaching is a catalog change; the detached table can be dropped or kept for offline archiving
+    public void detachPartition(String table, String partition, boolean drop) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        if (drop) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+    }
+
+    /**
+     * Creates the partition unless it exists. Rows of that range that already landed in the default partition
+     * (written before the partition was created) are moved into it: the default partition is detached, the new
+     * partition created, the rows moved and the default re-attached, all in one transaction. Failures propagate.
+     */
+    private void createPartition(String table, String name, LocalDate from, LocalDate to) {
+        if (exists(name)) {
+            return;
+        }
+        String bounds = " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        String defaultPartition = defaultPartition(table);
+        if (defaultPartition == null) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table + bounds);
+            return;
+        }
+
+        String column = partitionColumn(table);
+        String range = " WHERE " + column + " >= '" + from + "' AND " + column + " < '" + to + "'";
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean stranded = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + defaultPartition + range + ")", Boolean.class);
+            if (!Boolean.TRUE.equals(stranded)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table + bounds);
+                return;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + defaultPartition);
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + table + bounds);
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition + range + " RETURNING *) " +
+                    "INSERT INTO " + name + " SELECT * FROM moved");
+            jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + defaultPartition + " DEFAULT");
+            logger.info("Created partition {} of {} and moved {} rows into it from {}", name, table, moved, defaultPartition);
+        });
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+
+    private String defaultPartition(String table) {
+        List<String> names = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?) AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'
+                """, String.class, table);
+        return names.isEmpty() ? null : names.get(0);
+    }
+
+    // Range partition key (a single column for the tables partitioned here)
+    private String partitionColumn(String table) {
+        return jdbcTemplate.queryForObject("""
+                SELECT quote_ident(a.attname) FROM pg_partitioned_table p
+                JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+                WHERE p.partrelid = to_regclass(?)
+                """, String.class, table);
+    }
+}
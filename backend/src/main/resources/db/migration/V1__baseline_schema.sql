@@ -0,0 +1,125 @@
+-- Baseline: the tables ddl-auto=update used to create, so existing databases pass through unchanged
+-- (spring.flyway.baseline-on-migrate) and new ones get the same layout.
+
+CREATE TABLE IF NOT EXISTS rtu_data (
+    rtu_id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rtu_name varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS sensor_data (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sensor_id   varchar(255) NOT NULL,
+    rtu_id      bigint       NOT NULL REFERENCES rtu_data (rtu_id),
+    sensor_type varchar(255) NOT NULL,
+    value       float(53)    NOT NULL,
+    timestamp   timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS rules (
+    rule_id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rule_name        varchar(255),
+    description      varchar(255),
+    status           varchar(255),
+    priority         varchar(255),
+    activation_delay integer NOT NULL,
+    last_updated     timestamp,
+    rtu_id           jsonb,
+    tags             jsonb,
+    conditions       jsonb
+);
+
+CREATE TABLE IF NOT EXISTS alarms (
+    alarm_id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    alarm_name      varchar(255),
+    rule_id         bigint,
+    severity        varchar(255),
+    status          varchar(255),
+    acknowledged_by varchar(255),
+    acknowledged_at varchar(255),
+    description     varchar(255),
+    sensor_id       jsonb,
+    type            jsonb,
+    tags            jsonb,
+    created_at      timestamp(6) NOT NULL
+);
+
+-- No FK to alarms: its key becomes (alarm_id, created_at) once partitioned
+CREATE TABLE IF NOT EXISTS alarm_sensors (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    alarm_id    bigint       NOT NULL,
+    sensor_id   varchar(255) NOT NULL,
+    sensor_type varchar(255),
+    created_at  timestamp(6) NOT NULL,
+    CONSTRAINT uk_alarm_sensors_alarm_sensor UNIQUE (alarm_id, sensor_id)
+);
+CREATE INDEX IF NOT EXISTS idx_alarm_sensors_sensor_created ON alarm_sensors (sensor_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_alarm_sensors_alarm ON alarm_sensors (alarm_id);
+
+CREATE TABLE IF NOT EXISTS widgets (
+    widget_id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    widget_type varchar(255),
+    widget_name varchar(255),
+    data        jsonb
+);
+
+CREATE TABLE IF NOT EXISTS layouts (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    layout_name varchar(255) NOT NULL,
+    layout_type varchar(255) NOT NULL,
+    created_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS layout_widgets (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    layout_id bigint NOT NULL REFERENCES layouts (id),
+    widget_id bigint NOT NULL REFERENCES widgets (widget_id)
+);
+
+CREATE TABLE IF NOT EXISTS report_types (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    report_type varchar(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS manual_reports (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    report_type     varchar(255) NOT NULL,
+    layout_id       bigint REFERENCES layouts (id),
+    description     varchar(255) NOT NULL,
+    created_at      timestamp(6) NOT NULL,
+    schedule_status boolean      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS report_widgets (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    report_id bigint NOT NULL REFERENCES manual_reports (id),
+    widget_id bigint NOT NULL REFERENCES widgets (widget_id),
+    data      jsonb
+);
+
+CREATE TABLE IF NOT EXISTS scheduled_reports (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    report_id  bigint       NOT NULL REFERENCES manual_reports (id),
+    frequency  varchar(255) NOT NULL,
+    start_date timestamp(6) NOT NULL,
+    end_date   timestamp(6),
+    next_run   timestamp(6) NOT NULL,
+    is_active  boolean      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS automated_reports (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    report_id      bigint,
+    report_type    varchar(255),
+    frequency      varchar(255),
+    generated_time timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS automated_report_widgets (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    automated_report_id bigint NOT NULL REFERENCES automated_reports (id),
+    widget_id           bigint NOT NULL REFERENCES widgets (widget_id),
+    data                jsonb
+);
+
+-- Superseded by alarm_sensors
+DROP INDEX IF EXISTS idx_alarms_sensor_id_gin;
@@ -0,0 +1,76 @@
+-- Rebuilds alarms (monthly on created_at) and sensor_data (${sensorDataInterval} on timestamp) as
+-- range-partitioned tables. Tables that are already partitioned are left alone.
+-- Partitions are created through the same number of periods ahead that AlarmPartitionService and
+-- SensorDataPartitionService keep (alarms.partitions.months-ahead, sensor-data.partitions.ahead), so rows written
+-- before those services first run do not land in the default partitions.
+
+DO $$
+DECLARE
+    first_month date;
+    m date;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('alarms')) = 'r' THEN
+        LOCK TABLE alarms IN ACCESS EXCLUSIVE MODE;
+        ALTER TABLE alarms RENAME TO alarms_unpartitioned;
+        UPDATE alarms_unpartitioned SET created_at = now() WHERE created_at IS NULL;
+
+        -- Identity columns are not allowed on partitioned tables, so ids come from a plain sequence
+        CREATE TABLE alarms (LIKE alarms_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+        CREATE SEQUENCE IF NOT EXISTS alarms_partitioned_id_seq OWNED BY alarms.alarm_id;
+        ALTER TABLE alarms ALTER COLUMN alarm_id SET DEFAULT nextval('alarms_partitioned_id_seq');
+        ALTER TABLE alarms ALTER COLUMN created_at SET NOT NULL;
+        ALTER TABLE alarms ADD PRIMARY KEY (alarm_id, created_at);
+        CREATE TABLE alarms_default PARTITION OF alarms DEFAULT;
+
+        SELECT date_trunc('month', COALESCE(MIN(created_at), now()))::date INTO first_month FROM alarms_unpartitioned;
+        FOR m IN SELECT generate_series(first_month, (date_trunc('month', now()) + interval '${alarmPartitionsAhead} months')::date, interval '1 month')::date LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF alarms FOR VALUES FROM (%L) TO (%L)',
+                           'alarms_p' || to_char(m, 'YYYY_MM'), m, (m + interval '1 month')::date);
+        END LOOP;
+
+        INSERT INTO alarms SELECT * FROM alarms_unpartitioned;
+        PERFORM setval('alarms_partitioned_id_seq', COALESCE((SELECT MAX(alarm_id) FROM alarms), 0) + 1, false);
+        DROP TABLE alarms_unpartitioned CASCADE;
+    END IF;
+END $$;
+
+-- Old closed alarms are moved here by AlarmPartitionService
+CREATE TABLE IF NOT EXISTS alarms_archive (LIKE alarms);
+CREATE INDEX IF NOT EXISTS idx_alarms_archive_alarm ON alarms_archive (alarm_id);
+CREATE INDEX IF NOT EXISTS idx_alarms_archive_created ON alarms_archive (created_at);
+
+DO $$
+DECLARE
+    daily boolean := lower('${sensorDataInterval}') = 'daily';
+    first_day date;
+    d date;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('sensor_data')) = 'r' THEN
+        LOCK TABLE sensor_data IN ACCESS EXCLUSIVE MODE;
+        ALTER TABLE sensor_data RENAME TO sensor_data_unpartitioned;
+
+        CREATE TABLE sensor_data (LIKE sensor_data_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (timestamp);
+        CREATE SEQUENCE IF NOT EXISTS sensor_data_partitioned_id_seq OWNED BY sensor_data.id;
+        ALTER TABLE sensor_data ALTER COLUMN id SET DEFAULT nextval('sensor_data_partitioned_id_seq');
+        ALTER TABLE sensor_data ADD PRIMARY KEY (id, timestamp);
+        ALTER TABLE sensor_data ADD FOREIGN KEY (rtu_id) REFERENCES rtu_data (rtu_id);
+        CREATE TABLE sensor_data_default PARTITION OF sensor_data DEFAULT;
+
+        SELECT COALESCE(MIN(timestamp), now())::date INTO first_day FROM sensor_data_unpartitioned;
+        IF daily THEN
+            FOR d IN SELECT generate_series(first_day, current_date + ${sensorDataPartitionsAhead}, interval '1 day')::date LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF sensor_data FOR VALUES FROM (%L) TO (%L)',
+                               'sensor_data_p' || to_char(d, 'YYYYMMDD'), d, d + 1);
+            END LOOP;
+        ELSE
+            FOR d IN SELECT generate_series(date_trunc('month', first_day), date_trunc('month', now()) + interval '${sensorDataPartitionsAhead} months', interval '1 month')::date LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF sensor_data FOR VALUES FROM (%L) TO (%L)',
+                               'sensor_data_p' || to_char(d, 'YYYY_MM'), d, (d + interval '1 month')::date);
+            END LOOP;
+        END IF;
+
+        INSERT INTO sensor_data SELECT * FROM sensor_data_unpartitioned;
+        PERFORM setval('sensor_data_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM sensor_data), 0) + 1, false);
+        DROP TABLE sensor_data_unpartitioned;
+    END IF;
+END $$;
@@ -0,0 +1,49 @@
+-- Indexes for the repository queries. Indexes on partitioned parents (alarms, sensor_data) cascade to every
+-- partition, present and future. Keep SchemaIndexVerifier.EXPECTED_INDEXES in step with this file.
+
+-- sensor_data: findBySensorIdAndTimestampBetween*, findMax/Min/AverageValue, findSensorValuesBetween,
+-- findSensorDataBetween, findBySensorIdAndTypeAndTimestampBetween
+CREATE INDEX IF NOT EXISTS idx_sensor_data_sensor_timestamp ON sensor_data (sensor_id, timestamp);
+-- sensor_data: findByRtuId(s), findDistinctSensorTypesByRtuIds, findSensorIdsByRtu_RtuIdsAndSensorType
+CREATE INDEX IF NOT EXISTS idx_sensor_data_rtu_type ON sensor_data (rtu_id, sensor_type);
+-- sensor_data: findBySensorIdAndSensorType, findBySensorIdInAndSensorTypeIn
+CREATE INDEX IF NOT EXISTS idx_sensor_data_sensor_type ON sensor_data (sensor_id, sensor_type);
+-- sensor_data: existsBySensorIdIgnoreCaseAndSensorTypeIgnoreCase (Spring Data compares with upper())
+CREATE INDEX IF NOT EXISTS idx_sensor_data_sensor_type_upper ON sensor_data (upper(sensor_id), upper(sensor_type));
+
+-- alarms: findBySeverityAndStatus, findByStatus, status counts, Alarm Table status/severity/time filters
+CREATE INDEX IF NOT EXISTS idx_alarms_status_severity_created ON alarms (status, severity, created_at);
+-- alarms: findBySeverity, severity counts
+CREATE INDEX IF NOT EXISTS idx_alarms_severity ON alarms (severity);
+-- alarms: bulk acknowledge/close by rule and time range
+CREATE INDEX IF NOT EXISTS idx_alarms_rule_created ON alarms (rule_id, created_at);
+
+-- scheduled_reports: find{Hourly,Daily,Weekly,Monthly}ReportsToRun, existsByFrequencyAndNextRunBefore
+CREATE INDEX IF NOT EXISTS idx_scheduled_reports_active_frequency_next_run ON scheduled_reports (is_active, frequency, next_run);
+-- scheduled_reports: findByReportId*, existsByReportId
+CREATE INDEX IF NOT EXISTS idx_scheduled_reports_report_frequency ON scheduled_reports (report_id, frequency);
+
+-- report_widgets: findByReport_Id, findByReport_IdAndWidget_WidgetId
+CREATE INDEX IF NOT EXISTS idx_report_widgets_report_widget ON report_widgets (report_id, widget_id);
+
+-- automated_report_widgets: findByAutomatedReport_Id, deleteByAutomatedReport_Id
+CREATE INDEX IF NOT EXISTS idx_automated_report_widgets_report ON automated_report_widgets (automated_report_id);
+
+-- automated_reports: findByReportId, findByReportIdAndFrequency
+CREATE INDEX IF NOT EXISTS idx_automated_reports_report_frequency ON automated_reports (report_id, frequency);
+
+-- layout_widgets: findWidgetsByLayoutId, findByLayout, deleteByLayout, findByWidget_WidgetIdAndLayout_Id
+CREATE INDEX IF NOT EXISTS idx_layout_widgets_layout_widget ON layout_widgets (layout_id, widget_id);
+
+-- layouts: findByLayoutName
+CREATE INDEX IF NOT EXISTS idx_layouts_layout_name ON layouts (layout_name);
+
+-- manual_reports: filterReports date range, schedule status counts
+CREATE INDEX IF NOT EXISTS idx_manual_reports_created ON manual_reports (created_at);
+CREATE INDEX IF NOT EXISTS idx_manual_reports_schedule_status ON manual_reports (schedule_status);
+
+-- rtu_data: findByRtuName, existsByRtuName, findAllByRtuNameIn
+CREATE INDEX IF NOT EXISTS idx_rtu_data_rtu_name ON rtu_data (rtu_name);
+
+-- Narrower index from the earlier startup conversion; idx_alarms_status_severity_created covers it
+DROP INDEX IF EXISTS idx_alarms_status_created;
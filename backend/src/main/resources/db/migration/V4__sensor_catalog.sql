@@ -0,0 +1,66 @@
+-- Moves the per-sensor strings (sensor_id, rtu_id, sensor_type) out of sensor_data into sensor_catalog.
+-- Each reading keeps only an integer sensor_key, which roughly halves the row width and the size of the
+-- (sensor, timestamp) index. sensor_data is rebuilt rather than altered so the space of the dropped
+-- columns is actually reclaimed; partition names and bounds are kept as they were.
+
+CREATE TABLE IF NOT EXISTS sensor_catalog (
+    sensor_key  integer GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sensor_id   varchar(255) NOT NULL,
+    rtu_id      bigint       NOT NULL REFERENCES rtu_data (rtu_id),
+    sensor_type varchar(255) NOT NULL,
+    unit        varchar(255),
+    CONSTRAINT uk_sensor_catalog_sensor_id UNIQUE (sensor_id)
+);
+
+DO $$
+DECLARE
+    p record;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'sensor_data' AND column_name = 'sensor_id') THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE sensor_data IN ACCESS EXCLUSIVE MODE;
+
+    -- The latest reading of a sensor decides its RTU and type
+    INSERT INTO sensor_catalog (sensor_id, rtu_id, sensor_type, unit)
+    SELECT DISTINCT ON (sensor_id) sensor_id, rtu_id, sensor_type,
+           CASE sensor_type WHEN 'Temperature' THEN '°C' WHEN 'Humidity' THEN '%' WHEN 'Pressure' THEN 'Pa' END
+    FROM sensor_data
+    ORDER BY sensor_id, timestamp DESC
+    ON CONFLICT (sensor_id) DO NOTHING;
+
+    ALTER TABLE sensor_data RENAME TO sensor_data_old;
+    ALTER SEQUENCE sensor_data_partitioned_id_seq OWNED BY NONE;
+
+    CREATE TABLE sensor_data (
+        id         bigint       NOT NULL DEFAULT nextval('sensor_data_partitioned_id_seq'),
+        sensor_key integer      NOT NULL REFERENCES sensor_catalog (sensor_key),
+        value      float(53)    NOT NULL,
+        timestamp  timestamp(6) NOT NULL,
+        PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+    ALTER SEQUENCE sensor_data_partitioned_id_seq OWNED BY sensor_data.id;
+
+    FOR p IN SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound
+             FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'sensor_data_old'::regclass LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', p.relname, p.relname || '_old');
+        EXECUTE format('CREATE TABLE %I PARTITION OF sensor_data %s', p.relname, p.bound);
+    END LOOP;
+
+    INSERT INTO sensor_data (id, sensor_key, value, timestamp)
+    SELECT d.id, c.sensor_key, d.value, d.timestamp
+    FROM sensor_data_old d JOIN sensor_catalog c ON c.sensor_id = d.sensor_id;
+
+    DROP TABLE sensor_data_old;
+END $$;
+
+-- sensor_data: findBySensorKeyAndTimestampBetween*, findMax/Min/AverageValue, findSensorValuesBetween,
+-- findSensorDataBetween, findBySensorKeysAndTimestampBetween
+CREATE INDEX IF NOT EXISTS idx_sensor_data_sensor_key_timestamp ON sensor_data (sensor_key, timestamp);
+-- sensor_catalog: findByRtuId(s), findDistinctSensorTypesByRtuIds, findSensorIdsByRtu_RtuIdsAndSensorType
+CREATE INDEX IF NOT EXISTS idx_sensor_catalog_rtu_type ON sensor_catalog (rtu_id, sensor_type);
+-- sensor_catalog: existsBySensorIdIgnoreCaseAndSensorTypeIgnoreCase (Spring Data compares with upper())
+CREATE INDEX IF NOT EXISTS idx_sensor_catalog_sensor_type_upper ON sensor_catalog (upper(sensor_id), upper(sensor_type));
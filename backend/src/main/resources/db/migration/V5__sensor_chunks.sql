@@ -0,0 +1,28 @@
+-- Compressed history: one row per sensor and day, holding that day's readings Gorilla-encoded
+-- (delta-of-delta timestamps, XOR values). SensorChunkStore copies days older than
+-- sensor-data.chunks.compress-after-days here from sensor_data; partitions of sensor_data that lie entirely
+-- before compacted_before are then dropped, so each day is stored once. The summary columns answer min/max/avg for whole chunks without decoding them.
+
+CREATE TABLE IF NOT EXISTS sensor_chunks (
+    sensor_key  integer      NOT NULL REFERENCES sensor_catalog (sensor_key),
+    chunk_start timestamp(6) NOT NULL,
+    chunk_end   timestamp(6) NOT NULL, -- exclusive
+    point_count integer      NOT NULL,
+    min_value   float(53)    NOT NULL,
+    max_value   float(53)    NOT NULL,
+    sum_value   float(53)    NOT NULL,
+    data        bytea        NOT NULL,
+    PRIMARY KEY (sensor_key, chunk_start)
+);
+
+-- The payload is already compressed; skip TOAST compression and only move large values out of line
+ALTER TABLE sensor_chunks ALTER COLUMN data SET STORAGE EXTERNAL;
+
+-- Range reads take chunks before compacted_before and sensor_data rows from it on (null: nothing compacted yet).
+-- raw_from: sensor_data partitions before it were dropped, so chunks there can no longer be rebuilt (null: none)
+CREATE TABLE IF NOT EXISTS sensor_chunk_state (
+    id               smallint     PRIMARY KEY DEFAULT 1 CHECK (id = 1),
+    compacted_before timestamp(6),
+    raw_from         timestamp(6)
+);
+INSERT INTO sensor_chunk_state (id, compacted_before) VALUES (1, NULL) ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,3 @@
+-- Row version of report widgets, bumped by Hibernate on every update. Parsed widget configurations are cached
+-- per (id, version), so a changed widget is parsed again on its next read.
+ALTER TABLE report_widgets ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,107 @@
+package com.Project.DataAcquisition.Config;
+
+import com.Project.DataAcquisition.Model.SensorSeries;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Scope;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class BinaryEncodingConfigTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private AnnotationConfigWebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebConfig.class);
+        context.refresh();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void smileHonoursColumnarFormat() throws Exception {
+        JsonNode series = fetch(SMILE, new ObjectMapper(new SmileFactory()), "columnar").get("sensorValues");
+
+        assertEquals(1704067200000L, series.get("timestamps").get(0).asLong());
+        assertEquals(1.5, series.get("values").get(0).asDouble());
+    }
+
+    @Test
+    void cborHonoursColumnarFormat() throws Exception {
+        JsonNode series = fetch(CBOR, new ObjectMapper(new CBORFactory()), "columnar").get("sensorValues");
+
+        assertEquals(1704067200000L, series.get("timestamps").get(0).asLong());
+    }
+
+    @Test
+    void smileKeepsRowsWithoutFormat() throws Exception {
+        JsonNode series = fetch(SMILE, new ObjectMapper(new SmileFactory()), null).get("sensorValues");
+
+        assertTrue(series.isArray());
+        assertEquals("2024-01-01T00:00", series.get(0).get("timestamp").asText());
+    }
+
+    private JsonNode fetch(MediaType accept, ObjectMapper reader, String format) throws Exception {
+        MvcResult result = mockMvc.perform(format != null
+                        ? get("/series").accept(accept).param("format", format)
+                        : get("/series").accept(accept))
+                .andReturn();
+        assertEquals(200, result.getResponse().getStatus());
+        assertTrue(accept.isCompatibleWith(MediaType.parseMediaType(result.getResponse().getContentType())));
+        return reader.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import({BinaryEncodingConfig.class, SeriesController.class})
+    static class WebConfig {
+        // Stands in for Spring Boot's prototype builder
+        @Bean
+        @Scope("prototype")
+        Jackson2ObjectMapperBuilder jacksonObjectMapperBuilder() {
+            return new Jackson2ObjectMapperBuilder();
+        }
+    }
+
+    @RestController
+    static class SeriesController {
+        @GetMapping("/series")
+        Map<String, Object> series() {
+            return Map.of("sensorValues", SensorSeries.fromRows(List.of(Map.of("timestamp", "2024-01-01T00:00", "value", 1.5))));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.Project.DataAcquisition.Service.Alarm;
+
+import com.Project.DataAcquisition.Entity.Reports.Manual.Sensor;
+import com.Project.DataAcquisition.Entity.Reports.Manual.SensorCatalog;
+import com.Project.DataAcquisition.Service.Alarm.SensorCompressionService.Offer;
+import com.Project.DataAcquisition.Service.Alarm.SensorCompressionService.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SensorCompressionServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private SensorCompressionService service;
+    private SensorCatalog temperature;
+    private SensorCatalog pressure;
+
+    @BeforeEach
+    void setUp() {
+        service = new SensorCompressionService();
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "deadband", Map.of("Temperature", 0.5, "Pressure", 1.0));
+        ReflectionTestUtils.setField(service, "deadbandPercent", Map.of());
+        ReflectionTestUtils.setField(service, "swingingDoor", Map.of("Temperature", 0.2));
+        ReflectionTestUtils.setField(service, "maxIntervalMinutes", 60L);
+
+        temperature = catalog(1, "RTU1-Temperature001", "Temperature");
+        pressure = catalog(2, "RTU1-Pressure001", "Pressure");
+    }
+
+    @Test
+    void disabledOrUnconfiguredTypesAreStoredUnchanged() {
+        SensorCatalog humidity = catalog(3, "RTU1-Humidity001", "Humidity");
+        Sensor reading = reading(humidity, 0, 50);
+        Offer offer = service.offer(reading);
+        assertEquals(Outcome.STORED, offer.outcome());
+        assertEquals(List.of(reading), offer.toStore());
+
+        ReflectionTestUtils.setField(service, "enabled", false);
+        Sensor first = reading(temperature, 0, 20);
+        Sensor same = reading(temperature, 60, 20);
+        assertEquals(Outcome.STORED, service.offer(first).outcome());
+        assertEquals(Outcome.STORED, service.offer(same).outcome());
+    }
+
+    @Test
+    void firstReadingIsStored() {
+        Sensor first = reading(temperature, 0, 20);
+        Offer offer = service.offer(first);
+        assertEquals(Outcome.STORED, offer.outcome());
+        assertEquals(List.of(first), offer.toStore());
+    }
+
+    @Test
+    void readingsInsideTheDeadbandAreDropped() {
+        service.offer(reading(pressure, 0, 100));
+        assertEquals(Outcome.DROPPED, service.offer(reading(pressure, 60, 100.9)).outcome());
+        assertEquals(Outcome.DROPPED, service.offer(reading(pressure, 120, 99.0)).outcome());
+
+        // No swinging door for Pressure: accepted readings are stored at once
+        Sensor jump = reading(pressure, 180, 101.5);
+        Offer offer = service.offer(jump);
+        assertEquals(Outcome.STORED, offer.outcome());
+        assertEquals(List.of(jump), offer.toStore());
+    }
+
+    @Test
+    void percentDeadbandScalesWithTheLastValue() {
+        ReflectionTestUtils.setField(service, "deadband", Map.of());
+        ReflectionTestUtils.setField(service, "deadbandPercent", Map.of("Pressure", 1.0));
+        service.offer(reading(pressure, 0, 1_000));
+        assertEquals(Outcome.DROPPED, service.offer(reading(pressure, 60, 1_009)).outcome());
+        assertEquals(Outcome.STORED, service.offer(reading(pressure, 120, 1_011)).outcome());
+    }
+
+    @Test
+    void aFlatSensorStillReportsOnceTheMaxIntervalPassed() {
+        service.offer(reading(pressure, 0, 100));
+        assertEquals(Outcome.DROPPED, service.offer(reading(pressure, 59 * 60, 100)).outcome());
+        assertEquals(Outcome.STORED, service.offer(reading(pressure, 60 * 60, 100)).outcome());
+    }
+
+    @Test
+    void swingingDoorHoldsReadingsOnAStraightLineAndStoresTheLastOneWhenTheDoorOpens() {
+        service.offer(reading(temperature, 0, 20));
+
+        // A steady 1 degree per minute ramp stays inside the door
+        Sensor previous = null;
+        for (int minute = 1; minute <= 5; minute++) {
+            Sensor next = reading(temperature, minute * 60, 20 + minute);
+            Offer offer = service.offer(next);
+            assertEquals(Outcome.HELD, offer.outcome(), "minute " + minute);
+            assertTrue(offer.toStore().isEmpty());
+            previous = next;
+        }
+
+        // A turn opens the door: the last held reading is stored, the new one is held
+        Sensor turn = reading(temperature, 6 * 60, 20);
+        Offer offer = service.offer(turn);
+        assertEquals(Outcome.HELD, offer.outcome());
+        assertEquals(1, offer.toStore().size());
+        assertSame(previous, offer.toStore().get(0));
+
+        assertEquals(List.of(turn), service.releaseAll());
+        assertTrue(service.releaseAll().isEmpty());
+    }
+
+    @Test
+    void outOfOrderReadingsFlushTheHeldReadingAndAreStored() {
+        service.offer(reading(temperature, 0, 20));
+        Sensor held = reading(temperature, 120, 22);
+        assertEquals(Outcome.HELD, service.offer(held).outcome());
+
+        Sensor late = reading(temperature, 60, 25);
+        Offer offer = service.offer(late);
+        assertEquals(Outcome.STORED, offer.outcome());
+        assertEquals(List.of(held, late), offer.toStore());
+    }
+
+    @Test
+    void statsCountReceivedAndStoredReadings() {
+        service.offer(reading(pressure, 0, 100));
+        service.offer(reading(pressure, 60, 100.1));
+        service.offer(reading(pressure, 120, 100.2));
+        service.offer(reading(pressure, 180, 105));
+
+        Map<String, Object> row = service.getCompressionStats().get(0);
+        assertEquals("RTU1-Pressure001", row.get("sensorId"));
+        assertEquals(4L, row.get("received"));
+        assertEquals(2L, row.get("stored"));
+        assertEquals(2.0, row.get("ratio"));
+    }
+
+    private static SensorCatalog catalog(int key, String sensorId, String type) {
+        SensorCatalog catalog = new SensorCatalog(sensorId, null, type, null);
+        catalog.setSensorKey(key);
+        return catalog;
+    }
+
+    private static Sensor reading(SensorCatalog catalog, long seconds, double value) {
+        return new Sensor(catalog, value, T0.plusSeconds(seconds));
+    }
+}
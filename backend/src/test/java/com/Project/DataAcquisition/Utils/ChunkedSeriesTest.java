@@ -0,0 +1,96 @@
+package com.Project.DataAcquisition.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedSeriesTest {
+
+    @Test
+    void inOrderReadingsFillChunksAndRangeIsInclusive() {
+        ChunkedSeries series = new ChunkedSeries(4, 0);
+        int allocated = 0;
+        for (int i = 0; i < 10; i++) {
+            allocated += series.add(i * 10L, i);
+        }
+        assertEquals(3, allocated);
+        assertEquals(3, series.chunkCount());
+
+        List<Long> times = times(series, 20, 70);
+        assertEquals(List.of(20L, 30L, 40L, 50L, 60L, 70L), times);
+        assertEquals(0, series.range(91, 200, (time, value) -> { }));
+    }
+
+    @Test
+    void outOfOrderReadingsAreInsertedInTimeOrder() {
+        ChunkedSeries series = new ChunkedSeries(4, 0);
+        Random random = new Random(11);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long time = random.nextInt(10_000);
+            series.add(time, time);
+            expected.add(time);
+        }
+        expected.sort(Long::compare);
+
+        List<Long> times = times(series, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(expected, times);
+        // Values travel with their timestamps through splits
+        series.range(Long.MIN_VALUE, Long.MAX_VALUE, (time, value) -> assertEquals(time, (long) value));
+    }
+
+    @Test
+    void equalTimestampsKeepArrivalOrder() {
+        ChunkedSeries series = new ChunkedSeries(2, 0);
+        series.add(10, 1);
+        series.add(30, 4);
+        series.add(10, 2);
+        series.add(10, 3);
+
+        List<Double> values = new ArrayList<>();
+        series.range(0, 100, (time, value) -> values.add(value));
+        assertEquals(List.of(1.0, 2.0, 3.0, 4.0), values);
+    }
+
+    @Test
+    void readingsBeforeTheCoveredRangeAreIgnored() {
+        ChunkedSeries series = new ChunkedSeries(4, 100);
+        assertEquals(0, series.add(99, 1));
+        assertEquals(1, series.add(100, 2));
+        assertEquals(List.of(100L), times(series, 0, 1_000));
+        assertFalse(series.covers(99));
+        assertTrue(series.covers(100));
+    }
+
+    @Test
+    void evictionDropsWholeChunksAndMovesTheCoveredStart() {
+        ChunkedSeries series = new ChunkedSeries(2, 0);
+        for (int i = 0; i < 6; i++) {
+            series.add(i, i);
+        }
+        assertEquals(1, series.evictBefore(2)); // Chunk [0, 1]
+        assertEquals(2, series.coveredFrom());
+        assertEquals(2, series.oldestTime());
+
+        assertEquals(1, series.evictOldest()); // Chunk [2, 3]
+        assertEquals(4, series.coveredFrom());
+        assertEquals(List.of(4L, 5L), times(series, 0, 10));
+
+        assertEquals(1, series.evictBefore(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, series.oldestTime());
+        assertEquals(0, series.evictOldest());
+        assertEquals(0, series.chunkCount());
+    }
+
+    private static List<Long> times(ChunkedSeries series, long from, long to) {
+        List<Long> times = new ArrayList<>();
+        series.range(from, to, (time, value) -> times.add(time));
+        return times;
+    }
+}
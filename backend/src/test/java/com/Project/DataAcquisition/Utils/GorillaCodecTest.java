@@ -0,0 +1,122 @@
+package com.Project.DataAcquisition.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GorillaCodecTest {
+
+    @Test
+    void emptySeriesRoundTrips() {
+        byte[] data = GorillaCodec.encode(new long[0], new double[0], 0);
+        assertEquals(0, decode(data).size());
+    }
+
+    @Test
+    void singlePointRoundTrips() {
+        assertRoundTrip(new long[]{1_700_000_000_123_456L}, new double[]{42.5});
+    }
+
+    @Test
+    void regularReadingsEncodeInAFewBitsPerPoint() {
+        int count = 86_400;
+        long[] times = new long[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = (1_700_000_000L + i) * 1_000_000L; // One reading per second
+            values[i] = 21.5;
+        }
+        byte[] data = assertRoundTrip(times, values);
+        assertTrue(data.length < count / 2, "constant 1s series took " + data.length + " bytes");
+    }
+
+    @Test
+    void irregularMicrosecondTimesAndRandomValuesRoundTrip() {
+        Random random = new Random(7);
+        int count = 5_000;
+        long[] times = new long[count];
+        double[] values = new double[count];
+        long time = 1_700_000_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            time += 1 + random.nextInt(5_000_000);
+            times[i] = time;
+            values[i] = random.nextGaussian() * 1_000;
+        }
+        assertRoundTrip(times, values);
+    }
+
+    @Test
+    void millisecondTimesRoundTrip() {
+        assertRoundTrip(new long[]{1_000L, 2_000L, 3_500_000L, 3_501_000L}, new double[]{1, 2, 3, 4});
+    }
+
+    @Test
+    void deltaOfDeltaAtEveryEncodingWidthRoundTrips() {
+        long[] gaps = {1, 64, 65, 256, 257, 2_048, 2_049, Integer.MAX_VALUE, (long) Integer.MAX_VALUE + 1, Long.MAX_VALUE / 4};
+        List<Long> timeList = new ArrayList<>();
+        long time = 0;
+        timeList.add(time);
+        for (long gap : gaps) {
+            time += gap;
+            timeList.add(time);
+            time += 1; // Back to a small delta, so the delta-of-delta swings both ways
+            timeList.add(time);
+        }
+        long[] times = timeList.stream().mapToLong(Long::longValue).toArray();
+        assertRoundTrip(times, new double[times.length]);
+    }
+
+    @Test
+    void timesBeforeTheEpochAndEqualTimesRoundTrip() {
+        assertRoundTrip(new long[]{-86_400_000_000L, -1_000_000L, 0L, 0L, 1L},
+                new double[]{1.0, 2.0, 3.0, 3.0, 4.0});
+    }
+
+    @Test
+    void specialDoubleValuesKeepTheirBits() {
+        double[] values = {0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE, 1e-300, 1.0, 1.0 + Math.ulp(1.0)};
+        long[] times = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            times[i] = i * 1_000_000L;
+        }
+        assertRoundTrip(times, values);
+    }
+
+    @Test
+    void onlyTheFirstCountPointsAreEncoded() {
+        long[] times = {1_000_000L, 2_000_000L, 3_000_000L};
+        double[] values = {1, 2, 3};
+        List<double[]> decoded = decode(GorillaCodec.encode(times, values, 2));
+        assertEquals(2, decoded.size());
+        assertEquals(2.0, decoded.get(1)[1]);
+    }
+
+    private static byte[] assertRoundTrip(long[] times, double[] values) {
+        byte[] data = GorillaCodec.encode(times, values, times.length);
+        List<double[]> decoded = new ArrayList<>();
+        List<Long> decodedTimes = new ArrayList<>();
+        GorillaCodec.decode(data, (time, value) -> {
+            decodedTimes.add(time);
+            decoded.add(new double[]{value});
+        });
+        assertEquals(times.length, decoded.size());
+        assertArrayEquals(times, decodedTimes.stream().mapToLong(Long::longValue).toArray());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(decoded.get(i)[0]), "value " + i);
+        }
+        return data;
+    }
+
+    private static List<double[]> decode(byte[] data) {
+        List<double[]> points = new ArrayList<>();
+        GorillaCodec.decode(data, (time, value) -> points.add(new double[]{time, value}));
+        return points;
+    }
+}
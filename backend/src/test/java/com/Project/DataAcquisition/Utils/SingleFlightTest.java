@@ -0,0 +1,73 @@
+package com.Project.DataAcquisition.Utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flight.run("key", 0, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        started.await();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> flight.run("key", 0, () -> {
+            runs.incrementAndGet();
+            return "other";
+        }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertEquals("value", first.get(5, TimeUnit.SECONDS));
+        assertEquals("value", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void errorReachesWaitersAndIsNotKept() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StackOverflowError error = new StackOverflowError("boom");
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> flight.run("key", 60_000, () -> {
+            started.countDown();
+            await(release);
+            throw error;
+        }));
+        started.await();
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> flight.run("key", 60_000, () -> "other"));
+        Thread.sleep(50);
+        release.countDown();
+
+        ExecutionException ownerFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertSame(error, ownerFailure.getCause());
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, waiterFailure.getCause());
+        assertEquals("again", flight.run("key", 60_000, () -> "again"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}